@@ -0,0 +1,93 @@
+-- Sample data, generated: run on the schema of docs/script.sql, before the migrations (their backfills then cover it).
+-- Volumes are psql variables, e.g.:
+--   psql -d blogging -v users=10000 -v posts=100000 -v comments=500000 -f docs/feedDB.sql
+-- Ids are sequential from 1 on a fresh database; the same volumes always give the same data (setseed).
+
+\set ON_ERROR_STOP on
+\if :{?users}
+\else
+  \set users 1000
+\endif
+\if :{?posts}
+\else
+  \set posts 10000
+\endif
+\if :{?comments}
+\else
+  \set comments 50000
+\endif
+\if :{?tags}
+\else
+  \set tags 200
+\endif
+\if :{?reviews}
+\else
+  \set reviews 20000
+\endif
+\if :{?tags_per_post}
+\else
+  \set tags_per_post 3
+\endif
+
+BEGIN;
+
+SELECT setseed(0.42);
+
+CREATE TEMPORARY TABLE words ON COMMIT DROP AS
+SELECT array[
+    'java', 'spring', 'postgres', 'index', 'query', 'latency', 'cache', 'thread', 'pool', 'graphql',
+    'rest', 'api', 'design', 'testing', 'cloud', 'docker', 'kotlin', 'memory', 'profiling', 'scaling',
+    'the', 'a', 'of', 'and', 'with', 'for', 'on', 'in', 'how', 'why',
+    'fast', 'simple', 'guide', 'notes', 'review', 'deep', 'dive', 'lessons', 'patterns', 'pitfalls'
+    ] AS w;
+
+INSERT INTO users (username, first_name, last_name, email, password, created_at, updated_at)
+SELECT 'user' || i,
+       (array['Ama', 'Kofi', 'Jane', 'John', 'Efua', 'Kwame', 'Lena', 'Omar', 'Sara', 'Yaw'])[1 + i % 10],
+       (array['Mensah', 'Doe', 'Owusu', 'Smith', 'Boateng', 'Asante', 'Garcia', 'Addo', 'Nkrumah', 'Lee'])[1 + (i / 10) % 10],
+       'user' || i || '@example.com',
+       'seeded-password-not-usable',
+       ts, ts
+FROM (SELECT i, now() - random() * interval '730 days' AS ts FROM generate_series(1, :users) i) g;
+
+INSERT INTO tags (name)
+SELECT 'tag-' || i
+FROM generate_series(1, :tags) i;
+
+INSERT INTO posts (author_id, title, body, created_at, updated_at)
+SELECT 1 + floor(random() * :users)::bigint,
+       initcap((SELECT string_agg(w[1 + floor(random() * array_length(w, 1))::int], ' ') FROM words, generate_series(1, 5 + i % 3))),
+       (SELECT string_agg(w[1 + floor(random() * array_length(w, 1))::int], ' ') FROM words, generate_series(1, 40 + i % 80)),
+       ts, ts
+FROM (SELECT i, now() - random() * interval '365 days' AS ts FROM generate_series(1, :posts) i) g;
+
+INSERT INTO post_tags (post_id, tag_id)
+SELECT p, 1 + floor(random() * :tags)::bigint
+FROM generate_series(1, :posts) p, generate_series(1, :tags_per_post)
+ON CONFLICT DO NOTHING;
+
+-- Every fifth comment replies to a comment of the same post generated before it
+INSERT INTO comments (post_id, user_id, body, created_at, updated_at)
+SELECT 1 + floor(random() * :posts)::bigint,
+       1 + floor(random() * :users)::bigint,
+       (SELECT string_agg(w[1 + floor(random() * array_length(w, 1))::int], ' ') FROM words, generate_series(1, 8 + i % 20)),
+       ts, ts
+FROM (SELECT i, now() - random() * interval '365 days' AS ts FROM generate_series(1, :comments) i) g;
+
+UPDATE comments c
+   SET parent_comment = r.previous
+  FROM (SELECT id, lag(id) OVER (PARTITION BY post_id ORDER BY id) AS previous FROM comments) r
+ WHERE r.id = c.id
+   AND c.id % 5 = 0
+   AND r.previous IS NOT NULL;
+
+INSERT INTO reviews (post_id, user_id, rate, created_at, updated_at)
+SELECT 1 + floor(random() * :posts)::bigint,
+       1 + floor(random() * :users)::bigint,
+       (enum_range(NULL::e_review))[1 + floor(random() * 5)::int],
+       ts, ts
+FROM (SELECT i, now() - random() * interval '365 days' AS ts FROM generate_series(1, :reviews) i) g;
+
+COMMIT;
+
+ANALYZE;
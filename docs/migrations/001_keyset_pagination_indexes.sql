@@ -0,0 +1,22 @@
+-- Indexes backing keyset (cursor) pagination.
+-- Listings are read newest first with "WHERE is_deleted = false AND (created_at, id) < (?, ?)
+-- ORDER BY created_at DESC, id DESC LIMIT ?", which these partial indexes answer with an index
+-- range scan, whatever the depth of the page.
+
+CREATE INDEX IF NOT EXISTS idx_posts_keyset
+    ON posts (created_at DESC, id DESC) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_posts_author_keyset
+    ON posts (author_id, created_at DESC, id DESC) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_comments_keyset
+    ON comments (created_at DESC, id DESC) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_keyset
+    ON users (created_at DESC, id DESC) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_reviews_keyset
+    ON reviews (created_at DESC, id DESC) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_tags_keyset
+    ON tags (created_at DESC, id DESC) WHERE is_deleted = false;
@@ -0,0 +1,58 @@
+-- Full-text search on posts.
+-- posts.search_vector holds the weighted lexemes of a post: title (A) > body (B) > author names (C).
+-- It is maintained by triggers (on posts, and on users when an author renames) and indexed with GIN,
+-- so "search_vector @@ tsquery" is answered from the index instead of scanning every post body.
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION post_search_vector(p_title text, p_body text, p_author_id bigint)
+RETURNS tsvector
+LANGUAGE sql STABLE
+AS $$
+    SELECT setweight(to_tsvector('english', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(p_body, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(
+               (SELECT concat_ws(' ', u.username, u.first_name, u.last_name) FROM users u WHERE u.id = p_author_id),
+               '')), 'C');
+$$;
+
+CREATE OR REPLACE FUNCTION posts_search_vector_refresh()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.search_vector := post_search_vector(NEW.title, NEW.body, NEW.author_id);
+    RETURN NEW;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_posts_search_vector ON posts;
+CREATE TRIGGER trg_posts_search_vector
+    BEFORE INSERT OR UPDATE OF title, body, author_id ON posts
+    FOR EACH ROW EXECUTE FUNCTION posts_search_vector_refresh();
+
+CREATE OR REPLACE FUNCTION users_posts_search_vector_refresh()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE posts
+       SET search_vector = post_search_vector(title, body, author_id)
+     WHERE author_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_users_posts_search_vector ON users;
+CREATE TRIGGER trg_users_posts_search_vector
+    AFTER UPDATE OF username, first_name, last_name ON users
+    FOR EACH ROW
+    WHEN (OLD.username IS DISTINCT FROM NEW.username
+       OR OLD.first_name IS DISTINCT FROM NEW.first_name
+       OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+    EXECUTE FUNCTION users_posts_search_vector_refresh();
+
+-- Backfill existing posts
+UPDATE posts SET search_vector = post_search_vector(title, body, author_id);
+
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
@@ -0,0 +1,21 @@
+-- Fuzzy / substring lookup of users and tags (autocomplete).
+-- pg_trgm GIN indexes serve both the similarity operator (%) and ILIKE '%term%',
+-- so typeahead queries no longer scan the users and tags tables.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm
+    ON users USING GIN (username gin_trgm_ops) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm
+    ON users USING GIN (first_name gin_trgm_ops) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm
+    ON users USING GIN (last_name gin_trgm_ops) WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_tags_name_trgm
+    ON tags USING GIN (name gin_trgm_ops) WHERE is_deleted = false;
+
+-- Case-insensitive exact lookup of a tag by name (TagDAO.get(String))
+CREATE INDEX IF NOT EXISTS idx_tags_lower_name
+    ON tags (LOWER(name)) WHERE is_deleted = false;
@@ -0,0 +1,156 @@
+-- Cross-node cache invalidation.
+-- Every write on a cached table publishes a NOTIFY on the "cache_invalidation" channel, delivered to the
+-- listeners of every application node when the writing transaction commits (never if it rolls back).
+-- The payload is a small JSON object holding the keys only, never the row:
+--   users, tags, comments, reviews (one per row): {"entity": <table>, "op": INSERT|UPDATE|DELETE, "id": ..., "postId": ..., "name": ..., "oldName": ...}
+--   where postId is set for comments and reviews, name/oldName for tags.
+--   posts, post_tags (one per statement):        {"entity": <table>, "op": ..., "ids": [...]} / {"entity": "post_tags", "op": ..., "postIds": [...]}
+--   the keys of every row written by the statement, at most 300 per notification (NOTIFY payloads are limited to 8000 bytes).
+-- Posts and post_tags are written in bulk (ingestion chunks, renaming a user refreshes the search_vector of each of their
+-- posts through 002_post_full_text_search.sql), their statement-level triggers send a few notifications per statement
+-- instead of one per row.
+
+CREATE OR REPLACE FUNCTION notify_cache_invalidation()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    cur_row record;
+    payload jsonb;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        cur_row := OLD;
+    ELSE
+        cur_row := NEW;
+    END IF;
+    payload := jsonb_build_object('entity', TG_TABLE_NAME, 'op', TG_OP, 'id', cur_row.id);
+    IF TG_TABLE_NAME IN ('comments', 'reviews') THEN
+        payload := payload || jsonb_build_object('postId', cur_row.post_id);
+    ELSIF TG_TABLE_NAME = 'tags' THEN
+        payload := payload || jsonb_build_object('name', cur_row.name);
+        IF TG_OP = 'UPDATE' THEN
+            payload := payload || jsonb_build_object('oldName', OLD.name);
+        END IF;
+    END IF;
+    PERFORM pg_notify('cache_invalidation', jsonb_strip_nulls(payload)::text);
+    RETURN NULL;
+END;
+$$;
+
+-- Publishes the keys written by one statement, split into payloads of at most 300 ids
+CREATE OR REPLACE FUNCTION notify_cache_invalidation_ids(p_entity text, p_op text, p_field text, p_ids bigint[])
+RETURNS void
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    chunk_size constant integer := 300;
+BEGIN
+    IF coalesce(array_length(p_ids, 1), 0) = 0 THEN
+        RETURN;
+    END IF;
+    FOR i IN 0 .. (array_length(p_ids, 1) - 1) / chunk_size LOOP
+        PERFORM pg_notify('cache_invalidation', jsonb_build_object(
+            'entity', p_entity,
+            'op', p_op,
+            p_field, to_jsonb(p_ids[i * chunk_size + 1 : (i + 1) * chunk_size])
+        )::text);
+    END LOOP;
+END;
+$$;
+
+-- Statement-level, reads the rows of the statement from the old_rows / new_rows transition tables
+CREATE OR REPLACE FUNCTION notify_posts_cache_invalidation()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    ids bigint[];
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT id) INTO ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT id) INTO ids FROM new_rows;
+    END IF;
+    PERFORM notify_cache_invalidation_ids(TG_TABLE_NAME, TG_OP, 'ids', ids);
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION notify_post_tags_cache_invalidation()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    post_ids bigint[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT post_id) INTO post_ids FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT post_id) INTO post_ids FROM old_rows;
+    ELSE
+        SELECT array_agg(DISTINCT post_id) INTO post_ids
+        FROM (SELECT post_id FROM old_rows UNION SELECT post_id FROM new_rows) moved;
+    END IF;
+    PERFORM notify_cache_invalidation_ids(TG_TABLE_NAME, TG_OP, 'postIds', post_ids);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_users_cache_invalidation ON users;
+CREATE TRIGGER trg_users_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+-- Transition tables require one trigger per event
+DROP TRIGGER IF EXISTS trg_posts_cache_invalidation ON posts;
+DROP TRIGGER IF EXISTS trg_posts_cache_invalidation_insert ON posts;
+CREATE TRIGGER trg_posts_cache_invalidation_insert
+    AFTER INSERT ON posts
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_posts_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_posts_cache_invalidation_update ON posts;
+CREATE TRIGGER trg_posts_cache_invalidation_update
+    AFTER UPDATE ON posts
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_posts_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_posts_cache_invalidation_delete ON posts;
+CREATE TRIGGER trg_posts_cache_invalidation_delete
+    AFTER DELETE ON posts
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_posts_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_tags_cache_invalidation ON tags;
+CREATE TRIGGER trg_tags_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON tags
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_comments_cache_invalidation ON comments;
+CREATE TRIGGER trg_comments_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON comments
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_reviews_cache_invalidation ON reviews;
+CREATE TRIGGER trg_reviews_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON reviews
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_post_tags_cache_invalidation ON post_tags;
+DROP TRIGGER IF EXISTS trg_post_tags_cache_invalidation_insert ON post_tags;
+CREATE TRIGGER trg_post_tags_cache_invalidation_insert
+    AFTER INSERT ON post_tags
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_post_tags_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_post_tags_cache_invalidation_update ON post_tags;
+CREATE TRIGGER trg_post_tags_cache_invalidation_update
+    AFTER UPDATE ON post_tags
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_post_tags_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_post_tags_cache_invalidation_delete ON post_tags;
+CREATE TRIGGER trg_post_tags_cache_invalidation_delete
+    AFTER DELETE ON post_tags
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_post_tags_cache_invalidation();
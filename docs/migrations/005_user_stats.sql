@@ -0,0 +1,95 @@
+-- Per-user activity counters.
+-- user_stats holds the number of non-deleted posts, comments and reviews of each user. It is maintained incrementally
+-- by triggers on insert, soft delete (is_deleted flip), restore and hard delete, so reading the stats of a user
+-- (or of a whole leaderboard) is a primary-key lookup instead of three COUNT(*) scans.
+-- Users without any activity have no row, their counters are 0.
+-- UserStatsDAO.rebuild recomputes the rows from the source tables with one statement (same as the backfill below),
+-- after LOCK TABLE posts, comments, reviews IN SHARE MODE so that no trigger delta commits between its count and its write.
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id       bigint PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    post_count    integer NOT NULL DEFAULT 0,
+    comment_count integer NOT NULL DEFAULT 0,
+    review_count  integer NOT NULL DEFAULT 0,
+    updated_at    timestamp NOT NULL DEFAULT now()
+);
+
+CREATE OR REPLACE FUNCTION user_stats_apply(p_user_id bigint, p_posts integer, p_comments integer, p_reviews integer)
+RETURNS void
+LANGUAGE sql
+AS $$
+    INSERT INTO user_stats AS s (user_id, post_count, comment_count, review_count, updated_at)
+    VALUES (p_user_id, p_posts, p_comments, p_reviews, now())
+    ON CONFLICT (user_id) DO UPDATE
+        SET post_count    = s.post_count + EXCLUDED.post_count,
+            comment_count = s.comment_count + EXCLUDED.comment_count,
+            review_count  = s.review_count + EXCLUDED.review_count,
+            updated_at    = now();
+$$;
+
+-- TG_ARGV[0]: owner column (author_id or user_id), TG_ARGV[1]: counter (posts, comments or reviews)
+CREATE OR REPLACE FUNCTION user_stats_refresh()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    old_owner bigint;
+    new_owner bigint;
+    old_live  boolean := false;
+    new_live  boolean := false;
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        old_owner := (to_jsonb(OLD) ->> TG_ARGV[0])::bigint;
+        old_live := NOT OLD.is_deleted;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        new_owner := (to_jsonb(NEW) ->> TG_ARGV[0])::bigint;
+        new_live := NOT NEW.is_deleted;
+    END IF;
+
+    IF old_live AND new_live AND old_owner IS NOT DISTINCT FROM new_owner THEN
+        RETURN NULL;
+    END IF;
+    IF old_live AND old_owner IS NOT NULL THEN
+        PERFORM user_stats_apply(old_owner,
+            CASE WHEN TG_ARGV[1] = 'posts' THEN -1 ELSE 0 END,
+            CASE WHEN TG_ARGV[1] = 'comments' THEN -1 ELSE 0 END,
+            CASE WHEN TG_ARGV[1] = 'reviews' THEN -1 ELSE 0 END);
+    END IF;
+    IF new_live AND new_owner IS NOT NULL THEN
+        PERFORM user_stats_apply(new_owner,
+            CASE WHEN TG_ARGV[1] = 'posts' THEN 1 ELSE 0 END,
+            CASE WHEN TG_ARGV[1] = 'comments' THEN 1 ELSE 0 END,
+            CASE WHEN TG_ARGV[1] = 'reviews' THEN 1 ELSE 0 END);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_posts_user_stats ON posts;
+CREATE TRIGGER trg_posts_user_stats
+    AFTER INSERT OR UPDATE OF author_id, is_deleted OR DELETE ON posts
+    FOR EACH ROW EXECUTE FUNCTION user_stats_refresh('author_id', 'posts');
+
+DROP TRIGGER IF EXISTS trg_comments_user_stats ON comments;
+CREATE TRIGGER trg_comments_user_stats
+    AFTER INSERT OR UPDATE OF user_id, is_deleted OR DELETE ON comments
+    FOR EACH ROW EXECUTE FUNCTION user_stats_refresh('user_id', 'comments');
+
+DROP TRIGGER IF EXISTS trg_reviews_user_stats ON reviews;
+CREATE TRIGGER trg_reviews_user_stats
+    AFTER INSERT OR UPDATE OF user_id, is_deleted OR DELETE ON reviews
+    FOR EACH ROW EXECUTE FUNCTION user_stats_refresh('user_id', 'reviews');
+
+-- Backfill
+INSERT INTO user_stats (user_id, post_count, comment_count, review_count, updated_at)
+SELECT u.id, COALESCE(p.n, 0), COALESCE(c.n, 0), COALESCE(r.n, 0), now()
+FROM users u
+LEFT JOIN (SELECT author_id, COUNT(*) AS n FROM posts WHERE is_deleted = false GROUP BY author_id) p ON p.author_id = u.id
+LEFT JOIN (SELECT user_id, COUNT(*) AS n FROM comments WHERE is_deleted = false GROUP BY user_id) c ON c.user_id = u.id
+LEFT JOIN (SELECT user_id, COUNT(*) AS n FROM reviews WHERE is_deleted = false GROUP BY user_id) r ON r.user_id = u.id
+ON CONFLICT (user_id) DO UPDATE
+    SET post_count    = EXCLUDED.post_count,
+        comment_count = EXCLUDED.comment_count,
+        review_count  = EXCLUDED.review_count,
+        updated_at    = now();
@@ -0,0 +1,10 @@
+-- Indexes backing incremental exports.
+-- GET /api/v1/export/{posts,comments}?since=... reads the rows changed since a date with
+-- "WHERE updated_at >= ? OR deleted_at >= ?", answered by a BitmapOr of these two indexes
+-- instead of a scan of the whole table.
+
+CREATE INDEX IF NOT EXISTS idx_posts_updated_at ON posts (updated_at);
+CREATE INDEX IF NOT EXISTS idx_posts_deleted_at ON posts (deleted_at) WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_updated_at ON comments (updated_at);
+CREATE INDEX IF NOT EXISTS idx_comments_deleted_at ON comments (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,10 @@
+-- Case-insensitive uniqueness of live tag names, required by the bulk post ingestion
+-- (POST /api/v1/post/bulk) to create missing tags with "INSERT ... ON CONFLICT (LOWER(name)) WHERE is_deleted = false".
+-- It replaces the plain LOWER(name) index of 003_trigram_search.sql, still usable by the lookups by name.
+-- Fails if two live tags already differ only by case, list them with:
+--   SELECT LOWER(name), array_agg(id) FROM tags WHERE is_deleted = false GROUP BY 1 HAVING COUNT(*) > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_tags_lower_name
+    ON tags (LOWER(name)) WHERE is_deleted = false;
+
+DROP INDEX IF EXISTS idx_tags_lower_name;
@@ -0,0 +1,71 @@
+-- Base schema of the blogging platform, to run on an empty database before the scripts of docs/migrations.
+-- Every table is soft deleted (is_deleted, deleted_at); DAOs filter on is_deleted = false.
+
+CREATE TYPE e_review AS ENUM ('ONE', 'TWO', 'THREE', 'FOUR', 'FIVE');
+
+CREATE TABLE users (
+    id         bigserial PRIMARY KEY,
+    username   varchar(50)  NOT NULL UNIQUE,
+    first_name varchar(100),
+    last_name  varchar(100),
+    email      varchar(255) NOT NULL UNIQUE,
+    password   text         NOT NULL,
+    created_at timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at timestamp,
+    is_deleted boolean      NOT NULL DEFAULT false
+);
+
+CREATE TABLE posts (
+    id         bigserial PRIMARY KEY,
+    author_id  bigint       NOT NULL REFERENCES users (id),
+    title      varchar(100) NOT NULL,
+    body       text         NOT NULL,
+    created_at timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at timestamp,
+    is_deleted boolean      NOT NULL DEFAULT false
+);
+
+CREATE TABLE comments (
+    id             bigserial PRIMARY KEY,
+    post_id        bigint    NOT NULL REFERENCES posts (id),
+    user_id        bigint    NOT NULL REFERENCES users (id),
+    body           text      NOT NULL,
+    parent_comment bigint REFERENCES comments (id),
+    created_at     timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at     timestamp,
+    is_deleted     boolean   NOT NULL DEFAULT false
+);
+
+CREATE TABLE tags (
+    id         bigserial PRIMARY KEY,
+    name       varchar(50) NOT NULL,
+    created_at timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at timestamp,
+    is_deleted boolean     NOT NULL DEFAULT false
+);
+
+CREATE TABLE post_tags (
+    post_id bigint NOT NULL REFERENCES posts (id) ON DELETE CASCADE,
+    tag_id  bigint NOT NULL REFERENCES tags (id) ON DELETE CASCADE,
+    PRIMARY KEY (post_id, tag_id)
+);
+
+CREATE INDEX idx_post_tags_tag ON post_tags (tag_id);
+
+CREATE TABLE reviews (
+    id         bigserial PRIMARY KEY,
+    post_id    bigint    NOT NULL REFERENCES posts (id),
+    user_id    bigint    NOT NULL REFERENCES users (id),
+    rate       e_review  NOT NULL,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at timestamp,
+    is_deleted boolean   NOT NULL DEFAULT false
+);
+
+CREATE INDEX idx_comments_post ON comments (post_id) WHERE is_deleted = false;
+CREATE INDEX idx_reviews_post ON reviews (post_id) WHERE is_deleted = false;
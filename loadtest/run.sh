@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# End-to-end load test: throwaway PostgreSQL (Docker) -> schema, seed, migrations -> application -> load driver.
+# Every knob is an environment variable, e.g.: POSTS=100000 DURATION=120s CONCURRENCY=64 loadtest/run.sh
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+
+PG_IMAGE="${PG_IMAGE:-postgres:17}"
+PG_PORT="${PG_PORT:-55432}"
+APP_PORT="${APP_PORT:-8080}"
+USERS="${USERS:-1000}"
+POSTS="${POSTS:-10000}"
+COMMENTS="${COMMENTS:-50000}"
+TAGS="${TAGS:-200}"
+REVIEWS="${REVIEWS:-20000}"
+DURATION="${DURATION:-60s}"
+WARMUP="${WARMUP:-10s}"
+CONCURRENCY="${CONCURRENCY:-32}"
+MIX="${MIX:-list:30,search:15,detailed:20,graphql:20,write:15}"
+REPORT="${REPORT:-$ROOT/target/loadtest-report.json}"
+KEEP_DB="${KEEP_DB:-false}"
+
+CONTAINER="blogging-loadtest-db"
+WORK_DIR="$(mktemp -d)"
+APP_PID=""
+
+cleanup() {
+  if [[ -n "$APP_PID" ]]; then
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+  fi
+  if [[ "$KEEP_DB" != "true" ]]; then
+    docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+  fi
+  rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+psql_run() {
+  docker exec -i "$CONTAINER" psql -q -v ON_ERROR_STOP=1 -U postgres -d blogging "$@"
+}
+
+echo "==> Starting PostgreSQL ($PG_IMAGE) on port $PG_PORT"
+docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+docker run -d --name "$CONTAINER" -p "$PG_PORT:5432" \
+  -e POSTGRES_PASSWORD=postgres -e POSTGRES_DB=blogging "$PG_IMAGE" >/dev/null
+until docker exec "$CONTAINER" pg_isready -U postgres -d blogging >/dev/null 2>&1; do sleep 1; done
+# pg_isready answers during the init scripts of the image, wait for the final server
+sleep 2
+until docker exec "$CONTAINER" pg_isready -U postgres -d blogging >/dev/null 2>&1; do sleep 1; done
+
+echo "==> Creating the schema and seeding $USERS users, $POSTS posts, $COMMENTS comments, $TAGS tags, $REVIEWS reviews"
+psql_run < "$ROOT/docs/script.sql"
+psql_run -v users="$USERS" -v posts="$POSTS" -v comments="$COMMENTS" -v tags="$TAGS" -v reviews="$REVIEWS" < "$ROOT/docs/feedDB.sql"
+for migration in "$ROOT"/docs/migrations/*.sql; do
+  echo "    $(basename "$migration")"
+  psql_run < "$migration"
+done
+
+echo "==> Building and starting the application on port $APP_PORT"
+(cd "$ROOT" && ./mvnw -q -DskipTests package)
+JAR="$(ls "$ROOT"/target/blogging-platform-*.jar | grep -v plain | head -n 1)"
+# The application reads its credentials from the .env of its working directory
+cat > "$WORK_DIR/.env" <<ENV
+DB_URL=jdbc:postgresql://localhost:$PG_PORT/blogging
+DB_USER=postgres
+DB_PASSWORD=postgres
+ENV
+(cd "$WORK_DIR" && exec java -jar "$JAR" --server.port="$APP_PORT" > "$WORK_DIR/app.log" 2>&1) &
+APP_PID=$!
+for _ in $(seq 1 120); do
+  if curl -sf "http://localhost:$APP_PORT/api/v1/monitoring/pool" >/dev/null; then break; fi
+  if ! kill -0 "$APP_PID" 2>/dev/null; then cat "$WORK_DIR/app.log"; echo "Application failed to start" >&2; exit 1; fi
+  sleep 1
+done
+
+echo "==> Running the load test"
+(cd "$ROOT" && ./mvnw -q -Pload-test test-compile exec:exec -Dloadtest.args="--base-url=http://localhost:$APP_PORT \
+--users=$USERS --posts=$POSTS --duration=$DURATION --warmup=$WARMUP --concurrency=$CONCURRENCY --mix=$MIX --report=$REPORT")
+
+echo "==> Slowest queries seen by the application"
+curl -s "http://localhost:$APP_PORT/api/v1/monitoring/slow-queries" | head -c 4000
+echo
@@ -0,0 +1,143 @@
+package com.amalitech.blogging_platform.benchmark;
+
+import com.amalitech.blogging_platform.dto.CommentDTO;
+import com.amalitech.blogging_platform.dto.PaginatedData;
+import com.amalitech.blogging_platform.dto.PostDTO;
+import com.amalitech.blogging_platform.model.EReview;
+import com.amalitech.blogging_platform.model.Post;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Deterministic data shared by the benchmarks, sized like a page of the API.
+ */
+public final class Fixtures {
+
+  private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 10, 30);
+  private static final String BODY = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(20);
+
+  private Fixtures() {}
+
+  /**
+   * @return rows of the {@code posts} table as read by {@code PostDAO}
+   */
+  public static MockResultSet postRows(int size) {
+    return MockResultSet.builder(size)
+            .longs("id", i -> i + 1)
+            .longs("author_id", i -> i % 50 + 1)
+            .strings("title", i -> "Post title " + i)
+            .strings("body", i -> BODY)
+            .timestamps("created_at", Fixtures::timestamp)
+            .timestamps("updated_at", Fixtures::timestamp)
+            .booleans("is_deleted", i -> false)
+            .build();
+  }
+
+  /**
+   * @return rows of the {@code comments} table as read by {@code CommentDAO}, every other comment being a reply
+   */
+  public static MockResultSet commentRows(int size) {
+    return MockResultSet.builder(size)
+            .longs("id", i -> i + 1)
+            .longs("post_id", i -> i % 10 + 1)
+            .longs("user_id", i -> i % 50 + 1)
+            .strings("body", i -> "Comment " + i)
+            .nullableLongs("parent_comment", i -> i % 2 == 0 ? null : (long) i)
+            .timestamps("created_at", Fixtures::timestamp)
+            .timestamps("updated_at", Fixtures::timestamp)
+            .booleans("is_deleted", i -> false)
+            .build();
+  }
+
+  public static PaginatedData<Post> posts(int size) {
+    return page(size, i -> {
+      Post post = new Post();
+      post.setId((long) i + 1);
+      post.setAuthorId((long) i % 50 + 1);
+      post.setTitle("Post title " + i);
+      post.setBody(BODY);
+      post.setCreatedAt(CREATED_AT.plusMinutes(i));
+      post.setUpdatedAt(CREATED_AT.plusMinutes(i));
+      return post;
+    });
+  }
+
+  public static PaginatedData<PostDTO.Out> postDTOs(int size) {
+    return page(size, i -> {
+      PostDTO.Out post = new PostDTO.Out();
+      post.setId((long) i + 1);
+      post.setAuthorId((long) i % 50 + 1);
+      post.setTitle("Post title " + i);
+      post.setBody(BODY);
+      post.setCreatedAt(CREATED_AT.plusMinutes(i));
+      post.setUpdatedAt(CREATED_AT.plusMinutes(i));
+      return post;
+    });
+  }
+
+  public static PaginatedData<PostDTO.Detailed> detailedPosts(int size) {
+    return page(size, i -> {
+      PostDTO.Detailed post = new PostDTO.Detailed();
+      post.setId((long) i + 1);
+      post.setAuthorId((long) i % 50 + 1);
+      post.setAuthorName("Author " + i % 50);
+      post.setTitle("Post title " + i);
+      post.setBody(BODY);
+      post.setCreatedAt(CREATED_AT.plusMinutes(i));
+      post.setUpdatedAt(CREATED_AT.plusMinutes(i));
+      post.setTags(new LinkedHashSet<>(List.of("java", "spring", "postgres")));
+      post.setReviews(List.of());
+      post.setComments(comments(5).getItems());
+
+      PostDTO.ReviewSummary summary = new PostDTO.ReviewSummary();
+      summary.setCount(12);
+      summary.setAverage(4.25);
+      Map<EReview, Long> distribution = new EnumMap<>(EReview.class);
+      for (EReview rate : EReview.values()) {
+        distribution.put(rate, 2L);
+      }
+      summary.setDistribution(distribution);
+      post.setReviewSummary(summary);
+      return post;
+    });
+  }
+
+  public static PaginatedData<CommentDTO.Out> comments(int size) {
+    return page(size, i -> {
+      CommentDTO.Out comment = new CommentDTO.Out();
+      comment.setId((long) i + 1);
+      comment.setPostId((long) i % 10 + 1);
+      comment.setUserId((long) i % 50 + 1);
+      comment.setBody("Comment " + i);
+      comment.setParentCommentId(i % 2 == 0 ? null : (long) i);
+      comment.setCreatedAt(CREATED_AT.plusMinutes(i));
+      comment.setUpdatedAt(CREATED_AT.plusMinutes(i));
+      return comment;
+    });
+  }
+
+  private static Timestamp timestamp(int row) {
+    return Timestamp.valueOf(CREATED_AT.plusMinutes(row));
+  }
+
+  private static <T> PaginatedData<T> page(int size, IntFunction<T> item) {
+    List<T> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(item.apply(i));
+    }
+    PaginatedData<T> page = new PaginatedData<>();
+    page.setPage(1);
+    page.setPageSize(size);
+    page.setTotal(size * 10);
+    page.setTotalPages(10);
+    page.setItems(items);
+    return page;
+  }
+}
@@ -0,0 +1,206 @@
+package com.amalitech.blogging_platform.benchmark;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+
+/**
+ * In-memory {@link ResultSet} over fixed rows, so the row mappers can be measured without a database.
+ * <p>
+ * Only the accessors used by the DAOs are implemented, by column label: {@code getLong}, {@code getString},
+ * {@code getTimestamp}, {@code getBoolean} and {@code wasNull}. Values are held in one typed array per column,
+ * primitives are never boxed. The same instance is replayed by every benchmark invocation after {@link #rewind()}.
+ * </p>
+ */
+public final class MockResultSet extends UnsupportedResultSet {
+
+  private final int size;
+  private final Map<String, Integer> labels;
+  private final long[][] longs;
+  private final boolean[][] nulls;
+  private final String[][] strings;
+  private final Timestamp[][] timestamps;
+  private final boolean[][] booleans;
+  private int row = -1;
+  private boolean wasNull;
+
+  private MockResultSet(Builder builder) {
+    this.size = builder.size;
+    this.labels = builder.labels;
+    this.longs = builder.longs;
+    this.nulls = builder.nulls;
+    this.strings = builder.strings;
+    this.timestamps = builder.timestamps;
+    this.booleans = builder.booleans;
+  }
+
+  /**
+   * @param size number of rows
+   * @return a builder adding the columns one by one, each value computed from the row number
+   */
+  public static Builder builder(int size) {
+    return new Builder(size);
+  }
+
+  /**
+   * Moves the result set back before the first row.
+   */
+  public void rewind() {
+    row = -1;
+  }
+
+  @Override
+  public boolean next() {
+    return ++row < size;
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  @Override
+  public long getLong(String columnLabel) throws SQLException {
+    int column = findColumn(columnLabel);
+    long[] values = typed(longs, column, columnLabel, "bigint");
+    wasNull = nulls[column] != null && nulls[column][row];
+    return values[row];
+  }
+
+  @Override
+  public String getString(String columnLabel) throws SQLException {
+    String value = typed(strings, findColumn(columnLabel), columnLabel, "text")[row];
+    wasNull = value == null;
+    return value;
+  }
+
+  @Override
+  public Timestamp getTimestamp(String columnLabel) throws SQLException {
+    Timestamp value = typed(timestamps, findColumn(columnLabel), columnLabel, "timestamp")[row];
+    wasNull = value == null;
+    return value;
+  }
+
+  @Override
+  public boolean getBoolean(String columnLabel) throws SQLException {
+    wasNull = false;
+    return typed(booleans, findColumn(columnLabel), columnLabel, "boolean")[row];
+  }
+
+  @Override
+  public int findColumn(String columnLabel) throws SQLException {
+    Integer column = labels.get(columnLabel);
+    if (column == null) {
+      throw new SQLException("The column name " + columnLabel + " was not found in this ResultSet.");
+    }
+    return column;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public boolean isClosed() {
+    return false;
+  }
+
+  private static <A> A typed(A[] columns, int column, String columnLabel, String type) throws SQLException {
+    A values = columns[column];
+    if (values == null) {
+      throw new SQLException("Column " + columnLabel + " is not of type " + type);
+    }
+    return values;
+  }
+
+  /**
+   * Columns of a {@link MockResultSet}, in any order.
+   */
+  public static final class Builder {
+
+    private static final int MAX_COLUMNS = 16;
+
+    private final int size;
+    private final Map<String, Integer> labels = new HashMap<>();
+    private final long[][] longs = new long[MAX_COLUMNS][];
+    private final boolean[][] nulls = new boolean[MAX_COLUMNS][];
+    private final String[][] strings = new String[MAX_COLUMNS][];
+    private final Timestamp[][] timestamps = new Timestamp[MAX_COLUMNS][];
+    private final boolean[][] booleans = new boolean[MAX_COLUMNS][];
+
+    private Builder(int size) {
+      this.size = size;
+    }
+
+    public Builder longs(String label, IntToLongFunction value) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = value.applyAsLong(i);
+      }
+      longs[add(label)] = values;
+      return this;
+    }
+
+    /**
+     * Adds a {@code bigint} column whose {@code null} values read as {@code 0} with {@code wasNull() == true}.
+     */
+    public Builder nullableLongs(String label, IntFunction<Long> value) {
+      long[] values = new long[size];
+      boolean[] missing = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        Long v = value.apply(i);
+        missing[i] = v == null;
+        values[i] = v == null ? 0 : v;
+      }
+      int column = add(label);
+      longs[column] = values;
+      nulls[column] = missing;
+      return this;
+    }
+
+    public Builder strings(String label, IntFunction<String> value) {
+      String[] values = new String[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = value.apply(i);
+      }
+      strings[add(label)] = values;
+      return this;
+    }
+
+    public Builder timestamps(String label, IntFunction<Timestamp> value) {
+      Timestamp[] values = new Timestamp[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = value.apply(i);
+      }
+      timestamps[add(label)] = values;
+      return this;
+    }
+
+    public Builder booleans(String label, IntPredicate value) {
+      boolean[] values = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = value.test(i);
+      }
+      booleans[add(label)] = values;
+      return this;
+    }
+
+    public MockResultSet build() {
+      return new MockResultSet(this);
+    }
+
+    private int add(String label) {
+      if (labels.containsKey(label) || labels.size() == MAX_COLUMNS) {
+        throw new IllegalArgumentException("Duplicate column or too many columns: " + label);
+      }
+      int column = labels.size();
+      labels.put(label, column);
+      return column;
+    }
+  }
+}
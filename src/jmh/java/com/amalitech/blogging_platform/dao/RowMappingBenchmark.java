@@ -0,0 +1,71 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.benchmark.Fixtures;
+import com.amalitech.blogging_platform.benchmark.MockResultSet;
+import com.amalitech.blogging_platform.model.Comment;
+import com.amalitech.blogging_platform.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a page of {@code posts} and {@code comments} rows to entities, as done by the DAO read loops.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+  @Param({"20", "100"})
+  int rows;
+
+  private final PostDAO postDAO = new PostDAO(null, null, null, null);
+  private final CommentDAO commentDAO = new CommentDAO(null, null);
+  private MockResultSet postRows;
+  private MockResultSet commentRows;
+
+  @Setup
+  public void setUp() {
+    postRows = Fixtures.postRows(rows);
+    commentRows = Fixtures.commentRows(rows);
+  }
+
+  @Benchmark
+  public List<Post> mapPosts() throws SQLException {
+    postRows.rewind();
+    ResultSet rs = postRows;
+    List<Post> posts = new ArrayList<>();
+    while (rs.next()) {
+      posts.add(postDAO.mapRowToPost(rs));
+    }
+    return posts;
+  }
+
+  @Benchmark
+  public List<Comment> mapComments() throws SQLException {
+    commentRows.rewind();
+    ResultSet rs = commentRows;
+    List<Comment> comments = new ArrayList<>();
+    while (rs.next()) {
+      comments.add(commentDAO.mapRowToComment(rs));
+    }
+    return comments;
+  }
+}
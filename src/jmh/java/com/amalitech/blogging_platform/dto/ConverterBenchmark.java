@@ -0,0 +1,57 @@
+package com.amalitech.blogging_platform.dto;
+
+import com.amalitech.blogging_platform.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of pages of REST DTOs to their GraphQL types, as done by the GraphQL controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+  @Param({"20", "100"})
+  int size;
+
+  private PaginatedData<PostDTO.Out> posts;
+  private PaginatedData<PostDTO.Detailed> detailedPosts;
+  private PaginatedData<CommentDTO.Out> comments;
+
+  @Setup
+  public void setUp() {
+    posts = Fixtures.postDTOs(size);
+    detailedPosts = Fixtures.detailedPosts(size);
+    comments = Fixtures.comments(size);
+  }
+
+  @Benchmark
+  public PaginatedData<PostDTO.GraphQL> postsToGraphQL() {
+    return PostDTO.Converter.toGraphQL(posts);
+  }
+
+  @Benchmark
+  public PaginatedData<PostDTO.GraphQL> detailedPostsToGraphQL() {
+    return PostDTO.Converter.fromDetaildtoGraphQL(detailedPosts);
+  }
+
+  @Benchmark
+  public PaginatedData<CommentDTO.GraphQL> commentsToGraphQL() {
+    return CommentDTO.Converter.toGraphQL(comments);
+  }
+}
@@ -0,0 +1,53 @@
+package com.amalitech.blogging_platform.dto;
+
+import com.amalitech.blogging_platform.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of paginated API responses, the last step of every list endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+  @Param({"20", "100"})
+  int size;
+
+  private final JsonMapper mapper = JsonMapper.builder().build();
+  private GenericResponse<PaginatedData<PostDTO.Out>> posts;
+  private GenericResponse<PaginatedData<PostDTO.Detailed>> detailedPosts;
+
+  @Setup
+  public void setUp() {
+    posts = new GenericResponse<>(HttpStatus.OK, Fixtures.postDTOs(size));
+    detailedPosts = new GenericResponse<>(HttpStatus.OK, Fixtures.detailedPosts(size));
+  }
+
+  @Benchmark
+  public byte[] serializePosts() {
+    return mapper.writeValueAsBytes(posts);
+  }
+
+  @Benchmark
+  public byte[] serializeDetailedPosts() {
+    return mapper.writeValueAsBytes(detailedPosts);
+  }
+}
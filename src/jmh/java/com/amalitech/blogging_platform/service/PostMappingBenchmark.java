@@ -0,0 +1,50 @@
+package com.amalitech.blogging_platform.service;
+
+import com.amalitech.blogging_platform.benchmark.Fixtures;
+import com.amalitech.blogging_platform.cache.EntityCaches;
+import com.amalitech.blogging_platform.config.CacheProperties;
+import com.amalitech.blogging_platform.dto.PaginatedData;
+import com.amalitech.blogging_platform.dto.PostDTO;
+import com.amalitech.blogging_platform.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of a page of post entities to the REST DTOs ({@code PostService.mapToDTO(PaginatedData)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMappingBenchmark {
+
+  @Param({"20", "100"})
+  int size;
+
+  private PostService postService;
+  private PaginatedData<Post> posts;
+
+  @Setup
+  public void setUp() {
+    postService = new PostService(null, null, null, new EntityCaches(new CacheProperties(false, null, null)), null, null, null, null);
+    posts = Fixtures.posts(size);
+  }
+
+  @Benchmark
+  public PaginatedData<PostDTO.Out> mapPage() {
+    return postService.mapToDTO(posts);
+  }
+}
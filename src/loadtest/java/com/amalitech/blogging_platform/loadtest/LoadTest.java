@@ -0,0 +1,212 @@
+package com.amalitech.blogging_platform.loadtest;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import com.amalitech.blogging_platform.monitoring.LatencyHistogram;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the REST and GraphQL endpoints of a running application.
+ * <p>
+ * {@code --concurrency} virtual users each send one request at a time, drawn from the {@link Workload} mix, for
+ * {@code --warmup} (not measured) then {@code --duration}. The throughput and the latency percentiles of every endpoint
+ * are printed and written as JSON to {@code --report}. {@code loadtest/run.sh} starts the database and the application
+ * before running it.
+ * </p>
+ * Options, all optional: {@code --base-url=http://localhost:8080 --duration=60s --warmup=10s --concurrency=32
+ * --users=1000 --posts=10000 --mix=list:30,search:15,detailed:20,graphql:20,write:15 --seed=42
+ * --report=target/loadtest-report.json}
+ */
+public final class LoadTest {
+
+  private static final String DEFAULT_MIX = "list:30,search:15,detailed:20,graphql:20,write:15";
+
+  /**
+   * Measures of one endpoint.
+   */
+  private static final class Stats {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+  }
+
+  /**
+   * Results of one endpoint in the report.
+   */
+  record EndpointResult(String endpoint, long requests, long errors, double throughput, MonitoringDTO.Latency latency) {
+  }
+
+  record Report(LocalDateTime startedAt, String baseUrl, long durationSeconds, int concurrency, Map<String, Integer> mix,
+                EndpointResult total, List<EndpointResult> endpoints) {
+  }
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    URI baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8080"));
+    Duration duration = duration(options.getOrDefault("duration", "60s"));
+    Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+    Map<String, Integer> mix = mix(options.getOrDefault("mix", DEFAULT_MIX));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    Path reportPath = Path.of(options.getOrDefault("report", "target/loadtest-report.json"));
+
+    Workload workload = new Workload(baseUrl, Integer.parseInt(options.getOrDefault("users", "1000")),
+            Integer.parseInt(options.getOrDefault("posts", "10000")), mix);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+         HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build()) {
+
+      System.out.printf("Warming up %s for %s with %d virtual users%n", baseUrl, warmup, concurrency);
+      run(client, executor, workload, concurrency, warmup, seed - 1);
+
+      System.out.printf("Measuring for %s, mix %s%n", duration, mix);
+      LocalDateTime startedAt = LocalDateTime.now();
+      Map<Workload.Operation, Stats> stats = run(client, executor, workload, concurrency, duration, seed);
+
+      Report report = report(startedAt, baseUrl, duration, concurrency, mix, workload, stats);
+      print(report);
+      write(report, reportPath);
+    }
+  }
+
+  /**
+   * Runs the virtual users for a while.
+   *
+   * @return measures of each operation
+   */
+  private static Map<Workload.Operation, Stats> run(HttpClient client, ExecutorService executor, Workload workload,
+                                                    int concurrency, Duration duration, long seed) throws InterruptedException {
+    Map<Workload.Operation, Stats> stats = new HashMap<>();
+    workload.operations().forEach(operation -> stats.put(operation, new Stats()));
+    long deadline = System.nanoTime() + duration.toNanos();
+
+    List<Future<?>> users = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      Random random = new Random(seed * 31 + i);
+      users.add(executor.submit(() -> {
+        while (System.nanoTime() < deadline) {
+          Workload.Operation operation = workload.next(random);
+          Stats stat = stats.get(operation);
+          long start = System.nanoTime();
+          try {
+            HttpResponse<String> response = client.send(operation.request().apply(random), HttpResponse.BodyHandlers.ofString());
+            stat.latency.record(System.nanoTime() - start);
+            if (response.statusCode() >= 400 || operation.graphQl() && response.body().contains("\"errors\"")) {
+              stat.errors.increment();
+            }
+          } catch (IOException e) {
+            stat.errors.increment();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }));
+    }
+    for (Future<?> user : users) {
+      try {
+        user.get(duration.toSeconds() + 60, TimeUnit.SECONDS);
+      } catch (Exception e) {
+        user.cancel(true);
+      }
+    }
+    return stats;
+  }
+
+  private static Report report(LocalDateTime startedAt, URI baseUrl, Duration duration, int concurrency, Map<String, Integer> mix,
+                               Workload workload, Map<Workload.Operation, Stats> stats) {
+    double seconds = duration.toNanos() / 1e9;
+    LatencyHistogram all = new LatencyHistogram();
+    long allErrors = 0;
+    List<EndpointResult> endpoints = new ArrayList<>();
+    for (Workload.Operation operation : workload.operations()) {
+      Stats stat = stats.get(operation);
+      all.merge(stat.latency);
+      allErrors += stat.errors.sum();
+      endpoints.add(result(operation.name(), stat.latency, stat.errors.sum(), seconds));
+    }
+    return new Report(startedAt, baseUrl.toString(), duration.toSeconds(), concurrency, mix,
+            result("TOTAL", all, allErrors, seconds), endpoints);
+  }
+
+  private static EndpointResult result(String name, LatencyHistogram latency, long errors, double seconds) {
+    long requests = latency.getCount();
+    return new EndpointResult(name, requests, errors, Math.round(requests / seconds * 10) / 10.0, latency.snapshot());
+  }
+
+  private static void print(Report report) {
+    String format = "%-26s %9s %7s %9s %9s %9s %9s %9s %9s%n";
+    System.out.printf(format, "endpoint", "requests", "errors", "req/s", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    List<EndpointResult> rows = new ArrayList<>(report.endpoints());
+    rows.add(report.total());
+    for (EndpointResult row : rows) {
+      MonitoringDTO.Latency l = row.latency();
+      System.out.printf(Locale.ROOT, format, row.endpoint(), row.requests(), row.errors(), row.throughput(),
+              l.getMeanMs(), l.getP50Ms(), l.getP95Ms(), l.getP99Ms(), l.getMaxMs());
+    }
+  }
+
+  private static void write(Report report, Path path) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    JsonMapper mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+    Files.writeString(path, mapper.writeValueAsString(report));
+    System.out.println("Report written to " + path.toAbsolutePath());
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+    }
+    return options;
+  }
+
+  /**
+   * @return {@code 90s} or {@code 5m} as a duration
+   */
+  private static Duration duration(String value) {
+    return Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * @return {@code list:30,write:10} as weights by group
+   */
+  private static Map<String, Integer> mix(String value) {
+    Map<String, Integer> mix = new LinkedHashMap<>();
+    for (String entry : value.split(",")) {
+      String[] parts = entry.split(":");
+      if (parts.length != 2 || !Workload.GROUPS.contains(parts[0].strip())) {
+        throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected <group>:<weight> with group in " + Workload.GROUPS);
+      }
+      mix.put(parts[0].strip(), Integer.parseInt(parts[1].strip()));
+    }
+    return mix;
+  }
+}
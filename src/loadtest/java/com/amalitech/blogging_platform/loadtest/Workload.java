@@ -0,0 +1,178 @@
+package com.amalitech.blogging_platform.loadtest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Requests of the load test, grouped by kind of traffic, over the ids of the seeded data ({@code docs/feedDB.sql}).
+ * <p>
+ * Each iteration draws a group by its weight in the mix, then one of its operations uniformly.
+ * </p>
+ */
+final class Workload {
+
+  /** Groups of operations, in the order of the {@code --mix} defaults. */
+  static final List<String> GROUPS = List.of("list", "search", "detailed", "graphql", "write");
+
+  private static final List<String> KEYWORDS = List.of("postgres", "java cache", "spring -docker", "\"deep dive\"", "latency OR profiling", "scal*");
+  private static final String[] RATES = {"ONE", "TWO", "THREE", "FOUR", "FIVE"};
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private static final String POSTS_NESTED = """
+          query PostsNested($page: Int) {
+            posts(page: $page, size: 10) {
+              items { id title author { username } Tags { name } reviews { rate } comments { body user { username } } }
+              total
+            }
+          }""";
+  private static final String POST_BY_ID = """
+          query PostById($id: Int) {
+            postById(id: $id) { id title body author { firstName lastName } comments { id body } Tags { name } }
+          }""";
+  private static final String USERS = """
+          query Users($page: Int) {
+            users(page: $page, size: 20) { items { id username firstName lastName } total }
+          }""";
+
+  /**
+   * @param name  endpoint label of the report
+   * @param group group of traffic it belongs to
+   * @param graphQl {@code true} if failures are reported in the body ({@code errors}) rather than by the status
+   */
+  record Operation(String name, String group, boolean graphQl, Function<Random, HttpRequest> request) {
+  }
+
+  private final URI baseUrl;
+  private final int users;
+  private final int posts;
+  private final JsonMapper mapper = JsonMapper.builder().build();
+  private final Map<String, List<Operation>> byGroup = new LinkedHashMap<>();
+  private final String[] groups;
+  private final int[] cumulativeWeights;
+
+  /**
+   * @param baseUrl root URL of the application
+   * @param users   number of seeded users, ids 1 to {@code users}
+   * @param posts   number of seeded posts, ids 1 to {@code posts}
+   * @param mix     weight of each group, absent or 0 to leave it out
+   */
+  Workload(URI baseUrl, int users, int posts, Map<String, Integer> mix) {
+    this.baseUrl = baseUrl;
+    this.users = users;
+    this.posts = posts;
+
+    add(new Operation("GET /post", "list", false, r -> get("/api/v1/post?page=%d&size=20".formatted(page(r)))));
+    add(new Operation("GET /post/cursor", "list", false, r -> get("/api/v1/post/cursor?size=20")));
+    add(new Operation("GET /post/author/{id}", "list", false, r -> get("/api/v1/post/author/%d?page=1&size=20".formatted(user(r)))));
+    add(new Operation("GET /comment", "list", false, r -> get("/api/v1/comment?page=%d&size=20".formatted(page(r)))));
+
+    add(new Operation("GET /post/search", "search", false,
+            r -> get("/api/v1/post/search?page=1&size=20&keyword=" + encode(KEYWORDS.get(r.nextInt(KEYWORDS.size()))))));
+    add(new Operation("GET /tag/autocomplete", "search", false, r -> get("/api/v1/tag/autocomplete?keyword=tag-" + (1 + r.nextInt(20)))));
+    add(new Operation("GET /user/autocomplete", "search", false, r -> get("/api/v1/user/autocomplete?keyword=user" + (1 + r.nextInt(99)))));
+
+    add(new Operation("GET /post/detailed/{id}", "detailed", false, r -> get("/api/v1/post/detailed/" + post(r))));
+    add(new Operation("GET /post/{id}", "detailed", false, r -> get("/api/v1/post/" + post(r))));
+    add(new Operation("GET /user/{id}/stats", "detailed", false, r -> get("/api/v1/user/%d/stats".formatted(user(r)))));
+
+    add(new Operation("GraphQL PostsNested", "graphql", true, r -> graphQl("PostsNested", POSTS_NESTED, Map.of("page", page(r)))));
+    add(new Operation("GraphQL PostById", "graphql", true, r -> graphQl("PostById", POST_BY_ID, Map.of("id", post(r)))));
+    add(new Operation("GraphQL Users", "graphql", true, r -> graphQl("Users", USERS, Map.of("page", page(r)))));
+
+    add(new Operation("POST /post", "write", false, r -> post("/api/v1/post", Map.of(
+            "authorId", user(r), "title", "Load test post " + r.nextInt(1_000_000),
+            "body", "Written by the load test.", "tags", List.of("tag-" + (1 + r.nextInt(20)), "load-test")))));
+    add(new Operation("POST /comment", "write", false, r -> post("/api/v1/comment", Map.of(
+            "postId", post(r), "userId", user(r), "body", "Load test comment"))));
+    add(new Operation("POST /review", "write", false, r -> post("/api/v1/review", Map.of(
+            "postId", post(r), "userId", user(r), "rate", RATES[r.nextInt(RATES.length)]))));
+
+    List<String> weighted = new ArrayList<>();
+    List<Integer> cumulative = new ArrayList<>();
+    int total = 0;
+    for (String group : GROUPS) {
+      int weight = mix.getOrDefault(group, 0);
+      if (weight > 0) {
+        total += weight;
+        weighted.add(group);
+        cumulative.add(total);
+      }
+    }
+    if (weighted.isEmpty()) {
+      throw new IllegalArgumentException("The mix must give a positive weight to one of " + GROUPS);
+    }
+    this.groups = weighted.toArray(String[]::new);
+    this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @return every operation the mix can draw, in report order
+   */
+  List<Operation> operations() {
+    List<Operation> operations = new ArrayList<>();
+    for (String group : groups) {
+      operations.addAll(byGroup.get(group));
+    }
+    return operations;
+  }
+
+  /**
+   * Draws the next operation of a virtual user.
+   */
+  Operation next(Random random) {
+    int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int index = 0;
+    while (draw >= cumulativeWeights[index]) {
+      index++;
+    }
+    List<Operation> operations = byGroup.get(groups[index]);
+    return operations.get(random.nextInt(operations.size()));
+  }
+
+  private void add(Operation operation) {
+    byGroup.computeIfAbsent(operation.group(), g -> new ArrayList<>()).add(operation);
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(TIMEOUT).GET().build();
+  }
+
+  private HttpRequest post(String path, Object body) {
+    return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+            .build();
+  }
+
+  private HttpRequest graphQl(String operationName, String query, Map<String, Object> variables) {
+    return post("/graphql", Map.of("operationName", operationName, "query", query, "variables", variables));
+  }
+
+  private int page(Random random) {
+    // Skewed towards the first pages, as real listings are
+    return 1 + (int) Math.floor(Math.pow(random.nextDouble(), 3) * 50);
+  }
+
+  private long user(Random random) {
+    return 1 + random.nextInt(users);
+  }
+
+  private long post(Random random) {
+    return 1 + random.nextInt(posts);
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -2,8 +2,10 @@ package com.amalitech.blogging_platform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan("com.amalitech.blogging_platform.config")
 public class BloggingPlatformApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,40 @@
+package com.amalitech.blogging_platform.aspect;
+
+import com.amalitech.blogging_platform.monitoring.ConnectionPoolMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect publishing the DAO method currently running on a thread,
+ * so that connection hold times recorded by the pool can be attributed to it.
+ */
+@Aspect
+@Component
+public class ConnectionUsageAspect {
+
+  private final ConnectionPoolMetrics poolMetrics;
+
+  public ConnectionUsageAspect(ConnectionPoolMetrics poolMetrics) {
+    this.poolMetrics = poolMetrics;
+  }
+
+  /**
+   * Wraps every public DAO method with its name as the current connection owner.
+   *
+   * @param joinPoint provides access to the intercepted method
+   * @return the result of the method execution
+   * @throws Throwable if the intercepted method throws an exception
+   */
+  @Around("execution(public * com.amalitech.blogging_platform.dao..*(..)) && @within(org.springframework.stereotype.Repository)")
+  public Object trackConnectionOwner(ProceedingJoinPoint joinPoint) throws Throwable {
+    String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+    String previous = poolMetrics.enterDaoMethod(method);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      poolMetrics.exitDaoMethod(previous);
+    }
+  }
+}
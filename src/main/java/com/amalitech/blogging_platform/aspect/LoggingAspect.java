@@ -1,18 +1,27 @@
 package com.amalitech.blogging_platform.aspect;
 
-import org.aspectj.lang.JoinPoint;
+import com.amalitech.blogging_platform.config.TracingProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Aspect responsible for logging execution details of service-layer methods.
+ * Aspect tracing the execution of service-layer methods.
  * <p>
- * Logs method entry, successful completion, and exceptions for all public
- * methods in the {@code service} package.
+ * Entry and successful exit of public service methods are traced at DEBUG level, for a sample of the calls
+ * ({@code blogging.tracing.sample-rate}); nothing is computed while DEBUG is disabled. Arguments are only rendered
+ * for traced calls, and only when the log event is written: scalars truncated to {@code max-arg-length}, collections
+ * by size, other objects by type, and sensitive parameters ({@code password}, ...) masked. Exceptions are always
+ * logged, without arguments. Log events are written by an asynchronous appender ({@code logback-spring.xml}).
  * </p>
  */
 @Aspect
@@ -20,6 +29,17 @@ import java.util.Arrays;
 public class LoggingAspect {
 
   private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
+  private static final String MASK = "***";
+
+  private final double sampleRate;
+  private final int maxArgLength;
+  private final String[] sensitiveNames;
+
+  public LoggingAspect(TracingProperties properties) {
+    this.sampleRate = properties.sampleRate();
+    this.maxArgLength = Math.max(properties.maxArgLength(), 1);
+    this.sensitiveNames = properties.sensitiveNames().stream().map(name -> name.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+  }
 
   /**
    * Matches all public methods in the service package and its subpackages.
@@ -28,44 +48,122 @@ public class LoggingAspect {
   public void serviceMethods() {}
 
   /**
-   * Logs method entry along with received arguments.
+   * Traces the entry and successful exit of a sampled call, and logs the exceptions of every call.
    *
    * @param joinPoint provides access to the intercepted method
+   * @return the result of the method execution
+   * @throws Throwable if the intercepted method throws an exception
    */
-  @Before("serviceMethods()")
-  public void logMethodEntry(JoinPoint joinPoint) {
-    String args = Arrays.toString(joinPoint.getArgs());
-    logger.info("→ Entering {}.{} | args: {}",
-            joinPoint.getSignature().getDeclaringType().getSimpleName(),
-            joinPoint.getSignature().getName(),
-            args);
+  @Around("serviceMethods()")
+  public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+    boolean traced = logger.isDebugEnabled() && isSampled();
+    if (traced) {
+      MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+      logger.debug("→ Entering {}.{} | args: {}",
+              signature.getDeclaringType().getSimpleName(),
+              signature.getName(),
+              new Arguments(signature.getParameterNames(), joinPoint.getArgs()));
+    }
+
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable ex) {
+      logger.error("Exception in {}.{}: {}",
+              joinPoint.getSignature().getDeclaringType().getSimpleName(),
+              joinPoint.getSignature().getName(),
+              ex.getMessage());
+      throw ex;
+    }
+
+    if (traced) {
+      logger.debug("← Exiting {}.{} successfully | returned: {}",
+              joinPoint.getSignature().getDeclaringType().getSimpleName(),
+              joinPoint.getSignature().getName(),
+              result != null ? result.getClass().getSimpleName() : "null");
+    }
+    return result;
   }
 
-  /**
-   * Logs successful method completion.
-   *
-   * @param joinPoint provides access to the intercepted method
-   * @param result the value returned by the method, may be {@code null}
-   */
-  @AfterReturning(pointcut = "serviceMethods()", returning = "result")
-  public void logMethodSuccess(JoinPoint joinPoint, Object result) {
-    logger.info("← Exiting {}.{} successfully | returned: {}",
-            joinPoint.getSignature().getDeclaringType().getSimpleName(),
-            joinPoint.getSignature().getName(),
-            result != null ? result.getClass().getName() : "null");
+  private boolean isSampled() {
+    return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  private boolean isSensitive(String name) {
+    if (name == null) {
+      return false;
+    }
+    String lower = name.toLowerCase(Locale.ROOT);
+    for (String sensitive : sensitiveNames) {
+      if (lower.contains(sensitive)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
-   * Logs exceptions thrown by service methods.
-   *
-   * @param joinPoint provides access to the intercepted method
-   * @param ex the thrown exception
+   * Arguments of a traced call, rendered by {@link #toString()} only if the log event is written.
    */
-  @AfterThrowing(pointcut = "serviceMethods()", throwing = "ex")
-  public void logMethodException(JoinPoint joinPoint, Throwable ex) {
-    logger.error("Exception in {}.{}: {}",
-            joinPoint.getSignature().getDeclaringType().getSimpleName(),
-            joinPoint.getSignature().getName(),
-            ex.getMessage());
+  private final class Arguments {
+    private final String[] names;
+    private final Object[] values;
+
+    private Arguments(String[] names, Object[] values) {
+      this.names = names;
+      this.values = values;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder out = new StringBuilder(values.length * 16 + 2).append('[');
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          out.append(", ");
+        }
+        String name = names != null && i < names.length ? names[i] : null;
+        if (name != null) {
+          out.append(name).append('=');
+        }
+        if (isSensitive(name)) {
+          out.append(MASK);
+        } else {
+          render(out, values[i]);
+        }
+      }
+      return out.append(']').toString();
+    }
+
+    /**
+     * Renders a value without calling {@code toString()} on objects that may be large or hold secrets.
+     */
+    private void render(StringBuilder out, Object value) {
+      if (value == null) {
+        out.append("null");
+      } else if (value instanceof CharSequence text) {
+        out.append('"');
+        truncate(out, text);
+        out.append('"');
+      } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+              || value instanceof Enum<?> || value instanceof TemporalAccessor) {
+        truncate(out, value.toString());
+      } else if (value instanceof Collection<?> collection) {
+        out.append(value.getClass().getSimpleName()).append("(size=").append(collection.size()).append(')');
+      } else if (value instanceof Map<?, ?> map) {
+        out.append(value.getClass().getSimpleName()).append("(size=").append(map.size()).append(')');
+      } else if (value.getClass().isArray()) {
+        out.append(value.getClass().getComponentType().getSimpleName()).append("[]");
+      } else {
+        out.append(value.getClass().getSimpleName());
+      }
+    }
+
+    private void truncate(StringBuilder out, CharSequence text) {
+      if (text.length() <= maxArgLength) {
+        out.append(text);
+      } else {
+        out.append(text, 0, maxArgLength).append("…(").append(text.length()).append(" chars)");
+      }
+    }
   }
 }
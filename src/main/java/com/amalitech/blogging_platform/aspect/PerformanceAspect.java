@@ -1,27 +1,48 @@
 package com.amalitech.blogging_platform.aspect;
 
+import com.amalitech.blogging_platform.dto.PaginatedData;
+import com.amalitech.blogging_platform.monitoring.ConnectionPoolMetrics;
+import com.amalitech.blogging_platform.monitoring.MethodLatencyMetrics;
+import com.amalitech.blogging_platform.monitoring.jfr.ServiceCallEvent;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
+
+import java.util.Collection;
+import java.util.Map;
 
 /**
- * Aspect responsible for measuring and logging execution time
- * of service-layer methods.
+ * Aspect responsible for measuring the execution time of service-layer methods.
+ * <p>
+ * Every call is recorded into the latency histogram of its method (see {@link MethodLatencyMetrics}),
+ * only calls exceeding the objective (SLO) of their method are logged, together with the connection pool state,
+ * to tell slow SQL apart from time spent waiting for a connection.
+ * While a Flight Recorder recording enables it, each call is also emitted as a {@link ServiceCallEvent}.
+ * </p>
  */
 @Aspect
 @Component
 public class PerformanceAspect {
 
   private static final Logger logger = LoggerFactory.getLogger(PerformanceAspect.class);
+  private static final int MAX_IDS_LENGTH = 128;
+
+  private final ConnectionPoolMetrics poolMetrics;
+  private final MethodLatencyMetrics latencyMetrics;
+
+  public PerformanceAspect(ConnectionPoolMetrics poolMetrics, MethodLatencyMetrics latencyMetrics) {
+    this.poolMetrics = poolMetrics;
+    this.latencyMetrics = latencyMetrics;
+  }
 
   /**
-   * Measures execution time of service methods and logs the result.
+   * Measures execution time of service methods and records it.
    * <p>
-   * Logs as INFO for fast executions and WARN for slow executions.
+   * Logs as WARN the executions slower than the objective of the method.
    * </p>
    *
    * @param joinPoint provides access to the intercepted method
@@ -30,19 +51,59 @@ public class PerformanceAspect {
    */
   @Around("execution(* com.amalitech.blogging_platform.service..*(..))")
   public Object measureExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-    StopWatch stopWatch = new StopWatch();
-    stopWatch.start();
+    ServiceCallEvent event = new ServiceCallEvent();
+    event.begin();
+    long start = System.nanoTime();
+    Object result = null;
+    Throwable failure = null;
     try {
-      return joinPoint.proceed();
+      result = joinPoint.proceed();
+      return result;
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
     } finally {
-      stopWatch.stop();
-      long timeMs = stopWatch.getTotalTimeMillis();
-      String className  = joinPoint.getSignature().getDeclaringType().getSimpleName();
-      String methodName = joinPoint.getSignature().getName();
-      if (timeMs < 1000)
-        logger.info("{}.{} took {} ms", className, methodName, timeMs);
-      else
-        logger.warn("{}.{} took {} s", className, methodName, (double) timeMs / 1000);
+      long nanos = System.nanoTime() - start;
+      MethodLatencyMetrics.Timer timer = latencyMetrics.timer(((MethodSignature) joinPoint.getSignature()).getMethod());
+      if (timer.record(nanos) && logger.isWarnEnabled()) {
+        logger.warn("{} took {} ms (SLO: {} ms) | pool active: {}, idle: {}, pending: {}", timer.getName(),
+                nanos / 1_000_000.0, timer.getSloNanos() / 1_000_000.0,
+                poolMetrics.getActiveConnections(), poolMetrics.getIdleConnections(), poolMetrics.getPendingThreads());
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.method = timer.getName();
+        event.entity = joinPoint.getSignature().getDeclaringType().getSimpleName().replace("Service", "");
+        event.entityIds = ids(joinPoint.getArgs());
+        event.rows = rows(result);
+        event.exception = failure == null ? null : failure.getClass().getName();
+        event.commit();
+      }
     }
   }
+
+  /**
+   * @return the identifiers among the arguments: {@code Long} values and collections of them
+   */
+  private static String ids(Object[] args) {
+    StringBuilder ids = new StringBuilder();
+    for (Object arg : args) {
+      if (arg instanceof Long || arg instanceof Collection<?> c && !c.isEmpty() && c.iterator().next() instanceof Long) {
+        if (!ids.isEmpty()) {
+          ids.append(' ');
+        }
+        ids.append(arg);
+      }
+    }
+    return ids.length() <= MAX_IDS_LENGTH ? ids.toString() : ids.substring(0, MAX_IDS_LENGTH) + "...";
+  }
+
+  private static long rows(Object result) {
+    return switch (result) {
+      case Collection<?> c -> c.size();
+      case Map<?, ?> m -> m.size();
+      case PaginatedData<?> page when page.getItems() != null -> page.getItems().size();
+      case null, default -> -1;
+    };
+  }
 }
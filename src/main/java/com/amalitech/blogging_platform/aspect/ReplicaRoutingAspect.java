@@ -0,0 +1,130 @@
+package com.amalitech.blogging_platform.aspect;
+
+import com.amalitech.blogging_platform.config.ReplicaProperties;
+import com.amalitech.blogging_platform.dao.ReplicaRoutingDataSource;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Aspect routing the read methods of the DAOs to the read replicas, with read-your-writes stickiness.
+ * <p>
+ * Public DAO methods named {@code get*}, {@code find*}, {@code search*}, {@code stream*}, {@code count*} or
+ * {@code compute*} are reads; every other DAO method is a write and goes to the primary. After a write, the reads of the
+ * same request, and of the same client for {@code blogging.datasource.replicas.stickiness} (tracked with the
+ * {@value #STICKY_COOKIE} cookie), go to the primary too, so a client always reads what it just wrote.
+ * </p>
+ */
+@Aspect
+@Component
+public class ReplicaRoutingAspect {
+
+  static final String STICKY_COOKIE = "db-primary-until";
+
+  private static final String PINNED_ATTRIBUTE = ReplicaRoutingAspect.class.getName() + ".PINNED";
+  private static final List<String> READ_PREFIXES = List.of("get", "find", "search", "stream", "count", "compute");
+
+  private final ReplicaRoutingDataSource routing;
+  private final Duration stickiness;
+
+  public ReplicaRoutingAspect(ReplicaRoutingDataSource routing, ReplicaProperties properties) {
+    this.routing = routing;
+    this.stickiness = properties.stickiness();
+  }
+
+  /**
+   * Declares the intercepted DAO method as a read or a write for the routing data source.
+   *
+   * @param joinPoint provides access to the intercepted method
+   * @return the result of the method execution
+   * @throws Throwable if the intercepted method throws an exception
+   */
+  @Around("execution(public * com.amalitech.blogging_platform.dao..*(..)) && @within(org.springframework.stereotype.Repository)")
+  public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (!routing.hasReplicas()) {
+      return joinPoint.proceed();
+    }
+
+    boolean read = isRead(joinPoint.getSignature().getName());
+    Boolean previous = routing.enter(read && !isPinnedToPrimary());
+    try {
+      Object result = joinPoint.proceed();
+      if (!read) {
+        pinToPrimary();
+      }
+      return result;
+    } finally {
+      routing.exit(previous);
+    }
+  }
+
+  private static boolean isRead(String method) {
+    return READ_PREFIXES.stream().anyMatch(method::startsWith);
+  }
+
+  /**
+   * @return {@code true} if the current request, or its client a short while ago, wrote
+   */
+  private boolean isPinnedToPrimary() {
+    HttpServletRequest request = currentRequest();
+    if (request == null) {
+      return false;
+    }
+    if (request.getAttribute(PINNED_ATTRIBUTE) != null) {
+      return true;
+    }
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return false;
+    }
+    for (Cookie cookie : cookies) {
+      if (STICKY_COOKIE.equals(cookie.getName())) {
+        try {
+          return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sends the next reads of the current request and client to the primary.
+   */
+  private void pinToPrimary() {
+    if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+      return;
+    }
+    HttpServletRequest request = attributes.getRequest();
+    if (request.getAttribute(PINNED_ATTRIBUTE) != null) {
+      return;
+    }
+    request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE);
+    HttpServletResponse response = attributes.getResponse();
+    if (response != null && !response.isCommitted()) {
+      ResponseCookie cookie = ResponseCookie.from(STICKY_COOKIE, String.valueOf(System.currentTimeMillis() + stickiness.toMillis()))
+              .path("/")
+              .maxAge(stickiness)
+              .httpOnly(true)
+              .sameSite("Lax")
+              .build();
+      response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+  }
+
+  private static HttpServletRequest currentRequest() {
+    return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ? attributes.getRequest() : null;
+  }
+}
@@ -0,0 +1,54 @@
+package com.amalitech.blogging_platform.aspect;
+
+import com.amalitech.blogging_platform.dao.Transactions;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect running the methods annotated with {@link com.amalitech.blogging_platform.dao.Transactional} as a unit of work.
+ */
+@Aspect
+@Component
+public class TransactionAspect {
+
+  private final Transactions transactions;
+
+  public TransactionAspect(Transactions transactions) {
+    this.transactions = transactions;
+  }
+
+  /**
+   * Wraps the annotated method in a unit of work, committed on return and rolled back on exception.
+   *
+   * @param joinPoint provides access to the intercepted method
+   * @return the result of the method execution
+   * @throws Throwable if the intercepted method throws an exception
+   */
+  @Around("@annotation(com.amalitech.blogging_platform.dao.Transactional) || @within(com.amalitech.blogging_platform.dao.Transactional)")
+  public Object inTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+    try {
+      return transactions.execute(() -> {
+        try {
+          return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new CheckedFailure(e);
+        }
+      });
+    } catch (CheckedFailure e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Carries a checked exception of the intercepted method through the unit of work.
+   */
+  private static final class CheckedFailure extends RuntimeException {
+    CheckedFailure(Throwable cause) {
+      super(cause);
+    }
+  }
+}
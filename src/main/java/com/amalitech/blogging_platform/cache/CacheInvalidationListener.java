@@ -0,0 +1,187 @@
+package com.amalitech.blogging_platform.cache;
+
+import com.amalitech.blogging_platform.config.CacheProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Evicts cache entries written by other application nodes.
+ * <p>
+ * Writes on cached tables publish a {@code NOTIFY} on the {@value #CHANNEL} channel
+ * (triggers of {@code docs/migrations/004_cache_invalidation_notify.sql}), delivered once the writing transaction commits.
+ * This listener holds a dedicated connection, outside the pool, subscribed to the channel and evicts the keys named by
+ * each notification. Notifications sent while the connection is down are lost, so every cache is emptied when it reconnects.
+ * A notification that fails to be applied is logged and skipped, the listener keeps running.
+ * </p>
+ */
+@Component
+public class CacheInvalidationListener {
+
+  static final String CHANNEL = "cache_invalidation";
+
+  private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+  private final EntityCaches caches;
+  private final HikariDataSource dataSource;
+  private final CacheProperties.Invalidation properties;
+  private final boolean enabled;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private volatile boolean running;
+  private Thread thread;
+
+  @Autowired
+  public CacheInvalidationListener(EntityCaches caches, HikariDataSource dataSource, CacheProperties properties) {
+    this.caches = caches;
+    this.dataSource = dataSource;
+    this.properties = properties.invalidation();
+    this.enabled = properties.enabled() && properties.invalidation().enabled();
+  }
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      log.info("Cross-node cache invalidation disabled");
+      return;
+    }
+    running = true;
+    thread = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::run);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+      thread.join(properties.pollInterval().toMillis() * 2);
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try (Connection conn = DriverManager.getConnection(dataSource.getJdbcUrl(), dataSource.getUsername(), dataSource.getPassword());
+           Statement stmt = conn.createStatement()) {
+
+        stmt.execute("LISTEN " + CHANNEL);
+        // Writes of other nodes may have been missed while not listening
+        caches.invalidateAll();
+        log.info("Listening for cache invalidations on channel '{}'", CHANNEL);
+
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        int timeout = (int) properties.pollInterval().toMillis();
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(timeout);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            try {
+              handle(notification.getParameter());
+            } catch (RuntimeException e) {
+              // A failed eviction must not stop the listener, the affected entries expire with their ttl
+              log.error("Failed to apply cache invalidation {}", notification.getParameter(), e);
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Cache invalidation listener disconnected, retrying in {}: {}", properties.reconnectDelay(), e.getMessage());
+        try {
+          Thread.sleep(properties.reconnectDelay());
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Evicts the entries affected by a change notification.
+   *
+   * @param payload JSON payload of the notification ({@code entity}, {@code op}, {@code id}, {@code postId}, {@code name}, {@code oldName}),
+   *                the keys written by a whole statement on posts and post_tags come as {@code ids} and {@code postIds} arrays
+   */
+  void handle(String payload) {
+    JsonNode event;
+    try {
+      event = mapper.readTree(payload);
+    } catch (JacksonException e) {
+      log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+      return;
+    }
+
+    String entity = event.path("entity").asString("");
+    List<Long> ids = longValues(event.path("id"), event.path("ids"));
+    List<Long> postIds = longValues(event.path("postId"), event.path("postIds"));
+    log.debug("Cache invalidation received: {} {} {}", entity, event.path("op").asString(""), ids);
+
+    switch (entity) {
+      case "users" -> invalidate(EntityCaches.USERS, ids);
+      case "posts" -> {
+        invalidate(EntityCaches.POSTS, ids);
+        invalidate(EntityCaches.POSTS_DETAILED, ids);
+      }
+      case "tags" -> {
+        invalidate(EntityCaches.TAGS, ids);
+        invalidateName(event.path("name"));
+        invalidateName(event.path("oldName"));
+        // Detailed posts embed tag names and are not indexed by tag
+        if (!"INSERT".equals(event.path("op").asString(""))) {
+          caches.get(EntityCaches.POSTS_DETAILED).invalidateAll();
+        }
+      }
+      case "comments", "reviews", "post_tags" -> invalidate(EntityCaches.POSTS_DETAILED, postIds);
+      default -> log.debug("No cache bound to entity '{}'", entity);
+    }
+  }
+
+  private void invalidate(String cache, List<Long> ids) {
+    if (!ids.isEmpty()) {
+      EntityCache<Long, Object> entries = caches.get(cache);
+      ids.forEach(entries::invalidate);
+    }
+  }
+
+  private void invalidateName(JsonNode name) {
+    if (name.isString()) {
+      caches.<String, Object>get(EntityCaches.TAGS_BY_NAME).invalidate(name.asString().toLowerCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * @return the key of a single row notification and the keys of a statement notification, whichever is present
+   */
+  private static List<Long> longValues(JsonNode single, JsonNode array) {
+    List<Long> values = new ArrayList<>();
+    if (single.isNumber()) {
+      values.add(single.asLong());
+    }
+    for (JsonNode value : array) {
+      if (value.isNumber()) {
+        values.add(value.asLong());
+      }
+    }
+    return values;
+  }
+}
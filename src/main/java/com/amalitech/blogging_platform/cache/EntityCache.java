@@ -0,0 +1,214 @@
+package com.amalitech.blogging_platform.cache;
+
+import com.amalitech.blogging_platform.dao.ReplicaRoutingDataSource;
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through, size- and TTL-bounded cache of entities, safe for concurrent use.
+ * <p>
+ * Entries are kept in access order and the least recently used one is evicted once {@code maxSize} is reached.
+ * A {@code null} loaded value ("not found") is remembered for {@code negativeTtl}, so repeated lookups of missing
+ * ids do not reach the database either. Concurrent misses on the same key share a single load.
+ * A load that races with an invalidation is not stored, so an invalidated value cannot come back.
+ * Misses are loaded from the primary even when read replicas are configured: a lagging replica could otherwise
+ * serve the row that was just invalidated, and the stale value would be cached for the whole {@code ttl}.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class EntityCache<K, V> {
+
+  private static final Object NOT_FOUND = new Object();
+
+  private record Entry(Object value, long expiresAt) {
+  }
+
+  private final String name;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final long negativeTtlNanos;
+
+  private final LinkedHashMap<K, Entry> entries;
+  private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder negativeHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * @param name             cache name, shown in metrics
+   * @param maxSize          maximum number of entries, {@code 0} disables caching
+   * @param ttlNanos         time to live of loaded values
+   * @param negativeTtlNanos time to live of "not found" answers, {@code 0} disables negative caching
+   */
+  public EntityCache(String name, int maxSize, long ttlNanos, long negativeTtlNanos) {
+    this.name = name;
+    this.maxSize = Math.max(maxSize, 0);
+    this.ttlNanos = ttlNanos;
+    this.negativeTtlNanos = negativeTtlNanos;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+        if (size() > EntityCache.this.maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the cached value of a key, loading it on a miss.
+   *
+   * @param key    key to look up
+   * @param loader reads the value from the database, may return {@code null} if it does not exist
+   * @return the value, {@code null} if it does not exist
+   */
+  @SuppressWarnings("unchecked")
+  public V get(K key, Function<K, V> loader) {
+    if (maxSize == 0 || key == null) {
+      return loader.apply(key);
+    }
+
+    Entry entry = lookup(key);
+    if (entry != null) {
+      if (entry.value() == NOT_FOUND) {
+        negativeHits.increment();
+        return null;
+      }
+      hits.increment();
+      return (V) entry.value();
+    }
+
+    misses.increment();
+    CompletableFuture<V> own = new CompletableFuture<>();
+    CompletableFuture<V> inFlight = loading.putIfAbsent(key, own);
+    if (inFlight != null) {
+      return await(inFlight);
+    }
+
+    try {
+      long loadGeneration = generation.get();
+      V value = ReplicaRoutingDataSource.onPrimary(() -> loader.apply(key));
+      store(key, value, loadGeneration);
+      own.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      own.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, own);
+    }
+  }
+
+  /**
+   * Removes a key, the next lookup reads it again from the database.
+   *
+   * @param key key to remove
+   */
+  public void invalidate(K key) {
+    generation.incrementAndGet();
+    synchronized (entries) {
+      if (entries.remove(key) != null) {
+        invalidations.increment();
+      }
+    }
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    synchronized (entries) {
+      invalidations.add(entries.size());
+      entries.clear();
+    }
+  }
+
+  /**
+   * @return number of entries, including expired ones not yet cleaned up
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Takes a point-in-time summary of the cache usage.
+   *
+   * @return size, bounds and counters of the cache
+   */
+  public MonitoringDTO.Cache snapshot() {
+    MonitoringDTO.Cache cache = new MonitoringDTO.Cache();
+    cache.setName(name);
+    cache.setSize(size());
+    cache.setMaxSize(maxSize);
+    cache.setHits(hits.sum());
+    cache.setNegativeHits(negativeHits.sum());
+    cache.setMisses(misses.sum());
+    long lookups = cache.getHits() + cache.getNegativeHits() + cache.getMisses();
+    cache.setHitRate(lookups == 0 ? 0 : Math.round((cache.getHits() + cache.getNegativeHits()) * 1000.0 / lookups) / 1000.0);
+    cache.setEvictions(evictions.sum());
+    cache.setExpirations(expirations.sum());
+    cache.setInvalidations(invalidations.sum());
+    return cache;
+  }
+
+  private Entry lookup(K key) {
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.expiresAt() >= 0) {
+        entries.remove(key);
+        expirations.increment();
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  private void store(K key, V value, long loadGeneration) {
+    long ttl = value == null ? negativeTtlNanos : ttlNanos;
+    if (ttl <= 0) {
+      return;
+    }
+    Entry entry = new Entry(value == null ? NOT_FOUND : value, System.nanoTime() + ttl);
+    synchronized (entries) {
+      // An invalidation happened while loading, the loaded value may already be stale
+      if (generation.get() == loadGeneration) {
+        entries.put(key, entry);
+      }
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> inFlight) {
+    try {
+      return inFlight.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.amalitech.blogging_platform.cache;
+
+import com.amalitech.blogging_platform.config.CacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the named entity caches, bounded from {@code blogging.cache.specs.<name>}.
+ * <p>
+ * Services ask for their cache by name and always get the same instance back, so a write in one service
+ * can invalidate what another one cached (e.g. a new comment invalidates the detailed post).
+ * </p>
+ */
+@Component
+public class EntityCaches {
+
+  public static final String USERS = "users";
+  public static final String TAGS = "tags";
+  public static final String TAGS_BY_NAME = "tags-by-name";
+  public static final String POSTS = "posts";
+  public static final String POSTS_DETAILED = "posts-detailed";
+
+  private final CacheProperties properties;
+  private final Map<String, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+  @Autowired
+  public EntityCaches(CacheProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Returns the cache registered under a name, creating it on the first call.
+   *
+   * @param name cache name
+   * @return the cache, disabled (always loading) if caching is turned off
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> EntityCache<K, V> get(String name) {
+    return (EntityCache<K, V>) caches.computeIfAbsent(name, n -> {
+      CacheProperties.Spec spec = properties.spec(n);
+      int maxSize = properties.enabled() ? spec.maxSize() : 0;
+      return new EntityCache<>(n, maxSize, spec.ttl().toNanos(), spec.negativeTtl().toNanos());
+    });
+  }
+
+  /**
+   * Empties every cache created so far.
+   */
+  public void invalidateAll() {
+    caches.values().forEach(EntityCache::invalidateAll);
+  }
+
+  /**
+   * @return every cache created so far
+   */
+  public Collection<EntityCache<?, ?>> all() {
+    List<EntityCache<?, ?>> all = new ArrayList<>(caches.values());
+    all.sort((a, b) -> a.getName().compareTo(b.getName()));
+    return all;
+  }
+}
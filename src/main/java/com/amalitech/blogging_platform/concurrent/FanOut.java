@@ -0,0 +1,248 @@
+package com.amalitech.blogging_platform.concurrent;
+
+import com.amalitech.blogging_platform.config.FanOutProperties;
+import com.amalitech.blogging_platform.exceptions.DeadlineExceededException;
+import com.amalitech.blogging_platform.monitoring.ConnectionPoolMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent sub-queries of a request concurrently, one virtual thread each.
+ * <p>
+ * A {@link Scope} follows the shape of a structured task scope (shutdown on failure): subtasks are forked,
+ * then joined together; the first failure, or the request deadline, cancels the subtasks still running,
+ * and no subtask outlives the scope: closing it interrupts the subtasks still running and waits for them to end, so
+ * their connections and bulkhead permits are given back by then (a virtual thread blocked in a JDBC socket read is
+ * released at once, the interrupt closes its socket). Latency becomes the slowest sub-query instead of the sum of them.
+ * Each subtask borrows its own pooled connection, so the pool size bounds the effective parallelism.
+ * The reactive loads of a GraphQL request form a {@link Group} with the same rules, opened once per request
+ * by {@link FanOutGraphQlInterceptor}.
+ * Subtasks inherit the request attributes of the forking thread (read-your-writes pinning to the primary)
+ * and the DAO method it runs, for the connection metrics.
+ * </p>
+ */
+@Component
+public class FanOut {
+
+  private final FanOutProperties properties;
+  private final ConnectionPoolMetrics poolMetrics;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Scheduler scheduler = Schedulers.fromExecutorService(executor, "fan-out");
+
+  @Autowired
+  public FanOut(FanOutProperties properties, ConnectionPoolMetrics poolMetrics) {
+    this.properties = properties;
+    this.poolMetrics = poolMetrics;
+  }
+
+  /**
+   * @return {@code true} if independent sub-queries should run concurrently
+   */
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Opens a scope whose subtasks must all complete within the configured deadline.
+   *
+   * @return the scope, to close once the results are read (try-with-resources)
+   */
+  public Scope open() {
+    return new Scope(System.nanoTime() + properties.deadline().toNanos());
+  }
+
+  /**
+   * Opens a group of reactive loads that must all complete within the configured deadline.
+   *
+   * @return the group, shared by the loads of one request
+   */
+  public Group openGroup() {
+    return new Group(System.nanoTime() + properties.deadline().toNanos());
+  }
+
+  /**
+   * Wraps a blocking load for a reactive caller (GraphQL batch loaders).
+   * When the fan-out is enabled the load runs on a virtual thread, so sibling loads dispatched together run
+   * concurrently, within the time left to their group; the first load of the group to fail cancels the others.
+   * Otherwise it runs on the subscribing thread, as a plain call would.
+   *
+   * @param group loads of the same request, {@code null} to give this load a deadline of its own
+   * @param task  blocking load
+   * @return the deferred result
+   */
+  public <T> Mono<T> async(Group group, Callable<T> task) {
+    if (!isEnabled()) {
+      return Mono.fromCallable(task);
+    }
+    Group loads = group != null ? group : openGroup();
+    Mono<T> load = Mono.fromCallable(propagate(task)).subscribeOn(scheduler);
+    return Mono.defer(() -> Mono.firstWithSignal(
+            load.timeout(Duration.ofNanos(loads.remainingNanos()))
+                    .onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("Request deadline of " + properties.deadline() + " exceeded"))
+                    .doOnError(loads.firstFailure::completeExceptionally),
+            Mono.fromFuture(loads.firstFailure, true).then(Mono.<T>empty())));
+  }
+
+  /**
+   * Carries the request attributes and the DAO method of the calling thread over to the thread running the task.
+   */
+  private <T> Callable<T> propagate(Callable<T> task) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    String daoMethod = poolMetrics.currentDaoMethod();
+    return () -> {
+      RequestContextHolder.setRequestAttributes(attributes);
+      String previous = poolMetrics.enterDaoMethod(daoMethod);
+      try {
+        return task.call();
+      } finally {
+        poolMetrics.exitDaoMethod(previous);
+        RequestContextHolder.resetRequestAttributes();
+      }
+    };
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.dispose();
+    executor.shutdownNow();
+  }
+
+  /**
+   * Group of concurrent subtasks sharing a deadline.
+   */
+  public final class Scope implements AutoCloseable {
+
+    private final long deadlineNanos;
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private final List<CompletableFuture<Void>> exits = new ArrayList<>();
+    private final List<CompletableFuture<?>> results = new ArrayList<>();
+    private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+    private Scope(long deadlineNanos) {
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Starts a subtask.
+     *
+     * @param task sub-query to run
+     * @return accessor of the result, valid once {@link #join()} returned
+     */
+    public <T> Supplier<T> fork(Callable<T> task) {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      Callable<T> propagated = propagate(task);
+      FutureTask<Void> subtask = new FutureTask<>(() -> {
+        try {
+          result.complete(propagated.call());
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+          firstFailure.completeExceptionally(e);
+        }
+      }, null);
+      // Completed once the thread is done with the subtask, even if it was cancelled before it started
+      CompletableFuture<Void> exit = new CompletableFuture<>();
+      executor.execute(() -> {
+        try {
+          subtask.run();
+        } finally {
+          exit.complete(null);
+        }
+      });
+      tasks.add(subtask);
+      exits.add(exit);
+      results.add(result);
+      return result::resultNow;
+    }
+
+    /**
+     * Waits for every subtask, until the first failure or the deadline.
+     *
+     * @throws DeadlineExceededException if the subtasks did not all complete before the deadline
+     * @throws RuntimeException          the failure of the first subtask that failed
+     */
+    public void join() {
+      CompletableFuture<Void> all = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+      try {
+        CompletableFuture.anyOf(all, firstFailure).get(remainingNanos(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        cancel();
+        throw new DeadlineExceededException("Request deadline exceeded");
+      } catch (ExecutionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        throw new RuntimeException(e.getCause());
+      } catch (InterruptedException e) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for sub-queries", e);
+      }
+    }
+
+    /**
+     * @return whole seconds left before the deadline, at least 1, to use as JDBC query timeout
+     */
+    public int queryTimeoutSeconds() {
+      return (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private long remainingNanos() {
+      return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    private void cancel() {
+      tasks.forEach(task -> task.cancel(true));
+    }
+
+    /**
+     * Cancels the subtasks still running and waits until none runs anymore, without being interruptible itself
+     * (like {@code StructuredTaskScope.close()}).
+     */
+    @Override
+    public void close() {
+      cancel();
+      CompletableFuture.allOf(exits.toArray(CompletableFuture[]::new)).join();
+    }
+  }
+
+  /**
+   * Reactive loads of one request sharing a deadline, the first failure cancels the loads still running.
+   */
+  public static final class Group {
+
+    /** Key of the group in the {@code GraphQLContext} of a request. */
+    public static final String CONTEXT_KEY = "fanOutGroup";
+
+    private final long deadlineNanos;
+    private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+    private Group(long deadlineNanos) {
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    private long remainingNanos() {
+      return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+  }
+}
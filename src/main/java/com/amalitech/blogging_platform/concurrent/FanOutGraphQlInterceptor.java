@@ -0,0 +1,33 @@
+package com.amalitech.blogging_platform.concurrent;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens one {@link FanOut.Group} per GraphQL request and stores it in the {@code GraphQLContext}, so that all the
+ * field loads of the request share a single deadline, started when the request arrives, and fail together.
+ */
+@Component
+public class FanOutGraphQlInterceptor implements WebGraphQlInterceptor {
+
+  private final FanOut fanOut;
+
+  @Autowired
+  public FanOutGraphQlInterceptor(FanOut fanOut) {
+    this.fanOut = fanOut;
+  }
+
+  @Override
+  public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+    if (fanOut.isEnabled()) {
+      FanOut.Group group = fanOut.openGroup();
+      request.configureExecutionInput((input, builder) ->
+              builder.graphQLContext(context -> context.put(FanOut.Group.CONTEXT_KEY, group)).build());
+    }
+    return chain.next(request);
+  }
+}
@@ -0,0 +1,25 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of the bulkhead limiting concurrent database access, bound from {@code blogging.datasource.bulkhead.*}.
+ * <p>
+ * With virtual threads ({@code spring.threads.virtual.enabled}) the number of request threads is no longer bounded,
+ * the bulkhead makes callers queue for a permit, in arrival order, before they reach the connection pool.
+ * </p>
+ *
+ * @param enabled        {@code false} lets callers go straight to the pool
+ * @param maxConcurrent  connections that may be held at the same time, {@code 0} uses the pool {@code maximum-pool-size}
+ * @param acquireTimeout maximum time a caller waits for a permit before failing
+ */
+@ConfigurationProperties(prefix = "blogging.datasource.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0") int maxConcurrent,
+        @DefaultValue("5s") Duration acquireTimeout
+) {
+}
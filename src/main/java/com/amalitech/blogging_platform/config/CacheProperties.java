@@ -0,0 +1,59 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Options of the in-process entity caches, bound from {@code blogging.cache.*}.
+ *
+ * @param enabled {@code false} turns every cache into a pass-through to the database
+ * @param specs        bounds of each cache by name ({@code users}, {@code tags}, ...), caches not listed use the defaults of {@link Spec}
+ * @param invalidation cross-node invalidation through PostgreSQL {@code LISTEN/NOTIFY}
+ */
+@ConfigurationProperties(prefix = "blogging.cache")
+public record CacheProperties(
+        @DefaultValue("true") boolean enabled,
+        Map<String, Spec> specs,
+        @DefaultValue Invalidation invalidation
+) {
+
+  /**
+   * Options of the listener evicting entries written by other nodes, requires {@code docs/migrations/004_cache_invalidation_notify.sql}.
+   *
+   * @param enabled        {@code false} keeps caches node-local, other nodes' writes are then only seen after the TTL
+   * @param pollInterval   longest wait for notifications before checking whether the listener is stopping
+   * @param reconnectDelay pause before reconnecting after the listening connection was lost
+   */
+  public record Invalidation(
+          @DefaultValue("true") boolean enabled,
+          @DefaultValue("500ms") Duration pollInterval,
+          @DefaultValue("5s") Duration reconnectDelay
+  ) {
+  }
+
+  /**
+   * Bounds of a cache.
+   *
+   * @param maxSize     maximum number of entries, the least recently used ones are evicted beyond it
+   * @param ttl         how long a loaded value is served before being read again from the database
+   * @param negativeTtl how long a "not found" answer is remembered, {@code 0} disables negative caching
+   */
+  public record Spec(
+          @DefaultValue("1000") int maxSize,
+          @DefaultValue("5m") Duration ttl,
+          @DefaultValue("30s") Duration negativeTtl
+  ) {
+  }
+
+  /**
+   * @param name cache name
+   * @return the bounds configured for the cache, or the defaults
+   */
+  public Spec spec(String name) {
+    Spec spec = specs == null ? null : specs.get(name);
+    return spec != null ? spec : new Spec(1000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+  }
+}
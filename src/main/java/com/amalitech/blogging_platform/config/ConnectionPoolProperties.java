@@ -0,0 +1,39 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning options of the JDBC connection pool, bound from {@code blogging.datasource.pool.*}.
+ * <p>
+ * Connection credentials are not part of these properties, they still come from the {@code .env} file.
+ * </p>
+ *
+ * @param name               pool name, shown in logs and metrics
+ * @param minimumIdle        minimum number of idle connections kept in the pool
+ * @param maximumPoolSize    maximum number of connections (idle and in use)
+ * @param idleTimeout        how long a connection above {@code minimumIdle} may sit idle before being evicted
+ * @param maxLifetime        maximum lifetime of a connection, should be shorter than any database/network timeout
+ * @param connectionTimeout  maximum time a caller waits to acquire a connection before failing
+ * @param validationTimeout  maximum time spent validating a connection before handing it out
+ * @param keepaliveTime      interval at which idle connections are pinged, {@code 0} disables keepalive
+ * @param leakDetectionThreshold time a connection may be held before its borrowing stack trace is logged
+ *                           as a possible leak, {@code 0} disables leak detection
+ * @param connectionTestQuery optional validation query, leave empty to rely on {@code Connection.isValid()}
+ */
+@ConfigurationProperties(prefix = "blogging.datasource.pool")
+public record ConnectionPoolProperties(
+        @DefaultValue("blogging-pool") String name,
+        @DefaultValue("5") int minimumIdle,
+        @DefaultValue("20") int maximumPoolSize,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("30m") Duration maxLifetime,
+        @DefaultValue("5s") Duration connectionTimeout,
+        @DefaultValue("2s") Duration validationTimeout,
+        @DefaultValue("0s") Duration keepaliveTime,
+        @DefaultValue("30s") Duration leakDetectionThreshold,
+        String connectionTestQuery
+) {
+}
@@ -0,0 +1,18 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of the streaming export, bound from {@code blogging.export.*}.
+ *
+ * @param overlap subtracted from the start of the export transaction to give the next {@code since}, must exceed the
+ *                longest write transaction so that rows it commits after the export read are exported next time
+ */
+@ConfigurationProperties(prefix = "blogging.export")
+public record ExportProperties(
+        @DefaultValue("1m") Duration overlap
+) {
+}
@@ -0,0 +1,22 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of the parallel fan-out of independent sub-queries, bound from {@code blogging.fan-out.*}.
+ *
+ * @param enabled  {@code true} loads the parts of a detailed post (post and author, tags, comments, reviews) concurrently,
+ *                 each on its own pooled connection, instead of in a single statement; the GraphQL {@code Post} fields
+ *                 are then also resolved concurrently
+ * @param deadline time allowed to all the sub-queries of a request (all the field loads of a GraphQL request),
+ *                 the remaining ones are cancelled beyond it
+ */
+@ConfigurationProperties(prefix = "blogging.fan-out")
+public record FanOutProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2s") Duration deadline
+) {
+}
@@ -0,0 +1,17 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Options of the bulk post ingestion, bound from {@code blogging.ingestion.*}.
+ *
+ * @param chunkSize number of posts inserted, with their tags, per transaction
+ * @param maxItems  maximum number of posts accepted by a single request
+ */
+@ConfigurationProperties(prefix = "blogging.ingestion")
+public record IngestionProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("5000") int maxItems
+) {
+}
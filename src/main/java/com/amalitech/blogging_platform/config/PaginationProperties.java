@@ -0,0 +1,31 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of page-number pagination, bound from {@code blogging.pagination.*}.
+ *
+ * @param totalMode           how the total of unfiltered listings is computed
+ * @param exactCountThreshold below this estimated number of rows, the exact total is computed anyway
+ * @param estimateTtl         how long a row estimate is reused before asking the planner again
+ */
+@ConfigurationProperties(prefix = "blogging.pagination")
+public record PaginationProperties(
+        @DefaultValue("EXACT") TotalMode totalMode,
+        @DefaultValue("10000") long exactCountThreshold,
+        @DefaultValue("1m") Duration estimateTtl
+) {
+
+  /**
+   * Computation of the total number of items of a listing.
+   */
+  public enum TotalMode {
+    /** Exact count, computed in the same statement as the page. */
+    EXACT,
+    /** Planner row estimate for unfiltered listings, filtered listings stay exact. */
+    ESTIMATED
+  }
+}
@@ -0,0 +1,39 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Latency objectives of the service methods, bound from {@code blogging.performance.*}.
+ *
+ * @param defaultSlo time a service method may take before its call is logged
+ * @param slo        objectives overriding the default, keyed by {@code Class.method} or by {@code Class}
+ *                   for every method of a service (e.g. {@code PostService.search: 300ms})
+ */
+@ConfigurationProperties(prefix = "blogging.performance")
+public record PerformanceProperties(
+        @DefaultValue("1s") Duration defaultSlo,
+        Map<String, Duration> slo
+) {
+
+  /**
+   * Returns the objective of a method.
+   *
+   * @param className  simple name of the service class
+   * @param methodName name of the method
+   * @return the most specific objective configured, the default one otherwise
+   */
+  public Duration sloOf(String className, String methodName) {
+    if (slo == null) {
+      return defaultSlo;
+    }
+    Duration byMethod = slo.get(className + "." + methodName);
+    if (byMethod != null) {
+      return byMethod;
+    }
+    return slo.getOrDefault(className, defaultSlo);
+  }
+}
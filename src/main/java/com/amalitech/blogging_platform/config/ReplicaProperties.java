@@ -0,0 +1,31 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of the read replicas, bound from {@code blogging.datasource.replicas.*}.
+ * <p>
+ * Replica URLs are not part of these properties, they come from the {@code .env} file ({@code DB_REPLICA_URLS},
+ * comma separated, with the credentials of the primary); without URLs every statement goes to the primary.
+ * </p>
+ *
+ * @param enabled           {@code false} sends every statement to the primary even if replica URLs are set
+ * @param maximumPoolSize   maximum number of connections of each replica pool
+ * @param connectionTimeout maximum time waited for a replica connection before falling back to the primary
+ * @param maxLag            replication lag beyond which a replica stops serving reads until it catches up
+ * @param checkInterval     interval of the lag and health checks of the replicas
+ * @param stickiness        time during which the reads of a client go to the primary after it wrote (read-your-writes)
+ */
+@ConfigurationProperties(prefix = "blogging.datasource.replicas")
+public record ReplicaProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("1s") Duration connectionTimeout,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("2s") Duration checkInterval,
+        @DefaultValue("5s") Duration stickiness
+) {
+}
@@ -0,0 +1,25 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Options of the search features, bound from {@code blogging.search.*}.
+ *
+ * @param postMode how post searches match the keyword
+ */
+@ConfigurationProperties(prefix = "blogging.search")
+public record SearchProperties(
+        @DefaultValue("FULL_TEXT") PostSearchMode postMode
+) {
+
+  /**
+   * Matching strategy of post searches.
+   */
+  public enum PostSearchMode {
+    /** Ranked full-text search on {@code posts.search_vector}, requires {@code docs/migrations/002_post_full_text_search.sql}. */
+    FULL_TEXT,
+    /** Case-insensitive substring match on title, body and author names, unranked and not indexed. */
+    LIKE
+  }
+}
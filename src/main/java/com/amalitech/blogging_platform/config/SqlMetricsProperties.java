@@ -0,0 +1,21 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Options of the SQL statement timing, bound from {@code blogging.sql-metrics.*}.
+ *
+ * @param enabled            {@code false} stops timing the statements, prepared statements are then handed out unwrapped
+ * @param slowQueryThreshold execution time from which a statement is kept in the slow query log
+ * @param slowQueryCapacity  number of slow queries kept, the oldest ones are overwritten
+ */
+@ConfigurationProperties(prefix = "blogging.sql-metrics")
+public record SqlMetricsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100ms") Duration slowQueryThreshold,
+        @DefaultValue("100") int slowQueryCapacity
+) {
+}
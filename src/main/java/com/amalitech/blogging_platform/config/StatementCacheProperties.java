@@ -0,0 +1,25 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Prepared statement options of the PostgreSQL driver, bound from {@code blogging.datasource.statements.*}.
+ * <p>
+ * The driver keeps, per physical connection, the parsed form of the last {@code cacheQueries} SQL texts it prepared.
+ * Once a cached text has been executed {@code prepareThreshold} times on a connection, it becomes a named server-side
+ * prepared statement: later executions skip parsing and planning on the server. Pooled connections outlive the DAO
+ * calls, so the cache only pays off if each operation always sends the same SQL text.
+ * </p>
+ *
+ * @param prepareThreshold executions of a SQL text on a connection before it is prepared server-side, {@code 0} never
+ * @param cacheQueries     SQL texts cached per connection
+ * @param cacheSizeMib     memory limit of the per connection cache, in MiB
+ */
+@ConfigurationProperties(prefix = "blogging.datasource.statements")
+public record StatementCacheProperties(
+        @DefaultValue("3") int prepareThreshold,
+        @DefaultValue("256") int cacheQueries,
+        @DefaultValue("5") int cacheSizeMib
+) {
+}
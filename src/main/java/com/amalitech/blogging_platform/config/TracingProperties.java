@@ -0,0 +1,25 @@
+package com.amalitech.blogging_platform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Options of the service method tracing of {@code LoggingAspect}, bound from {@code blogging.tracing.*}.
+ * <p>
+ * Traces are written at DEBUG level by the {@code LoggingAspect} logger, they cost nothing while it is disabled.
+ * </p>
+ *
+ * @param sampleRate     fraction of the calls traced once DEBUG is enabled, from {@code 0} (none) to {@code 1} (all)
+ * @param maxArgLength   maximum number of characters rendered per argument, longer values are truncated
+ * @param sensitiveNames parameter name fragments whose arguments are never rendered (case-insensitive), the fields
+ *                       of an argument are not inspected
+ */
+@ConfigurationProperties(prefix = "blogging.tracing")
+public record TracingProperties(
+        @DefaultValue("0.1") double sampleRate,
+        @DefaultValue("64") int maxArgLength,
+        @DefaultValue({"password", "secret", "token"}) Set<String> sensitiveNames
+) {
+}
@@ -0,0 +1,49 @@
+package com.amalitech.blogging_platform.controller;
+
+import com.amalitech.blogging_platform.dto.GenericResponse;
+import com.amalitech.blogging_platform.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Rest Controller for maintenance operations, only registered with {@code blogging.admin.enabled: true}.
+ * <p>
+ * These operations lock tables or rewrite derived data: enable them on an instance reachable by operators only.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+@ConditionalOnProperty(prefix = "blogging.admin", name = "enabled", havingValue = "true")
+@Tag(name = "Admin", description = "Maintenance operations, disabled unless blogging.admin.enabled is true")
+public class AdminController {
+
+  private final UserService userService;
+
+  @Autowired
+  public AdminController(UserService userService) {
+    this.userService = userService;
+  }
+
+  @PostMapping("user-stats/rebuild")
+  @Operation(summary = "Recompute the stored stats of the given users (at most 100) from their posts, comments and reviews, writes to these tables wait meanwhile")
+  @ApiResponse(responseCode= "200", description = "Number of rebuilt users")
+  @ApiResponse(responseCode= "400", description = "No ids or too many ids", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<Integer>> rebuildUsersStats(@RequestParam List<Long> ids){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.userService.rebuildUserStats(ids));
+    return ResponseEntity.ok(response);
+  }
+}
@@ -39,6 +39,16 @@ public class CommentController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("cursor")
+  @Operation(summary = "Get comments with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Comments retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<CommentDTO.Out>>> getCommentsByCursor(@ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.commentService.get(pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
 
   @GetMapping("{id}")
   @Operation(summary = "Get a specific comment")
@@ -0,0 +1,108 @@
+package com.amalitech.blogging_platform.controller;
+
+import com.amalitech.blogging_platform.config.ExportProperties;
+import com.amalitech.blogging_platform.service.CommentService;
+import com.amalitech.blogging_platform.service.PostService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Rest Controller streaming full or incremental dumps of the data as NDJSON (one JSON object per line)
+ * <p>
+ * Incremental exports are at-least-once: the {@code X-Export-Started-At} watermark is the start of the export
+ * transaction on the database, minus {@code blogging.export.overlap} to cover the write transactions still running
+ * at that time, so consecutive exports overlap and consumers deduplicate rows by id (the last one wins).
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/export")
+@Tag(name = "Export", description = "Stream posts and comments as NDJSON for analytics")
+public class ExportController {
+
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final PostService postService;
+  private final CommentService commentService;
+  private final ObjectMapper mapper;
+  private final Duration overlap;
+
+  @Autowired
+  public ExportController(PostService postService, CommentService commentService, ObjectMapper mapper, ExportProperties properties) {
+    this.postService = postService;
+    this.commentService = commentService;
+    this.mapper = mapper;
+    this.overlap = properties.overlap();
+  }
+
+  @GetMapping(value = "posts", produces = NDJSON)
+  @Operation(summary = "Stream every post as NDJSON, or only the posts changed (deletions included) since a date. "
+          + "The X-Export-Started-At header gives the `since` of the next incremental export, which may repeat rows: deduplicate them by id")
+  @ApiResponse(responseCode= "200", description = "Posts streamed")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public void exportPosts(@Parameter(example = "2025-01-31T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                          HttpServletResponse response) throws IOException {
+    this.stream(response, "posts", since, (onStart, sink) -> this.postService.export(since, onStart, sink::accept));
+  }
+
+  @GetMapping(value = "comments", produces = NDJSON)
+  @Operation(summary = "Stream every comment as NDJSON, or only the comments changed (deletions included) since a date. "
+          + "The X-Export-Started-At header gives the `since` of the next incremental export, which may repeat rows: deduplicate them by id")
+  @ApiResponse(responseCode= "200", description = "Comments streamed")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public void exportComments(@Parameter(example = "2025-01-31T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                             HttpServletResponse response) throws IOException {
+    this.stream(response, "comments", since, (onStart, sink) -> this.commentService.export(since, onStart, sink::accept));
+  }
+
+  /**
+   * Writes each exported row as a JSON line straight to the response, rows are never collected in memory.
+   * Once the first bytes are sent the status can no longer change, a failure then truncates the stream.
+   * The watermark header is set from the database clock once the export transaction has started, before any row.
+   */
+  private void stream(HttpServletResponse response, String name, LocalDateTime since,
+                      ToLongBiFunction<Consumer<LocalDateTime>, Consumer<Object>> export) throws IOException {
+    response.setContentType(NDJSON);
+    response.setCharacterEncoding("UTF-8");
+
+    OutputStream out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+    long count = export.applyAsLong(
+            startedAt -> response.setHeader("X-Export-Started-At", startedAt.minus(this.overlap).toString()),
+            row -> this.writeLine(out, row));
+    out.flush();
+    log.info("Exported {} {} (since: {})", count, name, since);
+  }
+
+  private void writeLine(OutputStream out, Object row) {
+    try {
+      out.write(this.mapper.writeValueAsBytes(row));
+      out.write('\n');
+    } catch (IOException e) {
+      // The client went away, aborts the export and releases its connection
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.amalitech.blogging_platform.controller;
+
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
+import com.amalitech.blogging_platform.dao.ReplicaRoutingDataSource;
+import com.amalitech.blogging_platform.dto.GenericResponse;
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import com.amalitech.blogging_platform.monitoring.ConnectionPoolMetrics;
+import com.amalitech.blogging_platform.monitoring.MethodLatencyMetrics;
+import com.amalitech.blogging_platform.monitoring.SqlMetrics;
+import com.amalitech.blogging_platform.monitoring.StatementCacheMetrics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rest Controller exposing runtime metrics of the application
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/monitoring")
+@Tag(name = "Monitoring", description = "Runtime metrics (connection pool, caches, timings)")
+public class MonitoringController {
+
+  private final ConnectionPoolMetrics poolMetrics;
+  private final EntityCaches caches;
+  private final StatementCacheMetrics statementMetrics;
+  private final ReplicaRoutingDataSource routing;
+  private final MethodLatencyMetrics latencyMetrics;
+  private final SqlMetrics sqlMetrics;
+
+  @Autowired
+  public MonitoringController(ConnectionPoolMetrics poolMetrics, EntityCaches caches, StatementCacheMetrics statementMetrics,
+                              ReplicaRoutingDataSource routing, MethodLatencyMetrics latencyMetrics, SqlMetrics sqlMetrics) {
+    this.poolMetrics = poolMetrics;
+    this.sqlMetrics = sqlMetrics;
+    this.latencyMetrics = latencyMetrics;
+    this.routing = routing;
+    this.statementMetrics = statementMetrics;
+    this.caches = caches;
+  }
+
+  @GetMapping("pool")
+  @Operation(summary = "Get the state, acquisition/usage latencies, hold time per DAO method and bulkhead state of each connection pool (primary and replicas)")
+  @ApiResponse(responseCode= "200", description = "Pool metrics retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<MonitoringDTO.Pool>>> getPoolMetrics(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.poolMetrics.snapshot());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("caches")
+  @Operation(summary = "Get the size, hit rate, evictions and invalidations of each entity cache")
+  @ApiResponse(responseCode= "200", description = "Cache metrics retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<MonitoringDTO.Cache>>> getCacheMetrics(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.caches.all().stream().map(EntityCache::snapshot).toList());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("statements")
+  @Operation(summary = "Get the prepared statement cache hit rate and the most prepared SQL texts")
+  @ApiResponse(responseCode= "200", description = "Statement metrics retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<MonitoringDTO.Statements>> getStatementMetrics(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.statementMetrics.snapshot());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("replicas")
+  @Operation(summary = "Get the health, replication lag and reads of each read replica, and the reads that fell back to the primary")
+  @ApiResponse(responseCode= "200", description = "Replica metrics retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<MonitoringDTO.Replicas>> getReplicaMetrics(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.routing.snapshot());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("methods")
+  @Operation(summary = "Get the latency percentiles (p50/p95/p99/max), objective and objective breaches of each service method")
+  @ApiResponse(responseCode= "200", description = "Method latencies retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<Map<String, MonitoringDTO.MethodLatency>>> getMethodLatencies(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.latencyMetrics.snapshot());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("sql")
+  @Operation(summary = "Get the execution time and rows of the SQL statements taking the most time, and the connection wait of each DAO method")
+  @ApiResponse(responseCode= "200", description = "SQL metrics retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<MonitoringDTO.Sql>> getSqlMetrics(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.sqlMetrics.snapshot());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("slow-queries")
+  @Operation(summary = "Get the most recent statements slower than the slow query threshold, slowest first, with the types of their parameters")
+  @ApiResponse(responseCode= "200", description = "Slow queries retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<MonitoringDTO.SlowQuery>>> getSlowQueries(){
+    var response = new GenericResponse<>(HttpStatus.OK, this.sqlMetrics.slowQueries());
+    return ResponseEntity.ok(response);
+  }
+}
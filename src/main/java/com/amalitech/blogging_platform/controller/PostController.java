@@ -14,6 +14,8 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Rest Controller for managing Posts
  */
@@ -39,6 +41,16 @@ public class PostController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("cursor")
+  @Operation(summary = "Get posts with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Posts retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<PostDTO.Out>>> getPostsByCursor(@ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.postService.get(pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("{id}")
   @Operation(summary = "Get a specific post")
   @ApiResponse(responseCode= "200", description = "Post retrieved")
@@ -70,8 +82,18 @@ public class PostController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("/author/{id}/cursor")
+  @Operation(summary = "Get the posts of an author with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Posts retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<PostDTO.Out>>> getByAuthorByCursor(@PathVariable Long id, @ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.postService.getByAuthorId(id, pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("search")
-  @Operation(summary = "Search comments by title, author content and filter by tags")
+  @Operation(summary = "Search posts by title, content and author, ranked by relevance, and filter by tag/author. The keyword supports \"phrases\", prefix*, -exclusion and OR")
   @ApiResponse(responseCode= "200", description = "Post retrieved")
   @ApiResponse(responseCode= "404", description = "Post not found", content = @Content(mediaType = "application/json", schema = @Schema()))
   @ApiResponse(responseCode= "409", description = "Invalid data", content = @Content(mediaType = "application/json", schema = @Schema()))
@@ -92,6 +114,16 @@ public class PostController {
     return ResponseEntity.status(HttpStatus.CREATED).body(new GenericResponse<>(HttpStatus.CREATED, post));
   }
 
+  @PostMapping("bulk")
+  @Operation(summary = "Create many posts with their tags (migrations, content imports), reporting the outcome of each post")
+  @ApiResponse(responseCode= "200", description = "Posts processed, see the status of each item")
+  @ApiResponse(responseCode= "400", description = "No post, or more than allowed in one request", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<PostDTO.BulkResult>> createAll(@RequestBody List<PostDTO.In> in){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.postService.createAll(in));
+    return ResponseEntity.ok(response);
+  }
+
   @PutMapping("{id}")
   @Operation(summary = "Update  a post, the tags are ignored, use the /api/post/tag to update tags")
   @ApiResponse(responseCode= "200", description = "review updated")
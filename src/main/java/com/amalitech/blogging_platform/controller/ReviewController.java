@@ -41,6 +41,16 @@ public class ReviewController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("cursor")
+  @Operation(summary = "Get reviews with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Reviews retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<Review>>> getReviewsByCursor(@ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.reviewService.get(pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("{id}")
   @Operation(summary = "Get a specific review")
   @ApiResponse(responseCode= "200", description = "review retrieved")
@@ -1,5 +1,7 @@
 package com.amalitech.blogging_platform.controller;
 
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.GenericResponse;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
@@ -14,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Rest Controller for managing Tags
  */
@@ -37,6 +41,25 @@ public class TagController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("cursor")
+  @Operation(summary = "Get tags with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Tags retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<Tag>>> getTagsByCursor(@ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.tagService.get(pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("autocomplete")
+  @Operation(summary = "Suggest tags whose name is similar to, or contains, the keyword, best match first")
+  @ApiResponse(responseCode= "200", description = "Tags retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<Tag>>> autocomplete(@RequestParam String keyword, @RequestParam(required = false) Integer limit){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.tagService.autocomplete(keyword, limit));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("{id}")
   @Operation(summary = "Get a tag by ID")
   @ApiResponse(responseCode= "200", description = "Tag retrieved")
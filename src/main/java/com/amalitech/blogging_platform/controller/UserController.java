@@ -1,9 +1,12 @@
 package com.amalitech.blogging_platform.controller;
 
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.GenericResponse;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.dto.UserDTO;
+import com.amalitech.blogging_platform.dto.UserStatsDTO;
 import com.amalitech.blogging_platform.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,6 +21,9 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Rest Controller for managing Users
  */
@@ -44,6 +50,25 @@ public class UserController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("cursor")
+  @Operation(summary = "Get users with cursor (keyset) pagination, newest first. Use nextCursor/previousCursor of the response as after/before")
+  @ApiResponse(responseCode= "200", description = "Users retrieved")
+  @ApiResponse(responseCode= "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<CursorPaginatedData<UserDTO.Out>>> getUsersByCursor(@ModelAttribute CursorPageRequest pageRequest){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.userService.get(pageRequest));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("autocomplete")
+  @Operation(summary = "Suggest users whose username or name is similar to, or contains, the keyword, best match first")
+  @ApiResponse(responseCode= "200", description = "Users retrieved")
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<UserDTO.Out>>> autocomplete(@RequestParam String keyword, @RequestParam(required = false) Integer limit){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.userService.autocomplete(keyword, limit));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("{id}")
   @Operation(summary = "Get a specific user")
   @ApiResponse(responseCode= "200", description = "User retrieved")
@@ -55,6 +80,26 @@ public class UserController {
     return new ResponseEntity<>(response, HttpStatus.OK);
   }
 
+  @GetMapping("{id}/stats")
+  @Operation(summary = "Get the number of posts, comments and reviews of a user")
+  @ApiResponse(responseCode= "200", description = "User stats retrieved")
+  @ApiResponse(responseCode= "404", description = "User not found", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<Map<String, Integer>>> getUserStats(@PathVariable Long id){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.userService.getUserStats(id));
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("stats")
+  @Operation(summary = "Get the number of posts, comments and reviews of several users at once (at most 100), in the order of the ids")
+  @ApiResponse(responseCode= "200", description = "Users stats retrieved")
+  @ApiResponse(responseCode= "400", description = "Too many ids", content = @Content(mediaType = "application/json", schema = @Schema()))
+  @ApiResponse(responseCode= "500", description = "Internal server error, please let the backend developer know if it occurred", content = @Content(mediaType = "application/json", schema = @Schema()))
+  public ResponseEntity<GenericResponse<List<UserStatsDTO>>> getUsersStats(@RequestParam List<Long> ids){
+    var response = new GenericResponse<>(HttpStatus.OK,  this.userService.getUserStats(ids));
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("/username/{username}")
   @Operation(summary = "Get a specific user by username")
   @ApiResponse(responseCode= "200", description = "User retrieved")
@@ -5,11 +5,18 @@ import com.amalitech.blogging_platform.service.CommentService;
 import com.amalitech.blogging_platform.service.PostService;
 import com.amalitech.blogging_platform.service.UserService;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * GraphQL controller (resolver) for managing comments.
  * <p>
@@ -33,10 +40,15 @@ public class CommentGController {
    *
    * @param page page number (1-based)
    * @param size number of comments per page
+   * @param after cursor to read past, switches to cursor pagination ({@code page} is then ignored)
+   * @param before cursor to read up to, switches to cursor pagination ({@code page} is then ignored)
    * @return paginated GraphQL representation of comments
    */
   @QueryMapping
-  public PaginatedData<CommentDTO.GraphQL> comments(@Argument Integer page, @Argument Integer size) {
+  public PaginatedData<CommentDTO.GraphQL> comments(@Argument Integer page, @Argument Integer size, @Argument String after, @Argument String before) {
+    if (after != null || before != null) {
+      return CommentDTO.Converter.toGraphQL(this.commentService.get(new CursorPageRequest(after, before, size)));
+    }
     return CommentDTO.Converter.toGraphQL(this.commentService.get(new PageRequest(page, size)));
   }
 
@@ -87,41 +99,49 @@ public class CommentGController {
   }
 
   /**
-   * Resolves the user of a comment for GraphQL queries.
+   * Resolves the users of a batch of comments, with one query.
    *
-   * @param graphQL GraphQL comment object
-   * @return user who wrote the comment
+   * @param comments GraphQL comment objects
+   * @return users who wrote the comments, in the order of the comments
    */
-  @SchemaMapping(typeName = "Comment", field = "user")
-  public UserDTO.Out user(CommentDTO.GraphQL graphQL) {
-    return this.userService.get(graphQL.getUserId());
+  @BatchMapping(typeName = "Comment", field = "user")
+  public List<UserDTO.Out> user(List<CommentDTO.GraphQL> comments) {
+    Map<Long, UserDTO.Out> users = this.userService.getByIds(distinct(comments, CommentDTO.GraphQL::getUserId));
+    return comments.stream().map(comment -> users.get(comment.getUserId())).toList();
   }
 
   /**
-   * Resolves the post of a comment for GraphQL queries.
+   * Resolves the posts of a batch of comments, with one query.
    *
-   * @param graphQL GraphQL comment object
-   * @return post associated with the comment
+   * @param comments GraphQL comment objects
+   * @return posts associated with the comments, in the order of the comments
    */
-  @SchemaMapping(typeName = "Comment", field = "post")
-  public PostDTO.GraphQL post(CommentDTO.GraphQL graphQL) {
-    return PostDTO.Converter.toGraphQL(this.postService.get(graphQL.getPostId()));
+  @BatchMapping(typeName = "Comment", field = "post")
+  public List<PostDTO.GraphQL> post(List<CommentDTO.GraphQL> comments) {
+    Map<Long, PostDTO.Out> posts = this.postService.getByIds(distinct(comments, CommentDTO.GraphQL::getPostId));
+    return comments.stream()
+            .map(comment -> posts.get(comment.getPostId()))
+            .map(post -> post == null ? null : PostDTO.Converter.toGraphQL(post))
+            .toList();
   }
 
-
   /**
-   * Resolves the parent comment of a comment, if it exists.
+   * Resolves the parent comments of a batch of comments, with one query.
    *
-   * @param graphQL GraphQL comment object
-   * @return parent comment, or null if none exists
+   * @param comments GraphQL comment objects
+   * @return parent comments, in the order of the comments, null for a comment without parent
    */
-  @SchemaMapping(typeName = "Comment", field = "parent")
-  public CommentDTO.GraphQL comment(CommentDTO.GraphQL graphQL) {
-    try{
-      return CommentDTO.Converter.toGraphQL(this.commentService.get(graphQL.getParentCommentId()));
-    }catch(Exception ignored){ // if no parent, just return null (It is possible for a comment to not have a parent)
-      return null;
-    }
+  @BatchMapping(typeName = "Comment", field = "parent")
+  public List<CommentDTO.GraphQL> comment(List<CommentDTO.GraphQL> comments) {
+    Map<Long, CommentDTO.Out> parents = this.commentService.getByIds(distinct(comments, CommentDTO.GraphQL::getParentCommentId));
+    return comments.stream()
+            .map(comment -> parents.get(comment.getParentCommentId()))
+            .map(parent -> parent == null ? null : CommentDTO.Converter.toGraphQL(parent))
+            .toList();
+  }
+
+  private static Set<Long> distinct(List<CommentDTO.GraphQL> comments, Function<CommentDTO.GraphQL, Long> id) {
+    return comments.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
   }
 
 }
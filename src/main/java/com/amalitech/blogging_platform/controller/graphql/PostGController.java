@@ -1,19 +1,27 @@
 package com.amalitech.blogging_platform.controller.graphql;
 
+import com.amalitech.blogging_platform.concurrent.FanOut;
 import com.amalitech.blogging_platform.dto.*;
-import com.amalitech.blogging_platform.exceptions.RessourceNotFoundException;
+import com.amalitech.blogging_platform.model.Review;
 import com.amalitech.blogging_platform.model.Tag;
 import com.amalitech.blogging_platform.service.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Controller
@@ -23,23 +31,30 @@ public class PostGController {
   private final UserService userService;
   private final ReviewService reviewService;
   private final TagService tagService;
-  private final PostTagsService postTagsService;
   private final CommentService commentService;
+  private final FanOut fanOut;
 
   @Autowired
   public PostGController(PostService postService, UserService userService, ReviewService reviewService,
-                         TagService tagService, CommentService commentService, PostTagsService postTagsService) {
+                         TagService tagService, CommentService commentService, FanOut fanOut) {
     this.postService = postService;
     this.userService = userService;
     this.reviewService = reviewService;
     this.tagService = tagService;
-    this.postTagsService = postTagsService;
     this.commentService = commentService;
+    this.fanOut = fanOut;
   }
 
+  /**
+   * Posts are paginated by page number, unless {@code after} or {@code before} is given,
+   * in which case cursor (keyset) pagination is used and {@code page} is ignored.
+   */
   @QueryMapping
-  public PaginatedData<PostDTO.GraphQL> posts(@Argument Integer page, @Argument Integer size) {
+  public PaginatedData<PostDTO.GraphQL> posts(@Argument Integer page, @Argument Integer size, @Argument String after, @Argument String before) {
     log.debug("Getting paginated data");
+    if (after != null || before != null) {
+      return PostDTO.Converter.toGraphQL(this.postService.get(new CursorPageRequest(after, before, size)));
+    }
     return PostDTO.Converter.toGraphQL(this.postService.get(new PageRequest(page, size)));
   }
   @QueryMapping
@@ -48,7 +63,11 @@ public class PostGController {
   }
 
   @QueryMapping
-  public PaginatedData<PostDTO.GraphQL> postByAuthorId(@Argument Integer page, @Argument Integer size, @Argument Long id) {
+  public PaginatedData<PostDTO.GraphQL> postByAuthorId(@Argument Integer page, @Argument Integer size, @Argument Long id,
+                                                      @Argument String after, @Argument String before) {
+    if (after != null || before != null) {
+      return PostDTO.Converter.toGraphQL(this.postService.getByAuthorId(id, new CursorPageRequest(after, before, size)));
+    }
     return PostDTO.Converter.toGraphQL(this.postService.getByAuthorId(id, new PageRequest(page, size)));
   }
 
@@ -73,39 +92,54 @@ public class PostGController {
     return "Post successfully deleted";
   }
 
-  @SchemaMapping(typeName = "Post", field = "author")
-  public UserDTO.Out author(PostDTO.GraphQL post) {
-    try{
-    return this.userService.get(post.getAuthorId());
-    }catch (RessourceNotFoundException e){
-      return null;
-    }
+  // Field resolvers are batched: each field is resolved once for all the posts of a response,
+  // with one query. With the fan-out enabled, the loads of the different fields run concurrently
+  // within the deadline of the request, the first failing load cancelling the others
+  // (see FanOut#async and FanOutGraphQlInterceptor), otherwise one after the other.
+
+  @BatchMapping(typeName = "Post", field = "author")
+  public Mono<Map<PostDTO.GraphQL, UserDTO.Out>> author(List<PostDTO.GraphQL> posts,
+                                                        @ContextValue(name = FanOut.Group.CONTEXT_KEY, required = false) FanOut.Group group) {
+    return this.fanOut.async(group, () -> {
+      Map<Long, UserDTO.Out> authors = this.userService.getByIds(distinct(posts, PostDTO.GraphQL::getAuthorId));
+      return byPost(posts, post -> authors.get(post.getAuthorId()));
+    });
   }
 
-  @SchemaMapping(typeName = "Post", field = "reviews")
-  public List<ReviewDTO.GraphQL> review(PostDTO.GraphQL post) {
-    return this.reviewService.getByPostId(post.getId()).stream().map(ReviewDTO.Converter::toGraphQL).toList();
+  @BatchMapping(typeName = "Post", field = "reviews")
+  public Mono<Map<PostDTO.GraphQL, List<ReviewDTO.GraphQL>>> review(List<PostDTO.GraphQL> posts,
+                                                                    @ContextValue(name = FanOut.Group.CONTEXT_KEY, required = false) FanOut.Group group) {
+    return this.fanOut.async(group, () -> {
+      Map<Long, List<Review>> reviews = this.reviewService.getByPostIds(distinct(posts, PostDTO.GraphQL::getId));
+      return byPost(posts, post -> reviews.getOrDefault(post.getId(), List.of()).stream().map(ReviewDTO.Converter::toGraphQL).toList());
+    });
   }
 
-  @SchemaMapping(typeName = "Post", field = "comments")
-  public List<CommentDTO.GraphQL> comment(PostDTO.GraphQL post) {
-    return this.commentService.getByPostId(post.getId()).stream().map(CommentDTO.Converter::toGraphQL).toList();
+  @BatchMapping(typeName = "Post", field = "comments")
+  public Mono<Map<PostDTO.GraphQL, List<CommentDTO.GraphQL>>> comment(List<PostDTO.GraphQL> posts,
+                                                                      @ContextValue(name = FanOut.Group.CONTEXT_KEY, required = false) FanOut.Group group) {
+    return this.fanOut.async(group, () -> {
+      Map<Long, List<CommentDTO.Out>> comments = this.commentService.getByPostIds(distinct(posts, PostDTO.GraphQL::getId));
+      return byPost(posts, post -> comments.getOrDefault(post.getId(), List.of()).stream().map(CommentDTO.Converter::toGraphQL).toList());
+    });
   }
 
-  @SchemaMapping(typeName = "Post", field = "tags")
-  public List<Tag> tags(PostDTO.GraphQL post) {
-   return this.postTagsService.getTagsIdByPostId(post.getId())
-           .stream()
-           .map(id -> {
-             try{
-               return this.tagService.get(id);
-             }catch (Exception ignored){
-               return null; // if tag not found return null
-             }
-           })
-           .filter(Objects::nonNull) // remove null elements
-           .toList();
+  @BatchMapping(typeName = "Post", field = "tags")
+  public Mono<Map<PostDTO.GraphQL, List<Tag>>> tags(List<PostDTO.GraphQL> posts,
+                                                    @ContextValue(name = FanOut.Group.CONTEXT_KEY, required = false) FanOut.Group group) {
+    return this.fanOut.async(group, () -> {
+      Map<Long, List<Tag>> tags = this.tagService.getByPostIds(distinct(posts, PostDTO.GraphQL::getId));
+      return byPost(posts, post -> tags.getOrDefault(post.getId(), List.of()));
+    });
   }
 
+  private static <V> Map<PostDTO.GraphQL, V> byPost(List<PostDTO.GraphQL> posts, Function<PostDTO.GraphQL, V> value) {
+    Map<PostDTO.GraphQL, V> values = new HashMap<>();
+    posts.forEach(post -> values.put(post, value.apply(post)));
+    return values;
+  }
 
+  private static Set<Long> distinct(List<PostDTO.GraphQL> posts, Function<PostDTO.GraphQL, Long> id) {
+    return posts.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
 }
@@ -6,11 +6,18 @@ import com.amalitech.blogging_platform.service.PostService;
 import com.amalitech.blogging_platform.service.ReviewService;
 import com.amalitech.blogging_platform.service.UserService;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Controller
 public class ReviewGController {
   private final ReviewService reviewService;
@@ -47,12 +54,22 @@ public class ReviewGController {
     return "Review successfully deleted";
   }
 
-  @SchemaMapping(typeName = "Review", field = "user")
-  public UserDTO.Out user(ReviewDTO.GraphQL graphQL) {
-      return this.userService.get(graphQL.getUserId());
+  @BatchMapping(typeName = "Review", field = "user")
+  public List<UserDTO.Out> user(List<ReviewDTO.GraphQL> reviews) {
+    Map<Long, UserDTO.Out> users = this.userService.getByIds(distinct(reviews, ReviewDTO.GraphQL::getUserId));
+    return reviews.stream().map(review -> users.get(review.getUserId())).toList();
+  }
+
+  @BatchMapping(typeName = "Review", field = "post")
+  public List<PostDTO.GraphQL> post(List<ReviewDTO.GraphQL> reviews) {
+    Map<Long, PostDTO.Out> posts = this.postService.getByIds(distinct(reviews, ReviewDTO.GraphQL::getPostId));
+    return reviews.stream()
+            .map(review -> posts.get(review.getPostId()))
+            .map(post -> post == null ? null : PostDTO.Converter.toGraphQL(post))
+            .toList();
   }
-  @SchemaMapping(typeName = "Review", field = "post")
-  public PostDTO.GraphQL post(ReviewDTO.GraphQL graphQL) {
-    return PostDTO.Converter.toGraphQL(this.postService.get(graphQL.getPostId()));
+
+  private static Set<Long> distinct(List<ReviewDTO.GraphQL> reviews, Function<ReviewDTO.GraphQL, Long> id) {
+    return reviews.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
   }
 }
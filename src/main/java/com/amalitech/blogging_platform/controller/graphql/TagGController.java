@@ -10,6 +10,8 @@ import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 public class TagGController {
   private final TagService tagService;
@@ -23,6 +25,11 @@ public class TagGController {
   public PaginatedData<Tag> tags(@Argument Integer page, @Argument Integer size){
     return this.tagService.get(new PageRequest(page, size));
   }
+  @QueryMapping
+  public List<Tag> tagAutocomplete(@Argument String keyword, @Argument Integer limit){
+    return this.tagService.autocomplete(keyword, limit);
+  }
+
   @QueryMapping
   public Tag tagById(@Argument Long id){
     return this.tagService.get(id);
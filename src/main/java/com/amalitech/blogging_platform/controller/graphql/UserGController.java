@@ -10,6 +10,8 @@ import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 public class UserGController {
 
@@ -23,6 +25,11 @@ public class UserGController {
   public PaginatedData<UserDTO.Out> users(@Argument Integer page, @Argument Integer size) {
     return this.userService.get(new PageRequest(page, size));
   }
+  @QueryMapping
+  public List<UserDTO.Out> userAutocomplete(@Argument String keyword, @Argument Integer limit) {
+    return this.userService.autocomplete(keyword, limit);
+  }
+
   @QueryMapping
   public UserDTO.Out userById(@Argument Long id){
     return this.userService.get(id);
@@ -0,0 +1,154 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} admitting a bounded number of concurrent connection holders (semaphore bulkhead).
+ * <p>
+ * A caller takes a permit before borrowing a connection from the pool and gives it back when closing the connection.
+ * Waiting callers are served in arrival order and fail after {@code acquireTimeout}, so a burst of (virtual) threads
+ * parks cheaply here instead of contending inside the pool.
+ * </p>
+ */
+public class BulkheadDataSource implements DataSource {
+
+  private final DataSource delegate;
+  private final Semaphore permits;
+  private final int maxConcurrent;
+  private final long acquireTimeoutNanos;
+  private final LongAdder rejections = new LongAdder();
+
+  /**
+   * @param delegate       pooled data source
+   * @param maxConcurrent  maximum number of connections held at the same time
+   * @param acquireTimeout maximum time waited for a permit
+   */
+  public BulkheadDataSource(DataSource delegate, int maxConcurrent, Duration acquireTimeout) {
+    this.delegate = delegate;
+    this.maxConcurrent = maxConcurrent;
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.acquireTimeoutNanos = acquireTimeout.toNanos();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return guard(delegate.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return guard(delegate.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * @return permits, holders and waiters of the bulkhead
+   */
+  public MonitoringDTO.Bulkhead snapshot() {
+    MonitoringDTO.Bulkhead bulkhead = new MonitoringDTO.Bulkhead();
+    bulkhead.setMaxConcurrent(maxConcurrent);
+    bulkhead.setInUse(maxConcurrent - permits.availablePermits());
+    bulkhead.setWaiting(permits.getQueueLength());
+    bulkhead.setRejections(rejections.sum());
+    return bulkhead;
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        rejections.increment();
+        throw new SQLTransientConnectionException("Database bulkhead full, no permit available after "
+                + Duration.ofNanos(acquireTimeoutNanos).toMillis() + "ms (max concurrent: " + maxConcurrent + ")");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+    }
+  }
+
+  /**
+   * Wraps a connection so that closing it, once, gives the permit back.
+   */
+  private Connection guard(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                try {
+                  connection.close();
+                } finally {
+                  if (released.compareAndSet(false, true)) {
+                    permits.release();
+                  }
+                }
+                return null;
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+}
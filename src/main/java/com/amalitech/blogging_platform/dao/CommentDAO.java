@@ -2,15 +2,25 @@ package com.amalitech.blogging_platform.dao;
 
 
 import com.amalitech.blogging_platform.dao.enums.CommentColumn;
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.model.Comment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) for Comment entities.
@@ -26,6 +36,30 @@ public class CommentDAO implements DAO<Comment, Long> {
 
   private final Logger log = LoggerFactory.getLogger(CommentDAO.class);
 
+  // One SQL text per variant, so that the driver statement cache (and server-side prepare) applies to each of them
+  private static final String SELECT_BY_ID = """
+                SELECT id, post_id, user_id, body, parent_comment,
+                       created_at, updated_at, is_deleted
+                FROM comments
+                WHERE id = ? AND is_deleted = false
+            """;
+  private static final String SELECT_BY_ID_WITH_DELETED = """
+                SELECT id, post_id, user_id, body, parent_comment,
+                       created_at, updated_at, is_deleted
+                FROM comments
+                WHERE id = ?
+            """;
+  private static final Map<CommentColumn, String> SELECT_BY_COLUMN = selectByColumn(" AND is_deleted = false");
+  private static final Map<CommentColumn, String> SELECT_BY_COLUMN_WITH_DELETED = selectByColumn("");
+  private final DataSource dataSource;
+  private final TotalCountEstimator totalCounts;
+
+  @Autowired
+  public CommentDAO(DataSource dataSource, TotalCountEstimator totalCounts) {
+    this.dataSource = dataSource;
+    this.totalCounts = totalCounts;
+  }
+
   /**
    * Creates a new comment in the database and sets the generated ID and timestamps.
    *
@@ -42,7 +76,7 @@ public class CommentDAO implements DAO<Comment, Long> {
                 RETURNING id, created_at, updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT)) {
 
       ps.setLong(1, entity.getPostId());
@@ -94,19 +128,8 @@ public class CommentDAO implements DAO<Comment, Long> {
    * @throws RuntimeException if a database error occurs
    */
   public Comment get(Long id, boolean includeDeleted) {
-    String sql = """
-                SELECT id, post_id, user_id, body, parent_comment,
-                       created_at, updated_at, is_deleted
-                FROM comments
-                WHERE id = ?
-            """;
-
-    if (!includeDeleted) {
-      sql += " AND is_deleted = false";
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-         PreparedStatement ps = connection.prepareStatement(sql)) {
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(includeDeleted ? SELECT_BY_ID_WITH_DELETED : SELECT_BY_ID)) {
 
       ps.setLong(1, id);
 
@@ -134,20 +157,11 @@ public class CommentDAO implements DAO<Comment, Long> {
    * @throws RuntimeException if a database error occurs
    */
   public List<Comment> findBy(String value, CommentColumn column, boolean includeDeleted) {
-    String sql = """
-                SELECT id, post_id, user_id, body, parent_comment,
-                       created_at, updated_at, is_deleted
-                FROM comments
-                WHERE %s = ?
-            """.formatted(column.name());
-
-    if (!includeDeleted) {
-      sql += " AND is_deleted = false";
-    }
+    String sql = (includeDeleted ? SELECT_BY_COLUMN_WITH_DELETED : SELECT_BY_COLUMN).get(column);
 
     List<Comment> comments = new ArrayList<>();
 
-    try (Connection conn = DatabaseConnection.getConnection();
+    try (Connection conn = dataSource.getConnection();
          PreparedStatement ps = conn.prepareStatement(sql)) {
 
       try {
@@ -175,6 +189,94 @@ public class CommentDAO implements DAO<Comment, Long> {
     return findBy(value, column, false);
   }
 
+  /**
+   * Retrieves the non-deleted comments with the given ids.
+   * <p>
+   * Resolves a whole batch in one query ({@code id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param ids ids of the comments
+   * @return matching comments, empty if {@code ids} is empty
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<Comment> findByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    final String SELECT_BY_IDS = """
+                SELECT id, post_id, user_id, body, parent_comment,
+                       created_at, updated_at, is_deleted
+                FROM comments
+                WHERE id = ANY(?) AND is_deleted = false
+                ORDER BY id
+            """;
+
+    List<Comment> comments = new ArrayList<>();
+
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SELECT_BY_IDS)) {
+
+      ps.setArray(1, conn.createArrayOf("bigint", ids.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          comments.add(mapRowToComment(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching comments by ids {}", ids, e);
+      throw new RuntimeException("Failed to fetch comments", e);
+    }
+
+    return comments;
+  }
+
+  /**
+   * Retrieves the non-deleted comments of the given posts, oldest first.
+   * <p>
+   * Resolves a whole batch in one query ({@code post_id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param postIds ids of the posts
+   * @return matching comments, empty if {@code postIds} is empty
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<Comment> findByPostIds(Collection<Long> postIds) {
+    if (postIds.isEmpty()) {
+      return List.of();
+    }
+
+    final String SELECT_BY_POST_IDS = """
+                SELECT id, post_id, user_id, body, parent_comment,
+                       created_at, updated_at, is_deleted
+                FROM comments
+                WHERE post_id = ANY(?) AND is_deleted = false
+                ORDER BY post_id, created_at
+            """;
+
+    List<Comment> comments = new ArrayList<>();
+
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SELECT_BY_POST_IDS)) {
+
+      ps.setArray(1, conn.createArrayOf("bigint", postIds.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          comments.add(mapRowToComment(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching comments by post ids {}", postIds, e);
+      throw new RuntimeException("Failed to fetch comments", e);
+    }
+
+    return comments;
+  }
+
 
   /**
    * Retrieves a paginated list of comments, excluding soft-deleted records by default.
@@ -202,61 +304,58 @@ public class CommentDAO implements DAO<Comment, Long> {
   public PaginatedData<Comment> getAll(int page, int pageSize, boolean includeDeleted) {
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = "SELECT COUNT(*) FROM comments";
-    if (!includeDeleted) {
-      countSql += " WHERE is_deleted = false";
+    String fromWhere = includeDeleted ? "FROM comments" : "FROM comments WHERE is_deleted = false";
+    PageQuery query = new PageQuery("id, post_id, user_id, body, parent_comment, created_at, updated_at, is_deleted", fromWhere, "created_at DESC, id DESC");
+
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToComment, totalCounts);
+    } catch (SQLException e) {
+      log.error("Error fetching paginated comments (page={}, size={}, includeDeleted={})",
+              effectivePage, effectivePageSize, includeDeleted, e);
+      throw new RuntimeException("Failed to fetch comments", e);
     }
+  }
 
-    String dataSql = """
+  /**
+   * Retrieves a page of non-deleted comments using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getAll(int, int)}, the cost does not grow with the page depth.
+   *
+   * @param after    cursor to read past (older comments), may be {@code null}
+   * @param before   cursor to read up to (newer comments), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of comments
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<Comment> getAll(Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
+
+    String sql = """
                 SELECT id, post_id, user_id, body, parent_comment,
                        created_at, updated_at, is_deleted
                 FROM comments
-            """;
-
-    if (!includeDeleted) {
-      dataSql += " WHERE is_deleted = false";
-    }
-
-    dataSql += """
-                 ORDER BY created_at DESC
-                 LIMIT ? OFFSET ?
-            """;
+                WHERE is_deleted = false
+            """ + KeysetPagination.clause(after, before);
 
     List<Comment> comments = new ArrayList<>();
-    int total = 0;
-
-    try (Connection connection = DatabaseConnection.getConnection()) {
 
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-      // Fetch paginated data
-      try (PreparedStatement dataPs = connection.prepareStatement(dataSql)) {
-        dataPs.setInt(1, effectivePageSize);
-        dataPs.setInt(2, offset);
+      KeysetPagination.bind(ps, 1, after, before, effectivePageSize);
 
-        try (ResultSet rs = dataPs.executeQuery()) {
-          while (rs.next()) {
-            comments.add(mapRowToComment(rs));
-          }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          comments.add(mapRowToComment(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching paginated comments (page={}, size={}, includeDeleted={})",
-              effectivePage, effectivePageSize, includeDeleted, e);
+      log.error("Error fetching comments by cursor (size={})", effectivePageSize, e);
       throw new RuntimeException("Failed to fetch comments", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(comments, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(comments, effectivePageSize, after, before, comment -> new Cursor(comment.getCreatedAt(), comment.getId()));
   }
 
   /**
@@ -288,7 +387,7 @@ public class CommentDAO implements DAO<Comment, Long> {
                 RETURNING updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(UPDATE)) {
 
       ps.setString(1, entity.getBody());
@@ -331,7 +430,7 @@ public class CommentDAO implements DAO<Comment, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, id);
@@ -352,6 +451,44 @@ public class CommentDAO implements DAO<Comment, Long> {
     }
   }
 
+  /**
+   * Streams comments through a server-side cursor, ordered by id, without materializing them.
+   * <p>
+   * Without {@code since} every non-deleted comment is streamed (full export). With {@code since} only the comments
+   * created, updated or soft-deleted at or after it are streamed, deleted ones included (flagged {@code isDeleted}),
+   * so an incremental export also carries deletions.
+   * Rows are compared with their {@code updated_at}, set by the database at the start of the writing transaction,
+   * so the next {@code since} must be derived from the database clock handed to {@code onStart}.
+   * </p>
+   *
+   * @param since   lower bound of the last change, {@code null} for a full export
+   * @param onStart receives the start time of the read transaction, before the first comment
+   * @param sink    receives each comment, an exception thrown by it aborts the export
+   * @return number of comments streamed
+   * @throws RuntimeException if a database error occurs
+   */
+  public long streamAll(LocalDateTime since, Consumer<LocalDateTime> onStart, Consumer<? super Comment> sink) {
+    String sql = """
+            SELECT id, post_id, user_id, body, parent_comment, created_at, updated_at, deleted_at, is_deleted
+            FROM comments
+            WHERE %s
+            ORDER BY id
+            """.formatted(since == null ? "is_deleted = false" : "(updated_at >= ? OR deleted_at >= ?)");
+    List<Object> params = since == null ? List.of() : List.of(since, since);
+
+    try {
+      return JdbcStream.forEach(dataSource, sql, params, onStart, rs -> {
+        Comment comment = mapRowToComment(rs);
+        Timestamp deletedAt = rs.getTimestamp("deleted_at");
+        comment.setDeletedAt(deletedAt == null ? null : deletedAt.toLocalDateTime());
+        return comment;
+      }, sink);
+    } catch (SQLException e) {
+      log.error("Error streaming comments since {}", since, e);
+      throw new RuntimeException("Failed to export comments", e);
+    }
+  }
+
   /**
    * Maps a ResultSet row to a Comment object.
    *
@@ -359,7 +496,7 @@ public class CommentDAO implements DAO<Comment, Long> {
    * @return populated Comment instance
    * @throws SQLException if column access fails
    */
-  private Comment mapRowToComment(ResultSet rs) throws SQLException {
+  Comment mapRowToComment(ResultSet rs) throws SQLException {
     Comment comment = new Comment();
     comment.setId(rs.getLong("id"));
     comment.setPostId(rs.getLong("post_id"));
@@ -376,4 +513,23 @@ public class CommentDAO implements DAO<Comment, Long> {
     comment.setDeleted(rs.getBoolean("is_deleted"));
     return comment;
   }
-}
\ No newline at end of file
+
+  /**
+   * Builds the lookup statement of every searchable column.
+   *
+   * @param deletedFilter condition appended to the {@code WHERE} clause
+   * @return SQL text by column
+   */
+  private static Map<CommentColumn, String> selectByColumn(String deletedFilter) {
+    Map<CommentColumn, String> statements = new EnumMap<>(CommentColumn.class);
+    for (CommentColumn column : CommentColumn.values()) {
+      statements.put(column, """
+                SELECT id, post_id, user_id, body, parent_comment,
+                       created_at, updated_at, is_deleted
+                FROM comments
+                WHERE %s = ?%s
+            """.formatted(column.name(), deletedFilter));
+    }
+    return statements;
+  }
+}
@@ -1,15 +1,40 @@
 package com.amalitech.blogging_platform.dao;
 
+import com.amalitech.blogging_platform.config.BulkheadProperties;
+import com.amalitech.blogging_platform.config.ConnectionPoolProperties;
+import com.amalitech.blogging_platform.config.ReplicaProperties;
+import com.amalitech.blogging_platform.config.StatementCacheProperties;
+import com.amalitech.blogging_platform.monitoring.ConnectionPoolMetrics;
+import com.amalitech.blogging_platform.monitoring.SqlMetrics;
+import com.amalitech.blogging_platform.monitoring.StatementCacheMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
-@Component
+/**
+ * Provides the pooled {@link javax.sql.DataSource} every DAO draws its connections from.
+ * <p>
+ * Credentials are read from the {@code .env} file ({@code DB_URL}, {@code DB_USER}, {@code DB_PASSWORD}),
+ * pool sizing and timeouts from {@link ConnectionPoolProperties}.
+ * Connections returned by the pool must be closed by the caller (try-with-resources),
+ * closing them hands them back to the pool instead of tearing down the physical connection.
+ * DAOs receive the pools behind a {@link BulkheadDataSource} each, bounding the number of concurrent holders,
+ * a {@link ReplicaRoutingDataSource}, sending their reads to the read replicas ({@code DB_REPLICA_URLS}),
+ * a {@link StatementMetricsDataSource}, following the reuse and the execution time of prepared statements,
+ * and a {@link TransactionalDataSource}, sharing one connection between the DAO calls of a unit of work.
+ * </p>
+ */
+@Configuration
 public class DatabaseConnection {
 
   private static final Dotenv dotenv = Dotenv.load();
@@ -17,18 +42,138 @@ public class DatabaseConnection {
   private static final String URL = dotenv.get("DB_URL");
   private static final String USER = dotenv.get("DB_USER");
   private static final String PASSWORD = dotenv.get("DB_PASSWORD");
+  private static final String REPLICA_URLS = dotenv.get("DB_REPLICA_URLS", "");
 
   private static final Logger log = LoggerFactory.getLogger(DatabaseConnection.class);
 
-  private DatabaseConnection() {
+  /**
+   * Creates the application connection pool.
+   * <p>
+   * The pool is started lazily (no connection is opened at startup) so the application
+   * can boot even if the database is temporarily unavailable, as it did before pooling.
+   * </p>
+   *
+   * @param pool       pool tuning options
+   * @param statements driver-side prepared statement cache options
+   * @param metrics    collector of the pool metrics
+   * @return the pooled data source, closed on application shutdown
+   */
+  @Bean(destroyMethod = "close")
+  public HikariDataSource dataSource(ConnectionPoolProperties pool, StatementCacheProperties statements, ConnectionPoolMetrics metrics) {
+    HikariConfig config = poolConfig(pool.name(), URL, statements, metrics);
+    config.setMinimumIdle(pool.minimumIdle());
+    config.setMaximumPoolSize(pool.maximumPoolSize());
+    config.setIdleTimeout(pool.idleTimeout().toMillis());
+    config.setMaxLifetime(pool.maxLifetime().toMillis());
+    config.setConnectionTimeout(pool.connectionTimeout().toMillis());
+    config.setValidationTimeout(pool.validationTimeout().toMillis());
+    config.setKeepaliveTime(pool.keepaliveTime().toMillis());
+    if (pool.connectionTestQuery() != null && !pool.connectionTestQuery().isBlank()) {
+      config.setConnectionTestQuery(pool.connectionTestQuery());
+    }
+    config.setLeakDetectionThreshold(pool.leakDetectionThreshold().toMillis());
+
+    log.info("Initializing connection pool '{}' (min idle: {}, max size: {})",
+            pool.name(), pool.minimumIdle(), pool.maximumPoolSize());
+    return new HikariDataSource(config);
+  }
+
+  /**
+   * Puts each connection pool behind a semaphore bulkhead and routes the reads of the DAOs to the read replicas, if any.
+   *
+   * @param pool       connection pool of the primary
+   * @param poolProps  pool options, {@code maximum-pool-size} is the default number of permits of the primary
+   * @param statements driver-side prepared statement cache options, shared by the replica pools
+   * @param bulkhead   bulkhead options
+   * @param replicas   read replica options
+   * @param metrics    collector of the pool metrics
+   * @return the routing data source, its replica pools are closed on application shutdown
+   */
+  @Bean(destroyMethod = "close")
+  public ReplicaRoutingDataSource routingDataSource(HikariDataSource pool, ConnectionPoolProperties poolProps, StatementCacheProperties statements,
+                                                    BulkheadProperties bulkhead, ReplicaProperties replicas, ConnectionPoolMetrics metrics) {
+    DataSource guarded = guard(pool, poolProps.maximumPoolSize(), bulkhead.acquireTimeout(), bulkhead, metrics);
+    if (bulkhead.enabled()) {
+      log.info("Database bulkhead enabled (max concurrent: {}, acquire timeout: {})",
+              bulkhead.maxConcurrent() > 0 ? bulkhead.maxConcurrent() : poolProps.maximumPoolSize(), bulkhead.acquireTimeout());
+    }
+
+    List<HikariDataSource> replicaPools = new ArrayList<>();
+    if (replicas.enabled()) {
+      for (String url : REPLICA_URLS.split(",")) {
+        if (!url.isBlank()) {
+          replicaPools.add(replicaPool(poolProps, replicas, statements, metrics, url.strip(), replicaPools.size() + 1));
+        }
+      }
+    }
+    if (!replicaPools.isEmpty()) {
+      log.info("Routing DAO reads to {} replica(s) (max lag: {}, stickiness: {})", replicaPools.size(), replicas.maxLag(), replicas.stickiness());
+    }
+    Duration replicaAcquireTimeout = bulkhead.acquireTimeout().compareTo(replicas.connectionTimeout()) < 0
+            ? bulkhead.acquireTimeout() : replicas.connectionTimeout();
+    return new ReplicaRoutingDataSource(guarded, replicaPools,
+            replica -> guard(replica, replicas.maximumPoolSize(), replicaAcquireTimeout, bulkhead, metrics),
+            replicas.maxLag(), replicas.checkInterval());
+  }
+
+  /**
+   * Records the statements prepared and executed on the connections and binds them to the running unit of work:
+   * the {@link DataSource} injected into the DAOs.
+   *
+   * @param routing          data source routing between the primary and the replicas
+   * @param statementMetrics registry of the prepared statements
+   * @param sqlMetrics       registry of the statement executions
+   * @return the transaction aware data source
+   */
+  @Bean
+  @Primary
+  public TransactionalDataSource transactionalDataSource(ReplicaRoutingDataSource routing, StatementCacheMetrics statementMetrics, SqlMetrics sqlMetrics) {
+    return new TransactionalDataSource(new StatementMetricsDataSource(routing, statementMetrics, sqlMetrics));
+  }
+
+  private static HikariDataSource replicaPool(ConnectionPoolProperties pool, ReplicaProperties replicas, StatementCacheProperties statements,
+                                              ConnectionPoolMetrics metrics, String url, int index) {
+    HikariConfig config = poolConfig(pool.name() + "-replica-" + index, url, statements, metrics);
+    config.setReadOnly(true);
+    config.setMinimumIdle(Math.min(pool.minimumIdle(), replicas.maximumPoolSize()));
+    config.setMaximumPoolSize(replicas.maximumPoolSize());
+    config.setIdleTimeout(pool.idleTimeout().toMillis());
+    config.setMaxLifetime(pool.maxLifetime().toMillis());
+    config.setConnectionTimeout(replicas.connectionTimeout().toMillis());
+    config.setValidationTimeout(pool.validationTimeout().toMillis());
+    config.setLeakDetectionThreshold(pool.leakDetectionThreshold().toMillis());
+    return new HikariDataSource(config);
   }
 
-  public static Connection getConnection() throws SQLException {
-    return DriverManager.getConnection(URL, USER, PASSWORD);
+  /**
+   * Settings shared by the pool of the primary and the pools of the replicas: credentials, metrics
+   * and driver-side statement cache. Pools start lazily.
+   */
+  private static HikariConfig poolConfig(String name, String url, StatementCacheProperties statements, ConnectionPoolMetrics metrics) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName(name);
+    config.setJdbcUrl(url);
+    config.setUsername(USER);
+    config.setPassword(PASSWORD);
+    config.setMetricsTrackerFactory(metrics);
+    config.addDataSourceProperty("prepareThreshold", statements.prepareThreshold());
+    config.addDataSourceProperty("preparedStatementCacheQueries", statements.cacheQueries());
+    config.addDataSourceProperty("preparedStatementCacheSizeMiB", statements.cacheSizeMib());
+    config.setInitializationFailTimeout(-1);
+    return config;
   }
 
-  public static void testConnection()throws SQLException{
-    DatabaseConnection.getConnection();
-    log.info("Database connection test successful !");
+  /**
+   * Puts a pool behind its own bulkhead, reported with the metrics of the pool; {@code maxConcurrent} applies to each pool.
+   */
+  private static DataSource guard(HikariDataSource pool, int maximumPoolSize, Duration acquireTimeout, BulkheadProperties bulkhead,
+                                  ConnectionPoolMetrics metrics) {
+    if (!bulkhead.enabled()) {
+      return pool;
+    }
+    int permits = bulkhead.maxConcurrent() > 0 ? bulkhead.maxConcurrent() : maximumPoolSize;
+    BulkheadDataSource guarded = new BulkheadDataSource(pool, permits, acquireTimeout);
+    metrics.registerBulkhead(pool.getPoolName(), guarded::snapshot);
+    return guarded;
   }
 }
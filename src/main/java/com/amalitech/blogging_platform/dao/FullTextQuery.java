@@ -0,0 +1,94 @@
+package com.amalitech.blogging_platform.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a user search string into a PostgreSQL {@code tsquery} expression, to pass to {@code to_tsquery}.
+ * <p>
+ * Supported syntax: words are all required, {@code "quoted words"} must appear as a phrase,
+ * {@code word*} matches any word starting with {@code word}, {@code -word} excludes a word and
+ * {@code or} between two terms makes either of them enough. The last word is matched as a prefix
+ * unless followed by a space, so results follow the user while typing.
+ * Only letters and digits reach the expression, user input can never break the {@code tsquery} syntax.
+ * </p>
+ */
+final class FullTextQuery {
+
+  private static final Pattern TOKEN = Pattern.compile("(-?)\"([^\"]*)\"?|(\\S+)");
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private FullTextQuery() {
+  }
+
+  /**
+   * Builds the {@code tsquery} expression of a search string.
+   *
+   * @param search user input
+   * @return the expression, or {@code null} if the input has no searchable word
+   */
+  static String toTsQuery(String search) {
+    if (search == null || search.isBlank()) {
+      return null;
+    }
+
+    StringBuilder query = new StringBuilder();
+    boolean or = false;
+    boolean lastIsBareWord = false;
+    Matcher matcher = TOKEN.matcher(search);
+
+    while (matcher.find()) {
+      boolean negate;
+      boolean prefix = false;
+      List<String> words;
+
+      if (matcher.group(2) != null) {
+        negate = !matcher.group(1).isEmpty();
+        words = words(matcher.group(2));
+      } else {
+        String raw = matcher.group(3);
+        if (raw.equalsIgnoreCase("or")) {
+          or = query.length() > 0;
+          continue;
+        }
+        negate = raw.length() > 1 && raw.startsWith("-");
+        prefix = raw.endsWith("*");
+        words = words(negate ? raw.substring(1) : raw);
+      }
+
+      if (words.isEmpty()) {
+        continue;
+      }
+
+      String term = String.join(" <-> ", words) + (prefix ? ":*" : "");
+      if (query.length() > 0) {
+        query.append(or ? " | " : " & ");
+      }
+      query.append(negate ? "!" : "").append(words.size() > 1 ? "(" + term + ")" : term);
+
+      or = false;
+      lastIsBareWord = matcher.group(3) != null && !negate && !prefix && words.size() == 1;
+    }
+
+    if (query.length() == 0) {
+      return null;
+    }
+    if (lastIsBareWord && !Character.isWhitespace(search.charAt(search.length() - 1))) {
+      query.append(":*");
+    }
+    return query.toString();
+  }
+
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+}
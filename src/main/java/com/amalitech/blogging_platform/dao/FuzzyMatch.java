@@ -0,0 +1,37 @@
+package com.amalitech.blogging_platform.dao;
+
+/**
+ * Helpers for the trigram (pg_trgm) fuzzy lookups used by autocomplete.
+ * <p>
+ * A row matches when it is similar to the term ({@code %} operator, tolerant to typos)
+ * or contains it ({@code ILIKE '%term%'}), both answered by the trigram GIN indexes.
+ * Results are ordered by {@code similarity()}, best match first.
+ * </p>
+ */
+final class FuzzyMatch {
+
+  /** Maximum number of suggestions returned by a lookup. */
+  static final int MAX_LIMIT = 20;
+
+  private FuzzyMatch() {
+  }
+
+  /**
+   * Builds an {@code ILIKE} pattern matching values containing the term, wildcards in the term are escaped.
+   *
+   * @param term searched text
+   * @return the {@code %term%} pattern
+   */
+  static String containsPattern(String term) {
+    String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+
+  /**
+   * @param limit requested number of suggestions
+   * @return the limit bounded to {@code [1, MAX_LIMIT]}
+   */
+  static int boundedLimit(int limit) {
+    return Math.clamp(limit, 1, MAX_LIMIT);
+  }
+}
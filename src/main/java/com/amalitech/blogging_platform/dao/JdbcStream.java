@@ -0,0 +1,77 @@
+package com.amalitech.blogging_platform.dao;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of a query to a consumer through a server-side cursor, with constant memory.
+ * <p>
+ * The PostgreSQL driver only fetches rows in batches of {@link #FETCH_SIZE} (instead of buffering
+ * the whole result) when the statement runs inside a transaction, so autocommit is turned off
+ * for the duration of the read. The connection is held until the last row has been consumed.
+ * The start of the read transaction, as seen by the database, is handed out before the first row so that
+ * incremental reads can resume from it.
+ * </p>
+ */
+final class JdbcStream {
+
+  /** Rows fetched from the server per round trip. */
+  static final int FETCH_SIZE = 500;
+
+  private JdbcStream() {
+  }
+
+  /**
+   * Runs a query and hands each mapped row to {@code sink}, in the query order.
+   *
+   * @param dataSource source of the connection
+   * @param sql        query to run
+   * @param params     values of its placeholders
+   * @param onStart    receives the start time of the read transaction ({@code LOCALTIMESTAMP}), before the first row
+   * @param mapper     maps the current row
+   * @param sink       receives each row, an exception thrown by it stops the read
+   * @return number of rows streamed
+   * @throws SQLException if the query fails
+   */
+  static <T> long forEach(DataSource dataSource, String sql, List<Object> params, Consumer<LocalDateTime> onStart,
+                          OffsetPagination.RowMapper<T> mapper, Consumer<? super T> sink) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      boolean autoCommit = conn.getAutoCommit();
+      conn.setAutoCommit(false);
+      try (PreparedStatement start = conn.prepareStatement("SELECT LOCALTIMESTAMP");
+           PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+        try (ResultSet rs = start.executeQuery()) {
+          rs.next();
+          onStart.accept(rs.getTimestamp(1).toLocalDateTime());
+        }
+
+        ps.setFetchSize(FETCH_SIZE);
+        int index = 1;
+        for (Object param : params) {
+          ps.setObject(index++, param);
+        }
+
+        long count = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            sink.accept(mapper.map(rs));
+            count++;
+          }
+        }
+        conn.commit();
+        return count;
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(autoCommit);
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.amalitech.blogging_platform.dao;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the JSON columns built by {@code json_agg}/{@code json_build_object} straight into DTOs.
+ * <p>
+ * Values are bound by Jackson's streaming reader without an intermediate tree, with one reusable
+ * {@link ObjectReader} per element type. JSON keys must match the DTO property names
+ * ({@code userId}, {@code createdAt}, ...), timestamps are expected without zone ({@code col::timestamp}).
+ * </p>
+ */
+final class JsonColumns {
+
+  private static final JsonMapper MAPPER = JsonMapper.builder()
+          .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+          .build();
+
+  private static final Map<Class<?>, ObjectReader> LIST_READERS = new ConcurrentHashMap<>();
+
+  private JsonColumns() {
+  }
+
+  /**
+   * Reads a JSON array column.
+   *
+   * @param rs     result set positioned on the row
+   * @param column name of the JSON array column
+   * @param type   element type
+   * @return the elements, an empty (mutable) list if the column is {@code NULL} (e.g. {@code json_agg} of no rows)
+   * @throws SQLException if the column cannot be read or does not hold a JSON array of {@code type}
+   */
+  static <T> List<T> readList(ResultSet rs, String column, Class<T> type) throws SQLException {
+    String json = rs.getString(column);
+    if (json == null) {
+      return new ArrayList<>();
+    }
+    try {
+      return LIST_READERS.computeIfAbsent(type, MAPPER::readerForListOf).readValue(json);
+    } catch (JacksonException e) {
+      throw new SQLException("Column " + column + " is not a JSON array of " + type.getSimpleName(), e);
+    }
+  }
+}
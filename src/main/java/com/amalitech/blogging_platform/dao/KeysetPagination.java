@@ -0,0 +1,98 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * SQL and result helpers for keyset (cursor) pagination over {@code (created_at, id)}, newest first.
+ * <p>
+ * Instead of {@code OFFSET}, a page is located with a row comparison against the cursor,
+ * which an index on {@code (created_at, id)} resolves without scanning the skipped rows.
+ * One extra row is fetched to know whether another page exists in the scroll direction.
+ * </p>
+ */
+final class KeysetPagination {
+
+  private KeysetPagination() {
+  }
+
+  /**
+   * Builds the tail of a keyset query, to append after a {@code WHERE} clause.
+   *
+   * @param after  cursor to read past (older rows), may be {@code null}
+   * @param before cursor to read up to (newer rows), ignored if {@code after} is set
+   * @return the cursor condition (if any), ordering and limit, with placeholders bound by {@link #bind}
+   */
+  static String clause(Cursor after, Cursor before) {
+    if (after != null) {
+      return " AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?";
+    }
+    if (before != null) {
+      return " AND (created_at, id) > (?, ?) ORDER BY created_at ASC, id ASC LIMIT ?";
+    }
+    return " ORDER BY created_at DESC, id DESC LIMIT ?";
+  }
+
+  /**
+   * Binds the placeholders of {@link #clause(Cursor, Cursor)}.
+   *
+   * @param ps         statement to bind
+   * @param firstIndex index of the first placeholder of the clause
+   * @param after      cursor passed to {@link #clause}
+   * @param before     cursor passed to {@link #clause}
+   * @param pageSize   number of items of the page
+   * @throws SQLException if binding fails
+   */
+  static void bind(PreparedStatement ps, int firstIndex, Cursor after, Cursor before, int pageSize) throws SQLException {
+    int index = firstIndex;
+    Cursor cursor = after != null ? after : before;
+    if (cursor != null) {
+      ps.setTimestamp(index++, Timestamp.valueOf(cursor.createdAt()));
+      ps.setLong(index++, cursor.id());
+    }
+    ps.setInt(index, pageSize + 1);
+  }
+
+  /**
+   * Turns the fetched rows (up to {@code pageSize + 1}) into a page, newest first, with its cursors.
+   *
+   * @param rows     rows in query order
+   * @param pageSize number of items of the page
+   * @param after    cursor passed to {@link #clause}
+   * @param before   cursor passed to {@link #clause}
+   * @param cursorOf extracts the cursor of a row
+   * @return the page
+   */
+  static <T> CursorPaginatedData<T> page(List<T> rows, int pageSize, Cursor after, Cursor before, Function<T, Cursor> cursorOf) {
+    boolean backward = after == null && before != null;
+    boolean hasMore = rows.size() > pageSize;
+
+    List<T> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+    if (backward) {
+      Collections.reverse(items);
+    }
+
+    CursorPaginatedData<T> page = new CursorPaginatedData<>();
+    page.setItems(items);
+    page.setPageSize(pageSize);
+    page.setHasNext(backward || hasMore);
+    page.setHasPrevious(backward ? hasMore : after != null);
+    if (!items.isEmpty()) {
+      if (page.isHasNext()) {
+        page.setNextCursor(cursorOf.apply(items.get(items.size() - 1)).encode());
+      }
+      if (page.isHasPrevious()) {
+        page.setPreviousCursor(cursorOf.apply(items.get(0)).encode());
+      }
+    }
+    return page;
+  }
+}
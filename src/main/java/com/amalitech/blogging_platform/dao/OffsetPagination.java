@@ -0,0 +1,154 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.dto.PaginatedData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs page-number ({@code LIMIT/OFFSET}) queries and their total in a single statement.
+ * <p>
+ * The total is read from a {@code COUNT(*) OVER()} column computed over the filtered rows,
+ * so a page costs one round trip and the filter is evaluated once, instead of a separate
+ * {@code SELECT COUNT(*)} repeating it. When an estimated total is supplied, the window is
+ * left out and the query stops after {@code OFFSET + LIMIT} rows.
+ * </p>
+ */
+final class OffsetPagination {
+
+  private static final String TOTAL_COLUMN = "total_count";
+
+  private OffsetPagination() {
+  }
+
+  /**
+   * Parts of a page query.
+   *
+   * @param columns   select list, without the total column
+   * @param fromWhere {@code FROM} clause, joins and {@code WHERE} clause
+   * @param orderBy   ordering of the rows, without {@code ORDER BY}
+   * @param params    values of the placeholders of {@code fromWhere}
+   */
+  record PageQuery(String columns, String fromWhere, String orderBy, List<Object> params) {
+
+    PageQuery(String columns, String fromWhere, String orderBy) {
+      this(columns, fromWhere, orderBy, List.of());
+    }
+
+    private String sql(boolean withTotal) {
+      return "SELECT " + columns + (withTotal ? ", COUNT(*) OVER() AS " + TOTAL_COLUMN : "")
+              + " " + fromWhere + " ORDER BY " + orderBy + " LIMIT ? OFFSET ?";
+    }
+  }
+
+  /**
+   * Maps the current row of a result set.
+   */
+  @FunctionalInterface
+  interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+  }
+
+  /**
+   * Fetches a page and the exact number of matching rows in one statement.
+   *
+   * @param conn     connection to use
+   * @param query    page query
+   * @param page     1-based page number
+   * @param pageSize number of items per page
+   * @param mapper   row mapping
+   * @return the page, with its total
+   * @throws SQLException if the query fails
+   */
+  static <T> PaginatedData<T> fetch(Connection conn, PageQuery query, int page, int pageSize, RowMapper<T> mapper) throws SQLException {
+    int offset = (page - 1) * pageSize;
+    List<T> items = new ArrayList<>();
+    long total = 0;
+
+    try (PreparedStatement ps = conn.prepareStatement(query.sql(true))) {
+      bind(ps, query.params(), pageSize, offset);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          total = rs.getLong(TOTAL_COLUMN);
+          items.add(mapper.map(rs));
+        }
+      }
+    }
+
+    // A page past the end has no row to carry the total, read it from the first page instead
+    if (items.isEmpty() && offset > 0) {
+      try (PreparedStatement ps = conn.prepareStatement(query.sql(true))) {
+        bind(ps, query.params(), 1, 0);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            total = rs.getLong(TOTAL_COLUMN);
+          }
+        }
+      }
+    }
+
+    return toPage(items, page, pageSize, total, false);
+  }
+
+  /**
+   * Fetches a page of an unfiltered listing, with an estimated total when {@code totalCounts} provides one
+   * and the exact total otherwise.
+   *
+   * @param conn        connection to use
+   * @param query       page query, without placeholders in its {@code FROM}/{@code WHERE} clause
+   * @param page        1-based page number
+   * @param pageSize    number of items per page
+   * @param mapper      row mapping
+   * @param totalCounts source of row estimates
+   * @return the page, with its total
+   * @throws SQLException if the query fails
+   */
+  static <T> PaginatedData<T> fetch(Connection conn, PageQuery query, int page, int pageSize, RowMapper<T> mapper,
+                                    TotalCountEstimator totalCounts) throws SQLException {
+    long estimatedTotal = totalCounts.estimate(conn, query.fromWhere());
+    if (estimatedTotal == TotalCountEstimator.EXACT) {
+      return fetch(conn, query, page, pageSize, mapper);
+    }
+    return fetchEstimated(conn, query, page, pageSize, mapper, estimatedTotal);
+  }
+
+  private static <T> PaginatedData<T> fetchEstimated(Connection conn, PageQuery query, int page, int pageSize, RowMapper<T> mapper,
+                                                     long estimatedTotal) throws SQLException {
+    int offset = (page - 1) * pageSize;
+    List<T> items = new ArrayList<>();
+
+    try (PreparedStatement ps = conn.prepareStatement(query.sql(false))) {
+      bind(ps, query.params(), pageSize, offset);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          items.add(mapper.map(rs));
+        }
+      }
+    }
+
+    // The estimate can lag behind the table, never report fewer rows than were actually read
+    long total = Math.max(estimatedTotal, (long) offset + items.size());
+    return toPage(items, page, pageSize, total, true);
+  }
+
+  private static void bind(PreparedStatement ps, List<Object> params, int limit, int offset) throws SQLException {
+    int index = 1;
+    for (Object param : params) {
+      ps.setObject(index++, param);
+    }
+    ps.setInt(index++, limit);
+    ps.setInt(index, offset);
+  }
+
+  private static <T> PaginatedData<T> toPage(List<T> items, int page, int pageSize, long total, boolean estimated) {
+    int boundedTotal = (int) Math.min(total, Integer.MAX_VALUE);
+    int totalPages = (int) ((total + pageSize - 1) / pageSize);
+    PaginatedData<T> data = new PaginatedData<>(items, page, pageSize, totalPages, boundedTotal);
+    data.setTotalEstimated(estimated);
+    return data;
+  }
+}
@@ -1,19 +1,29 @@
 package com.amalitech.blogging_platform.dao;
 
 
+import com.amalitech.blogging_platform.concurrent.FanOut;
+import com.amalitech.blogging_platform.config.SearchProperties;
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
 import com.amalitech.blogging_platform.dto.CommentDTO;
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.dto.PostDTO;
+import com.amalitech.blogging_platform.model.EReview;
 import com.amalitech.blogging_platform.model.Post;
+import com.amalitech.blogging_platform.model.Review;
 import com.amalitech.blogging_platform.model.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +39,85 @@ public class PostDAO implements DAO<Post, Long> {
 
   private final Logger log = LoggerFactory.getLogger(PostDAO.class);
 
+  // One SQL text per variant, so that the driver statement cache (and server-side prepare) applies to each of them
+  private static final String SELECT_BY_ID = """
+                SELECT id, author_id, title, body, created_at, updated_at, is_deleted
+                FROM posts
+                WHERE id = ? AND is_deleted = false
+            """;
+  private static final String SELECT_BY_ID_WITH_DELETED = """
+                SELECT id, author_id, title, body, created_at, updated_at, is_deleted
+                FROM posts
+                WHERE id = ?
+            """;
+  private final DataSource dataSource;
+  private final TotalCountEstimator totalCounts;
+  private final SearchProperties searchProperties;
+  private final FanOut fanOut;
+
+  // Aggregations of the children of a detailed post, %s is the post id expression ("p.id" or a "?" parameter)
+
+  private static final String TAGS_AGG = """
+          SELECT json_agg(tg.name ORDER BY tg.name) AS tags
+          FROM post_tags pt
+          INNER JOIN tags tg ON tg.id = pt.tag_id
+          WHERE pt.post_id = %s
+            AND tg.is_deleted = false
+          """;
+
+  private static final String COMMENTS_AGG = """
+          SELECT json_agg(json_build_object(
+                     'id', cm.id,
+                     'postId', cm.post_id,
+                     'userId', cm.user_id,
+                     'authorName', COALESCE(NULLIF(cu.first_name || ' ' || cu.last_name, ' '), cu.username),
+                     'body', cm.body,
+                     'parentCommentId', cm.parent_comment,
+                     'createdAt', cm.created_at::timestamp,
+                     'updatedAt', cm.updated_at::timestamp
+                 ) ORDER BY cm.created_at, cm.id) AS comments
+          FROM comments cm
+          LEFT JOIN users cu ON cm.user_id = cu.id
+          WHERE cm.post_id = %s
+            AND cm.is_deleted = false
+          """;
+
+  private static final String REVIEWS_AGG = """
+          SELECT json_agg(json_build_object(
+                     'id', rv.id,
+                     'postId', rv.post_id,
+                     'userId', rv.user_id,
+                     'rate', rv.rate,
+                     'createdAt', rv.created_at::timestamp,
+                     'updatedAt', rv.updated_at::timestamp
+                 ) ORDER BY rv.created_at DESC, rv.id DESC) AS reviews,
+                 COUNT(*) AS review_count,
+                 AVG(array_position(ARRAY['ONE', 'TWO', 'THREE', 'FOUR', 'FIVE'], rv.rate::text)) AS average_rate,
+                 COUNT(*) FILTER (WHERE rv.rate::text = 'ONE') AS rate_one,
+                 COUNT(*) FILTER (WHERE rv.rate::text = 'TWO') AS rate_two,
+                 COUNT(*) FILTER (WHERE rv.rate::text = 'THREE') AS rate_three,
+                 COUNT(*) FILTER (WHERE rv.rate::text = 'FOUR') AS rate_four,
+                 COUNT(*) FILTER (WHERE rv.rate::text = 'FIVE') AS rate_five
+          FROM reviews rv
+          WHERE rv.post_id = %s
+            AND rv.is_deleted = false
+          """;
+
+  private static final String DETAILED_POST = """
+          SELECT
+              p.id, p.author_id, p.title, p.body,
+              p.created_at, p.updated_at, p.is_deleted,
+              COALESCE(NULLIF(u.first_name || ' ' || u.last_name, ' '), u.username) AS author_name
+          """;
+
+  @Autowired
+  public PostDAO(DataSource dataSource, TotalCountEstimator totalCounts, SearchProperties searchProperties, FanOut fanOut) {
+    this.dataSource = dataSource;
+    this.totalCounts = totalCounts;
+    this.searchProperties = searchProperties;
+    this.fanOut = fanOut;
+  }
+
   /**
    * Creates a new post in the database and sets the generated ID and timestamps on the entity.
    *
@@ -44,7 +133,7 @@ public class PostDAO implements DAO<Post, Long> {
                 RETURNING id, created_at, updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT)) {
 
       ps.setLong(1, entity.getAuthorId());
@@ -68,6 +157,122 @@ public class PostDAO implements DAO<Post, Long> {
     }
   }
 
+  /**
+   * Inserts a chunk of posts with their tags in a single transaction.
+   * <p>
+   * Missing tags are created with one {@code INSERT ... ON CONFLICT DO NOTHING} (case-insensitive names, see
+   * {@code docs/migrations/007_bulk_ingestion.sql}) and resolved with one query, the posts are inserted with a JDBC batch
+   * and linked to their tags with one {@code unnest} insert: five round trips whatever the chunk size.
+   * Either every post of the chunk is created or none is.
+   * </p>
+   *
+   * @param posts posts to insert, their id and timestamps are set on success
+   * @param tags  tag names of each post, in the order of {@code posts}
+   * @return the created posts
+   * @throws RuntimeException if a database error occurs, the chunk is then rolled back
+   */
+  public List<Post> createAll(List<Post> posts, List<? extends Collection<String>> tags) {
+    if (posts.isEmpty()) {
+      return posts;
+    }
+
+    final String UPSERT_TAGS = """
+                INSERT INTO tags (name)
+                SELECT unnest(?::text[])
+                ON CONFLICT (LOWER(name)) WHERE is_deleted = false DO NOTHING
+            """;
+    final String SELECT_TAGS = """
+                SELECT id, LOWER(name) AS name_key
+                FROM tags
+                WHERE LOWER(name) = ANY(?) AND is_deleted = false
+            """;
+    final String INSERT_POST = """
+                INSERT INTO posts (author_id, title, body)
+                VALUES (?, ?, ?)
+            """;
+    final String LINK_TAGS = """
+                INSERT INTO post_tags (post_id, tag_id)
+                SELECT * FROM unnest(?::bigint[], ?::bigint[])
+                ON CONFLICT DO NOTHING
+            """;
+
+    // First spelling wins for names differing only by case
+    Map<String, String> names = new LinkedHashMap<>();
+    tags.forEach(postTags -> postTags.forEach(name -> names.putIfAbsent(name.toLowerCase(Locale.ROOT), name)));
+
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        Map<String, Long> tagIds = new HashMap<>();
+        if (!names.isEmpty()) {
+          try (PreparedStatement ps = connection.prepareStatement(UPSERT_TAGS)) {
+            ps.setArray(1, connection.createArrayOf("text", names.values().toArray()));
+            ps.executeUpdate();
+          }
+          try (PreparedStatement ps = connection.prepareStatement(SELECT_TAGS)) {
+            ps.setArray(1, connection.createArrayOf("text", names.keySet().toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+              while (rs.next()) {
+                tagIds.put(rs.getString("name_key"), rs.getLong("id"));
+              }
+            }
+          }
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_POST, new String[]{"id", "created_at", "updated_at"})) {
+          for (Post post : posts) {
+            ps.setLong(1, post.getAuthorId());
+            ps.setString(2, post.getTitle());
+            ps.setString(3, post.getBody());
+            ps.addBatch();
+          }
+          ps.executeBatch();
+          try (ResultSet rs = ps.getGeneratedKeys()) {
+            for (Post post : posts) {
+              if (!rs.next()) {
+                throw new SQLException("Missing generated keys for the inserted posts");
+              }
+              post.setId(rs.getLong("id"));
+              post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+              post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            }
+          }
+        }
+
+        List<Long> linkPostIds = new ArrayList<>();
+        List<Long> linkTagIds = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+          for (String name : tags.get(i)) {
+            Long tagId = tagIds.get(name.toLowerCase(Locale.ROOT));
+            if (tagId != null) {
+              linkPostIds.add(posts.get(i).getId());
+              linkTagIds.add(tagId);
+            }
+          }
+        }
+        if (!linkPostIds.isEmpty()) {
+          try (PreparedStatement ps = connection.prepareStatement(LINK_TAGS)) {
+            ps.setArray(1, connection.createArrayOf("bigint", linkPostIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", linkTagIds.toArray()));
+            ps.executeUpdate();
+          }
+        }
+
+        connection.commit();
+        log.info("Bulk created {} posts ({} tags, {} post-tag links)", posts.size(), tagIds.size(), linkPostIds.size());
+        return posts;
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      log.error("Error bulk creating {} posts", posts.size(), e);
+      throw new RuntimeException("Failed to create posts", e);
+    }
+  }
+
   /**
    * Retrieves a post by its primary key (ID), excluding soft-deleted records by default.
    *
@@ -90,18 +295,8 @@ public class PostDAO implements DAO<Post, Long> {
    * @throws RuntimeException if a database error occurs
    */
   public Post get(Long id, boolean includeDeleted) {
-    String sql = """
-                SELECT id, author_id, title, body, created_at, updated_at, is_deleted
-                FROM posts
-                WHERE id = ?
-            """;
-
-    if (!includeDeleted) {
-      sql += " AND is_deleted = false";
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-         PreparedStatement ps = connection.prepareStatement(sql)) {
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(includeDeleted ? SELECT_BY_ID_WITH_DELETED : SELECT_BY_ID)) {
 
       ps.setLong(1, id);
 
@@ -119,6 +314,49 @@ public class PostDAO implements DAO<Post, Long> {
     return null;
   }
 
+  /**
+   * Retrieves the non-deleted posts with the given ids.
+   * <p>
+   * Resolves a whole batch in one query ({@code id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param ids ids of the posts
+   * @return matching posts, empty if {@code ids} is empty
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<Post> findByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    final String SELECT_BY_IDS = """
+                SELECT id, author_id, title, body, created_at, updated_at, is_deleted
+                FROM posts
+                WHERE id = ANY(?) AND is_deleted = false
+                ORDER BY id
+            """;
+
+    List<Post> posts = new ArrayList<>();
+
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(SELECT_BY_IDS)) {
+
+      ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          posts.add(mapRowToPost(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching posts by ids {}", ids, e);
+      throw new RuntimeException("Failed to fetch posts", e);
+    }
+
+    return posts;
+  }
+
 
   /**
    * Retrieves a paginated list of posts, excluding soft-deleted records by default.
@@ -146,60 +384,57 @@ public class PostDAO implements DAO<Post, Long> {
   public PaginatedData<Post> getAll(int page, int pageSize, boolean includeDeleted) {
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = "SELECT COUNT(*) FROM posts";
-    if (!includeDeleted) {
-      countSql += " WHERE is_deleted = false";
+    String fromWhere = includeDeleted ? "FROM posts" : "FROM posts WHERE is_deleted = false";
+    PageQuery query = new PageQuery("id, author_id, title, body, created_at, updated_at, is_deleted", fromWhere, "created_at DESC, id DESC");
+
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToPost, totalCounts);
+    } catch (SQLException e) {
+      log.error("Error fetching paginated posts (page={}, size={}, includeDeleted={})",
+              effectivePage, effectivePageSize, includeDeleted, e);
+      throw new RuntimeException("Failed to fetch posts", e);
     }
+  }
 
-    String dataSql = """
+  /**
+   * Retrieves a page of non-deleted posts using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getAll(int, int)}, the cost does not grow with the page depth.
+   *
+   * @param after    cursor to read past (older posts), may be {@code null}
+   * @param before   cursor to read up to (newer posts), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of posts
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<Post> getAll(Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
+
+    String sql = """
                 SELECT id, author_id, title, body, created_at, updated_at, is_deleted
                 FROM posts
-            """;
-
-    if (!includeDeleted) {
-      dataSql += " WHERE is_deleted = false";
-    }
-
-    dataSql += """
-                 ORDER BY created_at DESC
-                 LIMIT ? OFFSET ?
-            """;
+                WHERE is_deleted = false
+            """ + KeysetPagination.clause(after, before);
 
     List<Post> posts = new ArrayList<>();
-    int total = 0;
 
-    try (Connection connection = DatabaseConnection.getConnection()) {
-
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-      // Fetch paginated data
-      try (PreparedStatement ps = connection.prepareStatement(dataSql)) {
-        ps.setInt(1, effectivePageSize);
-        ps.setInt(2, offset);
+      KeysetPagination.bind(ps, 1, after, before, effectivePageSize);
 
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            posts.add(mapRowToPost(rs));
-          }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          posts.add(mapRowToPost(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching paginated posts (page={}, size={}, includeDeleted={})",
-              effectivePage, effectivePageSize, includeDeleted, e);
+      log.error("Error fetching posts by cursor (size={})", effectivePageSize, e);
       throw new RuntimeException("Failed to fetch posts", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(posts, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(posts, effectivePageSize, after, before, post -> new Cursor(post.getCreatedAt(), post.getId()));
   }
 
   /**
@@ -213,55 +448,61 @@ public class PostDAO implements DAO<Post, Long> {
 
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = """
-                SELECT COUNT(*) FROM posts WHERE author_id = ? AND is_deleted = false
-            """;
+    PageQuery query = new PageQuery(
+            "id, author_id, title, body, created_at, updated_at, is_deleted",
+            "FROM posts WHERE author_id = ? AND is_deleted = false",
+            "created_at DESC, id DESC",
+            List.of(authorId));
+
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToPost);
+    } catch (SQLException e) {
+      log.error("Error fetching by author with id: {}", authorId, e);
+      throw new RuntimeException("Failed to fetch posts", e);
+    }
+  }
 
-    String dataSql = """
+  /**
+   * Retrieves a page of non-deleted posts of an author using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getByAuthorId(Long, int, int)}, the cost does not grow with the page depth.
+   *
+   * @param authorId id of the author
+   * @param after    cursor to read past (older posts), may be {@code null}
+   * @param before   cursor to read up to (newer posts), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of posts
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<Post> getByAuthorId(Long authorId, Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
+
+    String sql = """
                 SELECT id, author_id, title, body, created_at, updated_at, is_deleted
                 FROM posts
-                WHERE author_id = ? AND is_deleted = false
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
-            """;
+                WHERE is_deleted = false AND author_id = ?
+            """ + KeysetPagination.clause(after, before);
 
     List<Post> posts = new ArrayList<>();
-    int total = 0;
-
-    try (Connection connection = DatabaseConnection.getConnection()) {
 
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql)) {
-        countPs.setLong(1, authorId);
-        try (ResultSet countRs = countPs.executeQuery()) {
-          if (countRs.next()) {
-            total = countRs.getInt(1);
-          }
-        }
-      }
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-      // Fetch paginated data
-      try (PreparedStatement ps = connection.prepareStatement(dataSql)) {
-        ps.setLong(1, authorId);
-        ps.setInt(2, effectivePageSize);
-        ps.setInt(3, offset);
+      ps.setLong(1, authorId);
+      KeysetPagination.bind(ps, 2, after, before, effectivePageSize);
 
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            posts.add(mapRowToPost(rs));
-          }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          posts.add(mapRowToPost(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching by author with id: {}", authorId, e);
+      log.error("Error fetching posts by cursor for author with id: {}", authorId, e);
       throw new RuntimeException("Failed to fetch posts", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(posts, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(posts, effectivePageSize, after, before, post -> new Cursor(post.getCreatedAt(), post.getId()));
   }
 
   /**
@@ -294,7 +535,7 @@ public class PostDAO implements DAO<Post, Long> {
                 RETURNING updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(UPDATE)) {
 
       ps.setString(1, entity.getTitle());
@@ -335,7 +576,7 @@ public class PostDAO implements DAO<Post, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, id);
@@ -357,20 +598,81 @@ public class PostDAO implements DAO<Post, Long> {
   }
 
 
-  public PostDTO.Detailed getPostDTO(Long postId, boolean includeDeleted) {
+  /**
+   * Streams posts through a server-side cursor, ordered by id, without materializing them.
+   * <p>
+   * Without {@code since} every non-deleted post is streamed (full export). With {@code since} only the posts
+   * created, updated or soft-deleted at or after it are streamed, deleted ones included (flagged {@code isDeleted}),
+   * so an incremental export also carries deletions.
+   * Rows are compared with their {@code updated_at}, set by the database at the start of the writing transaction,
+   * so the next {@code since} must be derived from the database clock handed to {@code onStart}.
+   * </p>
+   *
+   * @param since   lower bound of the last change, {@code null} for a full export
+   * @param onStart receives the start time of the read transaction, before the first post
+   * @param sink    receives each post, an exception thrown by it aborts the export
+   * @return number of posts streamed
+   * @throws RuntimeException if a database error occurs
+   */
+  public long streamAll(LocalDateTime since, Consumer<LocalDateTime> onStart, Consumer<? super Post> sink) {
     String sql = """
-            SELECT 
-                p.id, p.author_id, p.title, p.body,
-                p.created_at, p.updated_at, p.is_deleted,
-                u.username AS author_username,
-                COALESCE(NULLIF(u.first_name || ' ' || u.last_name, ' '), u.username) AS author_name
+            SELECT id, author_id, title, body, created_at, updated_at, deleted_at, is_deleted
+            FROM posts
+            WHERE %s
+            ORDER BY id
+            """.formatted(since == null ? "is_deleted = false" : "(updated_at >= ? OR deleted_at >= ?)");
+    List<Object> params = since == null ? List.of() : List.of(since, since);
+
+    try {
+      return JdbcStream.forEach(dataSource, sql, params, onStart, rs -> {
+        Post post = mapRowToPost(rs);
+        Timestamp deletedAt = rs.getTimestamp("deleted_at");
+        post.setDeletedAt(deletedAt == null ? null : deletedAt.toLocalDateTime());
+        return post;
+      }, sink);
+    } catch (SQLException e) {
+      log.error("Error streaming posts since {}", since, e);
+      throw new RuntimeException("Failed to export posts", e);
+    }
+  }
+
+  /**
+   * Loads a detailed post: the post and author name, its tags, its comments (with commenter names)
+   * and its reviews with their aggregates.
+   * <p>
+   * By default the whole tree is read by a single statement. When the fan-out is enabled
+   * ({@code blogging.fan-out.enabled}), the four parts are read concurrently instead, each on its own connection.
+   * </p>
+   *
+   * @param postId         id of the post
+   * @param includeDeleted if {@code true}, returns the post even if it is soft-deleted
+   * @return the detailed post, or {@code null} if not found
+   * @throws RuntimeException if a database error occurs
+   * @throws com.amalitech.blogging_platform.exceptions.DeadlineExceededException if the concurrent parts did not complete in time
+   */
+  public PostDTO.Detailed getPostDTO(Long postId, boolean includeDeleted) {
+    return fanOut.isEnabled() ? getPostDTOConcurrently(postId, includeDeleted) : getPostDTOInSingleQuery(postId, includeDeleted);
+  }
+
+  /**
+   * Tags, comments and reviews are aggregated to JSON arrays by {@code LATERAL} subqueries ({@code json_agg}),
+   * so the whole tree comes back in one row instead of one query per child collection.
+   */
+  private PostDTO.Detailed getPostDTOInSingleQuery(Long postId, boolean includeDeleted) {
+    String sql = DETAILED_POST + """
+                , t.tags, c.comments,
+                r.reviews, r.review_count, r.average_rate,
+                r.rate_one, r.rate_two, r.rate_three, r.rate_four, r.rate_five
             FROM posts p
             LEFT JOIN users u ON p.author_id = u.id
+            CROSS JOIN LATERAL (%s) t
+            CROSS JOIN LATERAL (%s) c
+            CROSS JOIN LATERAL (%s) r
             WHERE p.id = ?
               AND (p.is_deleted = false OR ? = true)
-            """;
+            """.formatted(TAGS_AGG.formatted("p.id"), COMMENTS_AGG.formatted("p.id"), REVIEWS_AGG.formatted("p.id"));
 
-    try (Connection conn = DatabaseConnection.getConnection();
+    try (Connection conn = dataSource.getConnection();
          PreparedStatement ps = conn.prepareStatement(sql)) {
 
       ps.setLong(1, postId);
@@ -381,29 +683,11 @@ public class PostDAO implements DAO<Post, Long> {
           return null;
         }
 
-        Post post = mapRowToPost(rs);
-        post.setDeleted(rs.getBoolean("is_deleted"));
-
-        PostDTO.Detailed dto = new PostDTO.Detailed();
-        dto.setId(post.getId());
-        dto.setTitle(post.getTitle());
-        dto.setBody(post.getBody());
-        dto.setCreatedAt(post.getCreatedAt());
-        dto.setUpdatedAt(post.getUpdatedAt());
-        dto.setDeletedAt(null); // Assuming deletedAt not fetched
-        dto.setDeleted(post.isDeleted());
-        dto.setAuthorName(rs.getString("author_name"));
-        dto.setAuthorId(rs.getLong("author_id"));
-        this.log.debug("author_id: {}", rs.getString("author_id"));
-
-        // Load supporting data
-        List<Tag> tagsList = getTagsForPost(postId);
-        Set<String> tags = tagsList.stream().map(Tag::getName).collect(Collectors.toSet());
-        dto.setTags(tags);
-        dto.setReviews(new ArrayList<>());
-        List<CommentDTO.Out> comments = getCommentDTOsForPost(postId);
-        dto.setComments(comments);
-
+        PostDTO.Detailed dto = mapRowToDetailed(rs);
+        dto.setTags(new LinkedHashSet<>(JsonColumns.readList(rs, "tags", String.class)));
+        dto.setComments(JsonColumns.readList(rs, "comments", CommentDTO.Out.class));
+        dto.setReviews(JsonColumns.readList(rs, "reviews", Review.class));
+        dto.setReviewSummary(mapRowToReviewSummary(rs));
         return dto;
       }
 
@@ -413,10 +697,105 @@ public class PostDAO implements DAO<Post, Long> {
     }
   }
 
+  /**
+   * The post, its tags, comments and reviews are independent reads, they are forked on virtual threads
+   * and joined under the fan-out deadline; the first failure cancels the others.
+   */
+  private PostDTO.Detailed getPostDTOConcurrently(Long postId, boolean includeDeleted) {
+    try (FanOut.Scope scope = fanOut.open()) {
+      Supplier<PostDTO.Detailed> post = scope.fork(() -> queryDetailed(scope, DETAILED_POST + """
+              FROM posts p
+              LEFT JOIN users u ON p.author_id = u.id
+              WHERE p.id = ?
+                AND (p.is_deleted = false OR ? = true)
+              """, ps -> {
+        ps.setLong(1, postId);
+        ps.setBoolean(2, includeDeleted);
+      }, this::mapRowToDetailed));
+      Supplier<List<String>> tags = scope.fork(() -> queryDetailed(scope, TAGS_AGG.formatted("?"), ps -> ps.setLong(1, postId),
+              rs -> JsonColumns.readList(rs, "tags", String.class)));
+      Supplier<List<CommentDTO.Out>> comments = scope.fork(() -> queryDetailed(scope, COMMENTS_AGG.formatted("?"), ps -> ps.setLong(1, postId),
+              rs -> JsonColumns.readList(rs, "comments", CommentDTO.Out.class)));
+      Supplier<PostDTO.Detailed> reviews = scope.fork(() -> queryDetailed(scope, REVIEWS_AGG.formatted("?"), ps -> ps.setLong(1, postId), rs -> {
+        PostDTO.Detailed holder = new PostDTO.Detailed();
+        holder.setReviews(JsonColumns.readList(rs, "reviews", Review.class));
+        holder.setReviewSummary(mapRowToReviewSummary(rs));
+        return holder;
+      }));
+
+      scope.join();
+
+      PostDTO.Detailed dto = post.get();
+      if (dto == null) {
+        return null;
+      }
+      dto.setTags(new LinkedHashSet<>(tags.get()));
+      dto.setComments(comments.get());
+      dto.setReviews(reviews.get().getReviews());
+      dto.setReviewSummary(reviews.get().getReviewSummary());
+      return dto;
+    }
+  }
 
+  private interface Binder {
+    void bind(PreparedStatement ps) throws SQLException;
+  }
 
+  /**
+   * Runs one part of a detailed post on its own connection, bounded by the time left in the scope.
+   *
+   * @return the mapped first row, {@code null} if the query returned no row
+   */
+  private <T> T queryDetailed(FanOut.Scope scope, String sql, Binder binder, OffsetPagination.RowMapper<T> mapper) {
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(sql)) {
+
+      ps.setQueryTimeout(scope.queryTimeoutSeconds());
+      binder.bind(ps);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? mapper.map(rs) : null;
+      }
+
+    } catch (SQLException e) {
+      log.error("Failed to load part of PostDTO", e);
+      throw new RuntimeException("Database error fetching single post", e);
+    }
+  }
 
+  private PostDTO.Detailed mapRowToDetailed(ResultSet rs) throws SQLException {
+    Post post = mapRowToPost(rs);
+
+    PostDTO.Detailed dto = new PostDTO.Detailed();
+    dto.setId(post.getId());
+    dto.setTitle(post.getTitle());
+    dto.setBody(post.getBody());
+    dto.setCreatedAt(post.getCreatedAt());
+    dto.setUpdatedAt(post.getUpdatedAt());
+    dto.setDeletedAt(null); // Assuming deletedAt not fetched
+    dto.setDeleted(post.isDeleted());
+    dto.setAuthorName(rs.getString("author_name"));
+    dto.setAuthorId(post.getAuthorId());
+    return dto;
+  }
 
+  /**
+   * Retrieves a page of detailed posts (with author name and tags), optionally filtered.
+   * <p>
+   * In {@link SearchProperties.PostSearchMode#FULL_TEXT} mode the keyword is parsed by {@link FullTextQuery}
+   * and matched against the indexed {@code search_vector} column, results are ordered by relevance
+   * ({@code ts_rank}, title &gt; body &gt; author) then by date. In {@code LIKE} mode it is a substring match,
+   * ordered by date.
+   * </p>
+   *
+   * @param page           1-based page number
+   * @param pageSize       number of records per page, capped to 50
+   * @param search         keyword, ignored if blank
+   * @param tagId          only posts having this tag, ignored if {@code null}
+   * @param authorId       only posts of this author, ignored if {@code null}
+   * @param includeDeleted if {@code true}, includes soft-deleted posts
+   * @return paginated data of detailed posts
+   * @throws RuntimeException if a database error occurs
+   */
   public PaginatedData<PostDTO.Detailed> getPostDTOs(
           int page,
           int pageSize,
@@ -427,7 +806,6 @@ public class PostDAO implements DAO<Post, Long> {
 
     int effectivePage = Math.max(1, page);
     int effectiveSize = Math.max(1, Math.min(pageSize, 50));
-    int offset = (effectivePage - 1) * effectiveSize;
 
     StringBuilder baseSql = new StringBuilder("""
             FROM posts p
@@ -435,6 +813,16 @@ public class PostDAO implements DAO<Post, Long> {
             """);
 
     List<Object> params = new ArrayList<>();
+    String orderBy = "p.created_at DESC, p.id DESC";
+
+    String tsQuery = searchProperties.postMode() == SearchProperties.PostSearchMode.FULL_TEXT
+            ? FullTextQuery.toTsQuery(search) : null;
+    if (tsQuery != null) {
+      baseSql.append("CROSS JOIN to_tsquery('english', ?) AS q\n");
+      params.add(tsQuery);
+      orderBy = "ts_rank(p.search_vector, q) DESC, " + orderBy;
+    }
+
     String and = " WHERE ";
 
     if (!includeDeleted) {
@@ -456,7 +844,11 @@ public class PostDAO implements DAO<Post, Long> {
       and = "AND ";
     }
 
-    if (search != null && !search.trim().isEmpty()) {
+    if (tsQuery != null) {
+      baseSql.append(and).append("p.search_vector @@ q ");
+      and = "AND ";
+    } else if (searchProperties.postMode() == SearchProperties.PostSearchMode.LIKE
+            && search != null && !search.trim().isEmpty()) {
       String term = "%" + search.trim().toLowerCase() + "%";
       baseSql.append(and).append("""
                 (LOWER(p.title) LIKE ? OR LOWER(p.body) LIKE ? OR LOWER(u.username) LIKE ? OR LOWER(u.first_name) LIKE ? OR LOWER(u.last_name) LIKE ?)
@@ -469,79 +861,48 @@ public class PostDAO implements DAO<Post, Long> {
       and = "AND ";
     }
 
-    String countSql = "SELECT COUNT(DISTINCT p.id) " + baseSql.toString();
-
-    String dataSql = """
-            SELECT DISTINCT
-                p.id, p.author_id, p.title, p.body,
-                p.created_at, p.updated_at, p.is_deleted,
-                u.username AS author_username,
-                COALESCE(NULLIF(u.first_name || ' ' || u.last_name, ' '), u.username) AS author_name
-            """ + baseSql.toString() + """
-             ORDER BY p.created_at DESC
-             LIMIT ? OFFSET ?
-            """;
-    params.add(effectiveSize);
-    params.add(offset);
-
-    List<PostDTO.Detailed> dtos = new ArrayList<>();
-    int total = 0;
+    // The users join is one-to-one and tags are filtered with EXISTS, so rows are already distinct
+    // and the total can be read from COUNT(*) OVER() in the same statement as the page
+    PageQuery query = new PageQuery("""
+            p.id, p.author_id, p.title, p.body,
+            p.created_at, p.updated_at, p.is_deleted,
+            u.username AS author_username,
+            COALESCE(NULLIF(u.first_name || ' ' || u.last_name, ' '), u.username) AS author_name
+            """, baseSql.toString(), orderBy, params);
 
-    try (Connection conn = DatabaseConnection.getConnection()) {
+    try (Connection conn = dataSource.getConnection()) {
 
-      // Fetch total count
-      try (PreparedStatement countPs = conn.prepareStatement(countSql)) {
-        for (int i = 0; i < params.size() - 2; i++) { // Exclude LIMIT and OFFSET
-          countPs.setObject(i + 1, params.get(i));
-        }
-        try (ResultSet countRs = countPs.executeQuery()) {
-          if (countRs.next()) {
-            total = countRs.getInt(1);
-          }
-        }
-      }
+      PaginatedData<PostDTO.Detailed> result = OffsetPagination.fetch(conn, query, effectivePage, effectiveSize, rs -> {
+        Post post = mapRowToPost(rs);
+        post.setDeleted(rs.getBoolean("is_deleted"));
 
-      // Fetch data
-      try (PreparedStatement ps = conn.prepareStatement(dataSql)) {
+        PostDTO.Detailed dto = new PostDTO.Detailed();
+        dto.setId(post.getId());
+        dto.setTitle(post.getTitle());
+        dto.setBody(post.getBody());
+        dto.setCreatedAt(post.getCreatedAt());
+        dto.setUpdatedAt(post.getUpdatedAt());
+        dto.setDeletedAt(null); // Assuming deletedAt not fetched
+        dto.setDeleted(post.isDeleted());
+        dto.setAuthorName(rs.getString("author_name"));
 
-        for (int i = 0; i < params.size(); i++) {
-          ps.setObject(i + 1, params.get(i));
-        }
+        // Only tags — no comments on list view
+        dto.setComments(new ArrayList<>());
+        dto.setReviews(new ArrayList<>());
+        return dto;
+      });
 
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            Post post = mapRowToPost(rs);
-            post.setDeleted(rs.getBoolean("is_deleted"));
-
-            PostDTO.Detailed dto = new PostDTO.Detailed();
-            dto.setId(post.getId());
-            dto.setTitle(post.getTitle());
-            dto.setBody(post.getBody());
-            dto.setCreatedAt(post.getCreatedAt());
-            dto.setUpdatedAt(post.getUpdatedAt());
-            dto.setDeletedAt(null); // Assuming deletedAt not fetched
-            dto.setDeleted(post.isDeleted());
-            dto.setAuthorName(rs.getString("author_name"));
-
-            // Only tags — no comments on list view
-            List<Tag> tagsList = getTagsForPost(post.getId());
-            Set<String> tags = tagsList.stream().map(Tag::getName).collect(Collectors.toSet());
-            dto.setTags(tags);
-            dto.setComments(new ArrayList<>());
-            dto.setReviews(new ArrayList<>());
-
-            dtos.add(dto);
-          }
-        }
-      }
+      // Fetch tags of the whole page in one round trip
+      List<PostDTO.Detailed> dtos = result.getItems();
+      List<Long> postIds = dtos.stream().map(PostDTO.Detailed::getId).toList();
+      Map<Long, List<Tag>> tagsByPost = getTagsForPosts(conn, postIds);
+      dtos.forEach(dto -> dto.setTags(toTagNames(tagsByPost.getOrDefault(dto.getId(), List.of()))));
 
+      return result;
     } catch (SQLException e) {
       log.error("Failed to load paginated PostDTOs", e);
       throw new RuntimeException("Error fetching post list", e);
     }
-
-    int totalPages = (total + effectiveSize - 1) / effectiveSize;
-    return new PaginatedData<>(dtos, effectivePage, effectiveSize, totalPages, total);
   }
 
 
@@ -554,7 +915,7 @@ public class PostDAO implements DAO<Post, Long> {
    * @return populated Post instance
    * @throws SQLException if column access fails
    */
-  private Post mapRowToPost(ResultSet rs) throws SQLException {
+  Post mapRowToPost(ResultSet rs) throws SQLException {
     Post post = new Post();
     post.setId(rs.getLong("id"));
     post.setAuthorId(rs.getLong("author_id"));
@@ -566,80 +927,65 @@ public class PostDAO implements DAO<Post, Long> {
     return post;
   }
 
-  private List<Tag> getTagsForPost(Long postId) {
+  /**
+   * Loads the non-deleted tags of several posts in a single query and groups them by post.
+   * Runs on the caller's connection to avoid borrowing a second one from the pool.
+   *
+   * @param conn    open connection to run the query on
+   * @param postIds ids of the posts to load tags for
+   * @return tags of each post ordered by name, posts without tags are absent from the map
+   */
+  private Map<Long, List<Tag>> getTagsForPosts(Connection conn, Collection<Long> postIds) {
+    if (postIds.isEmpty()) {
+      return Map.of();
+    }
+
     String sql = """
-            SELECT t.id, t.name
+            SELECT pt.post_id, t.id, t.name
             FROM tags t
             INNER JOIN post_tags pt ON t.id = pt.tag_id
-            WHERE pt.post_id = ?
+            WHERE pt.post_id = ANY(?)
               AND t.is_deleted = false
             ORDER BY t.name
             """;
 
-    List<Tag> tags = new ArrayList<>();
+    Map<Long, List<Tag>> tagsByPost = new HashMap<>();
 
-    try (Connection conn = DatabaseConnection.getConnection();
-         PreparedStatement ps = conn.prepareStatement(sql)) {
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
 
-      ps.setLong(1, postId);
+      ps.setArray(1, conn.createArrayOf("bigint", postIds.toArray()));
       try (ResultSet rs = ps.executeQuery()) {
         while (rs.next()) {
           Tag tag = new Tag();
           tag.setId(rs.getLong("id"));
           tag.setName(rs.getString("name"));
-          tags.add(tag);
+          tagsByPost.computeIfAbsent(rs.getLong("post_id"), id -> new ArrayList<>()).add(tag);
         }
       }
     } catch (SQLException e) {
-      log.warn("Could not load tags for post {}", postId, e);
+      log.warn("Could not load tags for posts {}", postIds, e);
     }
-    return tags;
+    return tagsByPost;
   }
 
-  private List<CommentDTO.Out> getCommentDTOsForPost(Long postId) {
-    String sql = """
-            SELECT 
-                c.id, c.user_id, c.body, c.parent_comment, c.created_at,
-                u.username AS commenter_username,
-                u.first_name || ' ' || u.last_name AS commenter_fullname
-            FROM comments c
-            LEFT JOIN users u ON c.user_id = u.id
-            WHERE c.post_id = ?
-              AND c.is_deleted = false
-            ORDER BY c.created_at ASC
-            """;
-
-    List<CommentDTO.Out> comments = new ArrayList<>();
-
-    try (Connection conn = DatabaseConnection.getConnection();
-         PreparedStatement ps = conn.prepareStatement(sql)) {
-
-      ps.setLong(1, postId);
-      try (ResultSet rs = ps.executeQuery()) {
-        while (rs.next()) {
-          CommentDTO.Out dto = new CommentDTO.Out();
-          dto.setId(rs.getLong("id"));
-          dto.setPostId(postId);
-          dto.setUserId(rs.getLong("user_id"));
-          dto.setBody(rs.getString("body"));
-          Long parentId = rs.getLong("parent_comment");
-          if (!rs.wasNull()) {
-            dto.setParentCommentId(parentId);
-          }
-          dto.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-          dto.setUpdatedAt(null); // Not fetched
-          dto.setDeletedAt(null); // Not fetched
-          dto.setDeleted(false);
-          // Commenter name not set as no field in DTO
-          comments.add(dto);
-        }
-      }
-
-    } catch (SQLException e) {
-      log.error("Failed to load comments for post {}", postId, e);
-    }
+  private Set<String> toTagNames(List<Tag> tags) {
+    return tags.stream().map(Tag::getName).collect(Collectors.toCollection(LinkedHashSet::new));
+  }
 
-    return comments;
+  private PostDTO.ReviewSummary mapRowToReviewSummary(ResultSet rs) throws SQLException {
+    PostDTO.ReviewSummary summary = new PostDTO.ReviewSummary();
+    summary.setCount(rs.getLong("review_count"));
+    double average = rs.getDouble("average_rate");
+    summary.setAverage(rs.wasNull() ? null : Math.round(average * 100) / 100.0);
+
+    Map<EReview, Long> distribution = new EnumMap<>(EReview.class);
+    distribution.put(EReview.ONE, rs.getLong("rate_one"));
+    distribution.put(EReview.TWO, rs.getLong("rate_two"));
+    distribution.put(EReview.THREE, rs.getLong("rate_three"));
+    distribution.put(EReview.FOUR, rs.getLong("rate_four"));
+    distribution.put(EReview.FIVE, rs.getLong("rate_five"));
+    summary.setDistribution(distribution);
+    return summary;
   }
 
 
@@ -1,11 +1,14 @@
 package com.amalitech.blogging_platform.dao;
 
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.model.PostTags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +23,12 @@ import java.util.List;
 public class PostTagsDAO implements DAO<PostTags, Long> {
 
   private final Logger log = LoggerFactory.getLogger(PostTagsDAO.class);
+  private final DataSource dataSource;
+
+  @Autowired
+  public PostTagsDAO(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
 
   /**
    * Creates a new post-tag association.
@@ -38,7 +47,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
                 ON CONFLICT DO NOTHING
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT)) {
 
       ps.setLong(1, entity.getPostId());
@@ -91,50 +100,16 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
 
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
-
-    String countSql = "SELECT COUNT(*) FROM post_tags";
-
-    final String SELECT_ALL_PAGED = """
-                SELECT post_id, tag_id
-                FROM post_tags
-                ORDER BY post_id, tag_id
-                LIMIT ? OFFSET ?
-            """;
 
-    List<PostTags> associations = new ArrayList<>();
-    int total = 0;
-
-    try (Connection connection = DatabaseConnection.getConnection()) {
-
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
-
-      // Fetch paginated data
-      try (PreparedStatement ps = connection.prepareStatement(SELECT_ALL_PAGED)) {
-        ps.setInt(1, effectivePageSize);
-        ps.setInt(2, offset);
-
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            associations.add(mapRowToPostTags(rs));
-          }
-        }
-      }
+    PageQuery query = new PageQuery("post_id, tag_id", "FROM post_tags", "post_id, tag_id");
 
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToPostTags);
     } catch (SQLException e) {
       log.error("Error fetching paginated post-tag associations (page={}, size={})",
               effectivePage, effectivePageSize, e);
       throw new RuntimeException("Failed to fetch post-tag associations", e);
     }
-
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(associations, effectivePage, effectivePageSize, totalPages, total);
   }
 
   /**
@@ -185,7 +160,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
                 WHERE post_id = ?
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, postId);
@@ -219,7 +194,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
                 WHERE post_id = ? AND tag_id = ?
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, postId);
@@ -258,7 +233,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
 
     List<Long> tagIds = new ArrayList<>();
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST)) {
 
       ps.setLong(1, postId);
@@ -294,7 +269,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
 
     List<Long> postIds = new ArrayList<>();
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_TAG)) {
 
       ps.setLong(1, tagId);
@@ -330,7 +305,7 @@ public class PostTagsDAO implements DAO<PostTags, Long> {
 
     List<Long> tagIds = new ArrayList<>();
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST)) {
 
       ps.setLong(1, limit);
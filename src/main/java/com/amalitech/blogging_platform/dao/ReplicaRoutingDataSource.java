@@ -0,0 +1,275 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link DataSource} sending the reads of the DAOs to read replicas and everything else to the primary.
+ * <p>
+ * A thread declares its next statements as reads with {@link #enter(boolean)} (done by the replica routing aspect for
+ * the DAO read methods). Reads are spread round-robin over the available replicas; a replica that fails to give a
+ * connection (pool or bulkhead timeout included), or whose replication lag exceeds {@code maxLag} at the last check,
+ * is skipped, and the primary serves the read when no replica is available. Statements of a unit of work, and reads wrapped in {@link #onPrimary(Supplier)},
+ * always go to the primary.
+ * </p>
+ */
+public class ReplicaRoutingDataSource implements DataSource, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  private static final ThreadLocal<Boolean> READ = new ThreadLocal<>();
+  private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+  private static final String LAG_QUERY = """
+                SELECT CASE
+                         WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                         ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                       END AS lag_seconds
+            """;
+
+  /**
+   * Pool and health of one replica.
+   */
+  private static final class Replica {
+    private final HikariDataSource pool;
+    private final DataSource dataSource;
+    private volatile boolean available = true;
+    private volatile double lagSeconds;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private Replica(HikariDataSource pool, DataSource dataSource) {
+      this.pool = pool;
+      this.dataSource = dataSource;
+    }
+  }
+
+  private final DataSource primary;
+  private final List<Replica> replicas;
+  private final double maxLagSeconds;
+  private final AtomicInteger next = new AtomicInteger();
+  private final LongAdder primaryReads = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+  private final ScheduledExecutorService checker;
+
+  /**
+   * @param primary       data source of the primary, serving writes and fallback reads
+   * @param replicas      pools of the replicas, closed with this data source
+   * @param guard         wraps the pool of a replica into the data source serving its reads (bulkhead), the lag checks
+   *                      use the pool directly
+   * @param maxLag        replication lag beyond which a replica is skipped
+   * @param checkInterval interval of the lag checks
+   */
+  public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Function<HikariDataSource, DataSource> guard,
+                                  Duration maxLag, Duration checkInterval) {
+    this.primary = primary;
+    this.replicas = replicas.stream().map(pool -> new Replica(pool, guard.apply(pool))).toList();
+    this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    if (this.replicas.isEmpty()) {
+      this.checker = null;
+    } else {
+      this.checker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("replica-lag-checker").factory());
+      this.checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * @return {@code true} if at least one replica is configured
+   */
+  public boolean hasReplicas() {
+    return !replicas.isEmpty();
+  }
+
+  /**
+   * @return the data source of the primary
+   */
+  public DataSource getPrimary() {
+    return primary;
+  }
+
+  /**
+   * Declares whether the next statements of the current thread are reads.
+   *
+   * @param read {@code true} if they may be served by a replica
+   * @return the previous declaration, to be restored with {@link #exit(Boolean)}
+   */
+  public Boolean enter(boolean read) {
+    Boolean previous = READ.get();
+    READ.set(read);
+    return previous;
+  }
+
+  /**
+   * Restores the declaration that was active before {@link #enter(boolean)}.
+   *
+   * @param previous value returned by {@link #enter(boolean)}
+   */
+  public void exit(Boolean previous) {
+    if (previous == null) {
+      READ.remove();
+    } else {
+      READ.set(previous);
+    }
+  }
+
+  /**
+   * Runs work whose reads must see the latest committed state on the primary, whatever the read declarations
+   * made inside it.
+   *
+   * @param work work to run
+   * @param <T>  result type
+   * @return the result of the work
+   */
+  public static <T> T onPrimary(Supplier<T> work) {
+    if (PRIMARY.get() != null) {
+      return work.get();
+    }
+    PRIMARY.set(Boolean.TRUE);
+    try {
+      return work.get();
+    } finally {
+      PRIMARY.remove();
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (replicas.isEmpty() || !Boolean.TRUE.equals(READ.get()) || PRIMARY.get() != null || TransactionalDataSource.current() != null) {
+      return primary.getConnection();
+    }
+    int size = replicas.size();
+    int start = next.getAndIncrement();
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get(Math.floorMod(start + i, size));
+      if (!replica.available) {
+        continue;
+      }
+      try {
+        Connection connection = replica.dataSource.getConnection();
+        replica.reads.increment();
+        return connection;
+      } catch (SQLException e) {
+        replica.failures.increment();
+        replica.available = false;
+        log.warn("Replica {} unavailable, skipped until its next check: {}", replica.pool.getPoolName(), e.getMessage());
+      }
+    }
+    fallbacks.increment();
+    primaryReads.increment();
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  /**
+   * Takes a point-in-time summary of the routing.
+   *
+   * @return reads served by the primary and by each replica, with the replica health
+   */
+  public MonitoringDTO.Replicas snapshot() {
+    MonitoringDTO.Replicas snapshot = new MonitoringDTO.Replicas();
+    snapshot.setPrimaryFallbackReads(primaryReads.sum());
+    snapshot.setFallbacks(fallbacks.sum());
+    snapshot.setReplicas(replicas.stream().map(replica -> {
+      MonitoringDTO.Replica dto = new MonitoringDTO.Replica();
+      dto.setName(replica.pool.getPoolName());
+      dto.setAvailable(replica.available);
+      dto.setLagSeconds(replica.lagSeconds);
+      dto.setReads(replica.reads.sum());
+      dto.setFailures(replica.failures.sum());
+      return dto;
+    }).toList());
+    return snapshot;
+  }
+
+  /**
+   * Measures the replication lag of every replica, a replica behind by more than {@code maxLag}, or unreachable,
+   * serves no read until a later check finds it caught up.
+   */
+  private void checkReplicas() {
+    for (Replica replica : replicas) {
+      try (Connection connection = replica.pool.getConnection();
+           Statement stmt = connection.createStatement();
+           ResultSet rs = stmt.executeQuery(LAG_QUERY)) {
+        double lag = rs.next() ? rs.getDouble("lag_seconds") : 0;
+        boolean available = lag <= maxLagSeconds;
+        if (available != replica.available) {
+          log.info("Replica {} {} (lag: {}s)", replica.pool.getPoolName(), available ? "serving reads" : "lagging, reads go to the primary", lag);
+        }
+        replica.lagSeconds = lag;
+        replica.available = available;
+      } catch (SQLException | RuntimeException e) {
+        if (replica.available) {
+          log.warn("Replica {} check failed, reads go to the other replicas or the primary: {}", replica.pool.getPoolName(), e.getMessage());
+        }
+        replica.failures.increment();
+        replica.available = false;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (checker != null) {
+      checker.shutdownNow();
+    }
+    replicas.forEach(replica -> replica.pool.close());
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return primary.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    primary.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    primary.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return primary.getLoginTimeout();
+  }
+
+  @Override
+  public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return primary.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || primary.isWrapperFor(iface);
+  }
+}
@@ -1,13 +1,19 @@
 package com.amalitech.blogging_platform.dao;
 
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.model.Review;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +24,14 @@ import java.util.List;
 public class ReviewDAO implements DAO<Review, Long> {
 
   private final Logger log = LoggerFactory.getLogger(ReviewDAO.class);
+  private final DataSource dataSource;
+  private final TotalCountEstimator totalCounts;
+
+  @Autowired
+  public ReviewDAO(DataSource dataSource, TotalCountEstimator totalCounts) {
+    this.dataSource = dataSource;
+    this.totalCounts = totalCounts;
+  }
 
   /**
    * Creates a new review in the database and sets the generated ID and timestamps.
@@ -35,7 +49,7 @@ public class ReviewDAO implements DAO<Review, Long> {
                 RETURNING id, created_at, updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT)) {
 
       ps.setLong(1, entity.getPostId());
@@ -77,7 +91,7 @@ public class ReviewDAO implements DAO<Review, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_ID)) {
 
       ps.setLong(1, id);
@@ -108,54 +122,59 @@ public class ReviewDAO implements DAO<Review, Long> {
    */
   @Override
   public PaginatedData<Review> getAll(int page, int pageSize) {
-
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = "SELECT COUNT(*) FROM reviews WHERE is_deleted = false";
+    String fromWhere = "FROM reviews WHERE is_deleted = false";
+    PageQuery query = new PageQuery("id, post_id, user_id, rate, created_at, updated_at, is_deleted", fromWhere, "created_at DESC, id DESC");
+
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToReview, totalCounts);
+    } catch (SQLException e) {
+      log.error("Error fetching paginated reviews (page={}, size={})", effectivePage, effectivePageSize, e);
+      throw new RuntimeException("Failed to fetch reviews", e);
+    }
+  }
+
+  /**
+   * Retrieves a page of non-deleted reviews using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getAll(int, int)}, the cost does not grow with the page depth.
+   *
+   * @param after    cursor to read past (older reviews), may be {@code null}
+   * @param before   cursor to read up to (newer reviews), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of reviews
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<Review> getAll(Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
 
-    final String SELECT_ALL_PAGED = """
+    String sql = """
                 SELECT id, post_id, user_id, rate,
                        created_at, updated_at, is_deleted
                 FROM reviews
                 WHERE is_deleted = false
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
-            """;
+            """ + KeysetPagination.clause(after, before);
 
     List<Review> reviews = new ArrayList<>();
-    int total = 0;
 
-    try (Connection connection = DatabaseConnection.getConnection()) {
-
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-      // Fetch paginated data
-      try (PreparedStatement ps = connection.prepareStatement(SELECT_ALL_PAGED)) {
-        ps.setInt(1, effectivePageSize);
-        ps.setInt(2, offset);
+      KeysetPagination.bind(ps, 1, after, before, effectivePageSize);
 
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            reviews.add(mapRowToReview(rs));
-          }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          reviews.add(mapRowToReview(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching paginated reviews (page={}, size={})", effectivePage, effectivePageSize, e);
+      log.error("Error fetching reviews by cursor (size={})", effectivePageSize, e);
       throw new RuntimeException("Failed to fetch reviews", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(reviews, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(reviews, effectivePageSize, after, before, review -> new Cursor(review.getCreatedAt(), review.getId()));
   }
 
   /**
@@ -189,7 +208,7 @@ public class ReviewDAO implements DAO<Review, Long> {
 
     List<Review> reviews = new ArrayList<>();
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST_ID)) {
 
       ps.setLong(1, userId);
@@ -228,7 +247,7 @@ public class ReviewDAO implements DAO<Review, Long> {
 
     List<Review> reviews = new ArrayList<>();
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST_ID)) {
 
       ps.setLong(1, postId);
@@ -246,6 +265,50 @@ public class ReviewDAO implements DAO<Review, Long> {
 
     return reviews;
   }
+
+  /**
+   * Retrieves the non-deleted reviews of the given posts, newest first.
+   * <p>
+   * Resolves a whole batch in one query ({@code post_id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param postIds ids of the posts
+   * @return matching reviews, empty if {@code postIds} is empty
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<Review> findByPostIds(Collection<Long> postIds) {
+    if (postIds.isEmpty()) {
+      return List.of();
+    }
+
+    final String SELECT_BY_POST_IDS = """
+                SELECT id, post_id, user_id, rate,
+                       created_at, updated_at, is_deleted
+                FROM reviews
+                WHERE post_id = ANY(?) AND is_deleted = false
+                ORDER BY post_id, created_at DESC
+            """;
+
+    List<Review> reviews = new ArrayList<>();
+
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST_IDS)) {
+
+      ps.setArray(1, connection.createArrayOf("bigint", postIds.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          reviews.add(mapRowToReview(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching reviews by post ids {}", postIds, e);
+      throw new RuntimeException("Failed to fetch reviews", e);
+    }
+
+    return reviews;
+  }
   /**
    * Updates an existing review (only the rate can be changed).
    * Automatically updates the updated_at timestamp.
@@ -266,7 +329,7 @@ public class ReviewDAO implements DAO<Review, Long> {
                 RETURNING updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(UPDATE)) {
 
       ps.setString(1, entity.getRate());
@@ -307,7 +370,7 @@ public class ReviewDAO implements DAO<Review, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, id);
@@ -0,0 +1,318 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.monitoring.SqlMetrics;
+import com.amalitech.blogging_platform.monitoring.StatementCacheMetrics;
+import com.amalitech.blogging_platform.monitoring.jfr.RequestEvent;
+import com.amalitech.blogging_platform.monitoring.jfr.SqlStatementEvent;
+import jdk.jfr.EventType;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} reporting every statement prepared on its connections to {@link StatementCacheMetrics}
+ * and timing their executions for {@link SqlMetrics}.
+ * <p>
+ * The physical driver connection is resolved once per borrowed connection, so that the statement cache of each
+ * pooled connection is followed across the DAO calls that borrow it.
+ * The time spent in {@code getConnection} (bulkhead, pool and replica routing) is recorded as connection wait.
+ * Each execution of a prepared statement is timed until the driver returns, which for queries is once the first
+ * rows are fetched; the rows read from the result set are counted until it is exhausted or closed.
+ * Only the types of the bound parameters are kept, never their values.
+ * Each execution is also emitted as a {@link SqlStatementEvent} while a Flight Recorder recording enables it,
+ * statements are then timed even with {@code blogging.sql-metrics.enabled: false}.
+ * </p>
+ */
+public class StatementMetricsDataSource implements DataSource {
+
+  private static final EventType STATEMENT_EVENT = EventType.getEventType(SqlStatementEvent.class);
+
+  private final DataSource delegate;
+  private final StatementCacheMetrics metrics;
+  private final SqlMetrics sqlMetrics;
+
+  /**
+   * @param delegate   data source the connections are borrowed from
+   * @param metrics    statement registry
+   * @param sqlMetrics execution registry
+   */
+  public StatementMetricsDataSource(DataSource delegate, StatementCacheMetrics metrics, SqlMetrics sqlMetrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+    this.sqlMetrics = sqlMetrics;
+  }
+
+  /**
+   * @return the data source the connections are borrowed from
+   */
+  public DataSource getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = delegate.getConnection();
+    return track(connection, System.nanoTime() - start);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = delegate.getConnection(username, password);
+    return track(connection, System.nanoTime() - start);
+  }
+
+  /**
+   * Wraps a connection so that {@code prepareStatement} calls are recorded against its physical connection
+   * and the prepared statements are timed.
+   */
+  private Connection track(Connection connection, long waitNanos) throws SQLException {
+    if (sqlMetrics.isEnabled()) {
+      sqlMetrics.recordConnectionWait(waitNanos);
+    }
+    boolean timed = sqlMetrics.isEnabled() || STATEMENT_EVENT.isEnabled();
+    Object physical = connection.isWrapperFor(PGConnection.class) ? connection.unwrap(PGConnection.class) : connection;
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+              Object result;
+              try {
+                result = method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+              if (method.getName().equals("prepareStatement")) {
+                metrics.recordPrepare(physical, (String) args[0]);
+                if (timed) {
+                  return new TimedStatement((PreparedStatement) result, (String) args[0], waitNanos).proxy();
+                }
+              }
+              return result;
+            });
+  }
+
+  /**
+   * Prepared statement recording the shape of its parameters and the executions to {@link SqlMetrics}.
+   */
+  private final class TimedStatement {
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final long waitNanos;
+    private final Map<Integer, String> parameters = new TreeMap<>();
+    /** Query whose rows are still being read, recorded once its result set is exhausted or closed. */
+    private Execution pending;
+
+    private TimedStatement(PreparedStatement statement, String sql, long waitNanos) {
+      this.statement = statement;
+      this.sql = sql;
+      this.waitNanos = waitNanos;
+    }
+
+    private PreparedStatement proxy() {
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+              (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                  parameters.put(index, shapeOf(method, args[1]));
+                } else if (name.equals("clearParameters")) {
+                  parameters.clear();
+                } else if (name.equals("close")) {
+                  flush();
+                }
+                return switch (name) {
+                  case "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch", "execute" ->
+                          args == null ? execute(method) : invoke(method, args);
+                  case "getResultSet" -> count((ResultSet) invoke(method, args));
+                  default -> invoke(method, args);
+                };
+              });
+    }
+
+    private Object execute(Method method) throws Throwable {
+      flush();
+      SqlStatementEvent event = new SqlStatementEvent();
+      event.begin();
+      long start = System.nanoTime();
+      Object result = invoke(method, null);
+      long nanos = System.nanoTime() - start;
+      event.end();
+
+      Execution execution = new Execution(List.copyOf(parameters.values()), nanos, event);
+      switch (result) {
+        case ResultSet rs -> {
+          pending = execution;
+          return count(rs);
+        }
+        case Boolean hasResultSet when hasResultSet -> pending = execution;
+        case Boolean ignored -> execution.record(statement.getUpdateCount());
+        case Number updated -> execution.record(updated.longValue());
+        case int[] counts -> execution.record(sum(counts));
+        case long[] counts -> execution.record(sum(counts));
+        default -> execution.record(-1);
+      }
+      return result;
+    }
+
+    private ResultSet count(ResultSet rs) {
+      Execution execution = pending;
+      if (rs == null || execution == null) {
+        return rs;
+      }
+      return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+              (proxy, method, args) -> {
+                Object result = StatementMetricsDataSource.invoke(rs, method, args);
+                switch (method.getName()) {
+                  case "next" -> {
+                    if ((Boolean) result) {
+                      execution.rows++;
+                    } else {
+                      flush();
+                    }
+                  }
+                  case "close" -> flush();
+                  default -> {
+                  }
+                }
+                return result;
+              });
+    }
+
+    private void flush() {
+      if (pending != null) {
+        Execution execution = pending;
+        pending = null;
+        execution.record(execution.rows);
+      }
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+      return StatementMetricsDataSource.invoke(statement, method, args);
+    }
+
+    /**
+     * One execution of the statement.
+     */
+    private final class Execution {
+      private final List<String> parameters;
+      private final long nanos;
+      private final SqlStatementEvent event;
+      private long rows;
+
+      private Execution(List<String> parameters, long nanos, SqlStatementEvent event) {
+        this.parameters = parameters;
+        this.nanos = nanos;
+        this.event = event;
+      }
+
+      private void record(long rows) {
+        if (sqlMetrics.isEnabled()) {
+          sqlMetrics.recordExecution(sql, parameters, nanos, rows, waitNanos);
+        }
+        RequestEvent.countStatement(rows);
+        if (event.shouldCommit()) {
+          event.daoMethod = sqlMetrics.currentDaoMethod();
+          event.entity = entityOf(event.daoMethod);
+          event.sql = sql;
+          event.parameters = String.join(", ", parameters);
+          event.rows = rows;
+          event.connectionWait = waitNanos;
+          event.commit();
+        }
+      }
+    }
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * @return type of a bound parameter: {@code null}, the class of an object, or the JDBC setter type ({@code setLong} gives {@code Long})
+   */
+  private static String shapeOf(Method setter, Object value) {
+    if (value == null || setter.getName().equals("setNull")) {
+      return "null";
+    }
+    if (setter.getName().equals("setObject")) {
+      return value.getClass().getSimpleName();
+    }
+    return setter.getName().substring(3);
+  }
+
+  /**
+   * @return entity type of a DAO method, {@code PostDAO.get} gives {@code Post}
+   */
+  private static String entityOf(String daoMethod) {
+    int dot = daoMethod == null ? -1 : daoMethod.indexOf('.');
+    return dot < 0 ? null : daoMethod.substring(0, dot).replace("DAO", "");
+  }
+
+  private static long sum(int[] counts) {
+    long total = 0;
+    for (int count : counts) {
+      total += Math.max(count, 0);
+    }
+    return total;
+  }
+
+  private static long sum(long[] counts) {
+    long total = 0;
+    for (long count : counts) {
+      total += Math.max(count, 0);
+    }
+    return total;
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+}
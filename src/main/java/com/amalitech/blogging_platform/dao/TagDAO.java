@@ -1,14 +1,18 @@
 package com.amalitech.blogging_platform.dao;
 
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.model.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Data Access Object (DAO) for Tags entities.
@@ -18,6 +22,14 @@ import java.util.List;
 public class TagDAO implements DAO<Tag, Long> {
 
   private final Logger log = LoggerFactory.getLogger(TagDAO.class);
+  private final DataSource dataSource;
+  private final TotalCountEstimator totalCounts;
+
+  @Autowired
+  public TagDAO(DataSource dataSource, TotalCountEstimator totalCounts) {
+    this.dataSource = dataSource;
+    this.totalCounts = totalCounts;
+  }
 
   /**
    * Creates a new tag in the database and sets the generated ID on the entity.
@@ -35,7 +47,7 @@ public class TagDAO implements DAO<Tag, Long> {
                 RETURNING id, created_at, updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT)) {
 
       ps.setString(1, entity.getName());
@@ -57,6 +69,60 @@ public class TagDAO implements DAO<Tag, Long> {
     }
   }
 
+  /**
+   * Creates a tag unless a non-deleted tag with the same name (case-insensitive) exists, and returns the one stored.
+   * <p>
+   * The insert skips the conflict on the unique {@code LOWER(name)} index, then the winning row is read on the
+   * same connection, so concurrent calls for the same name all get the same tag instead of a constraint violation.
+   * </p>
+   *
+   * @param name the name of the tag
+   * @return the created tag, or the existing one with this name
+   * @throws RuntimeException if a database error occurs
+   */
+  public Tag createIfAbsent(String name) {
+
+    final String INSERT = """
+                INSERT INTO tags (name)
+                VALUES (?)
+                ON CONFLICT (LOWER(name)) WHERE is_deleted = false DO NOTHING
+                RETURNING id, name, created_at, updated_at, is_deleted
+            """;
+    final String SELECT_BY_NAME = """
+                SELECT id, name, created_at, updated_at, is_deleted
+                FROM tags
+                WHERE LOWER(name) = LOWER(?) AND is_deleted = false
+            """;
+
+    try (Connection connection = dataSource.getConnection()) {
+
+      try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        ps.setString(1, name);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            Tag created = mapRowToTag(rs);
+            log.info("Tag created successfully - ID: {}, Name: {}", created.getId(), created.getName());
+            return created;
+          }
+        }
+      }
+
+      try (PreparedStatement ps = connection.prepareStatement(SELECT_BY_NAME)) {
+        ps.setString(1, name);
+        try (ResultSet rs = ps.executeQuery()) {
+          if (rs.next()) {
+            return mapRowToTag(rs);
+          }
+        }
+      }
+      throw new SQLException("Tag " + name + " was neither created nor found");
+
+    } catch (SQLException e) {
+      log.error("Error creating tag with name {}", name, e);
+      throw new RuntimeException("Failed to create tag", e);
+    }
+  }
+
   /**
    * Retrieves a tag by its ID, excluding soft-deleted records.
    *
@@ -73,7 +139,7 @@ public class TagDAO implements DAO<Tag, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_ID)) {
 
       ps.setLong(1, id);
@@ -93,7 +159,7 @@ public class TagDAO implements DAO<Tag, Long> {
   }
 
   /**
-   * Retrieves a tag by its name, excluding soft-deleted records.
+   * Retrieves a tag by its name (case-insensitive), excluding soft-deleted records.
    *
    * @param name the name of the tag to retrieve
    * @return the tag if found and not deleted, otherwise {@code null}
@@ -104,13 +170,13 @@ public class TagDAO implements DAO<Tag, Long> {
     final String SELECT_BY_NAME = """
                 SELECT id, name, created_at, updated_at, is_deleted
                 FROM tags
-                WHERE name ILIKE ? AND is_deleted = false
+                WHERE LOWER(name) = LOWER(?) AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(SELECT_BY_NAME)) {
 
-      ps.setString(1, name.toUpperCase());
+      ps.setString(1, name);
 
       try (ResultSet rs = ps.executeQuery()) {
         if (rs.next()) {
@@ -126,6 +192,94 @@ public class TagDAO implements DAO<Tag, Long> {
     return null;
   }
 
+  /**
+   * Retrieves the non-deleted tags of the given posts, grouped by post id and sorted by name.
+   * <p>
+   * Resolves a whole batch in one query ({@code post_id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param postIds ids of the posts
+   * @return tags by post id, posts without tags are absent
+   * @throws RuntimeException if a database error occurs
+   */
+  public Map<Long, List<Tag>> findByPostIds(Collection<Long> postIds) {
+    if (postIds.isEmpty()) {
+      return Map.of();
+    }
+
+    final String SELECT_BY_POST_IDS = """
+                SELECT pt.post_id, t.id, t.name, t.created_at, t.updated_at, t.is_deleted
+                FROM tags t
+                INNER JOIN post_tags pt ON t.id = pt.tag_id
+                WHERE pt.post_id = ANY(?) AND t.is_deleted = false
+                ORDER BY t.name
+            """;
+
+    Map<Long, List<Tag>> tagsByPost = new HashMap<>();
+
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(SELECT_BY_POST_IDS)) {
+
+      ps.setArray(1, connection.createArrayOf("bigint", postIds.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          tagsByPost.computeIfAbsent(rs.getLong("post_id"), id -> new ArrayList<>()).add(mapRowToTag(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching tags by post ids {}", postIds, e);
+      throw new RuntimeException("Failed to fetch tags", e);
+    }
+
+    return tagsByPost;
+  }
+
+  /**
+   * Finds the non-deleted tags whose name is similar to, or contains, the given term,
+   * best match first (trigram similarity).
+   *
+   * @param term  text typed by the user
+   * @param limit maximum number of tags returned, bounded to {@link FuzzyMatch#MAX_LIMIT}
+   * @return matching tags, empty if the term is blank
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<Tag> search(String term, int limit) {
+    if (term == null || term.isBlank()) {
+      return List.of();
+    }
+
+    final String SEARCH_BY_NAME = """
+                SELECT id, name, created_at, updated_at, is_deleted
+                FROM tags, (SELECT ?::text AS term, ?::text AS pattern) s
+                WHERE is_deleted = false AND (name % s.term OR name ILIKE s.pattern)
+                ORDER BY similarity(name, s.term) DESC, name
+                LIMIT ?
+            """;
+
+    List<Tag> tags = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(SEARCH_BY_NAME)) {
+
+      ps.setString(1, term.trim());
+      ps.setString(2, FuzzyMatch.containsPattern(term.trim()));
+      ps.setInt(3, FuzzyMatch.boundedLimit(limit));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          tags.add(mapRowToTag(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error searching tags matching {}", term, e);
+      throw new RuntimeException("Failed to search tags", e);
+    }
+
+    return tags;
+  }
+
   /**
    * Retrieves a paginated list of all non-deleted tags, ordered by creation date descending.
    * Page numbering starts at 1.
@@ -137,53 +291,58 @@ public class TagDAO implements DAO<Tag, Long> {
    */
   @Override
   public PaginatedData<Tag> getAll(int page, int pageSize) {
-
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = "SELECT COUNT(*) FROM tags WHERE is_deleted = false";
+    String fromWhere = "FROM tags WHERE is_deleted = false";
+    PageQuery query = new PageQuery("id, name, created_at, updated_at, is_deleted", fromWhere, "created_at DESC, id DESC");
+
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToTag, totalCounts);
+    } catch (SQLException e) {
+      log.error("Error fetching paginated tags (page={}, size={})", effectivePage, effectivePageSize, e);
+      throw new RuntimeException("Failed to fetch tags", e);
+    }
+  }
 
-    final String SELECT_ALL_PAGED = """
+  /**
+   * Retrieves a page of non-deleted tags using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getAll(int, int)}, the cost does not grow with the page depth.
+   *
+   * @param after    cursor to read past (older tags), may be {@code null}
+   * @param before   cursor to read up to (newer tags), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of tags
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<Tag> getAll(Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
+
+    String sql = """
                 SELECT id, name, created_at, updated_at, is_deleted
                 FROM tags
                 WHERE is_deleted = false
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
-            """;
+            """ + KeysetPagination.clause(after, before);
 
     List<Tag> tags = new ArrayList<>();
-    int total = 0;
 
-    try (Connection connection = DatabaseConnection.getConnection()) {
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-      // Fetch total count
-      try (PreparedStatement countPs = connection.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
+      KeysetPagination.bind(ps, 1, after, before, effectivePageSize);
 
-      // Fetch paginated data
-      try (PreparedStatement ps = connection.prepareStatement(SELECT_ALL_PAGED)) {
-        ps.setInt(1, effectivePageSize);
-        ps.setInt(2, offset);
-
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            tags.add(mapRowToTag(rs));
-          }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          tags.add(mapRowToTag(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching paginated tags (page={}, size={})", effectivePage, effectivePageSize, e);
+      log.error("Error fetching tags by cursor (size={})", effectivePageSize, e);
       throw new RuntimeException("Failed to fetch tags", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(tags, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(tags, effectivePageSize, after, before, tag -> new Cursor(tag.getCreatedAt(), tag.getId()));
   }
 
   /**
@@ -216,7 +375,7 @@ public class TagDAO implements DAO<Tag, Long> {
                 RETURNING updated_at
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(UPDATE)) {
 
       ps.setString(1, entity.getName());
@@ -257,7 +416,7 @@ public class TagDAO implements DAO<Tag, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, id);
@@ -0,0 +1,86 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.config.PaginationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Provides estimated row counts of unfiltered listings, when enabled by {@link PaginationProperties}.
+ * <p>
+ * The estimate is the row count the planner expects for the listing ({@code EXPLAIN}), which comes
+ * from table statistics and costs no scan. Estimates are cached per listing for {@code estimateTtl}.
+ * Small listings (estimate below {@code exactCountThreshold}) keep an exact total, as counting them is cheap.
+ * </p>
+ */
+@Component
+public class TotalCountEstimator {
+
+  /** Returned when the exact total should be computed. */
+  static final long EXACT = -1;
+
+  private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+  private final PaginationProperties properties;
+  private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+  private final Logger log = LoggerFactory.getLogger(TotalCountEstimator.class);
+
+  private record Estimate(long rows, long expiresAt) {
+  }
+
+  @Autowired
+  public TotalCountEstimator(PaginationProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Estimates the number of rows of an unfiltered listing.
+   *
+   * @param conn      connection to use
+   * @param fromWhere {@code FROM}/{@code WHERE} clause of the listing, must not contain placeholders
+   * @return the estimated number of rows, or {@link #EXACT} if the exact total should be computed
+   */
+  long estimate(Connection conn, String fromWhere) {
+    if (properties.totalMode() != PaginationProperties.TotalMode.ESTIMATED) {
+      return EXACT;
+    }
+
+    long now = System.nanoTime();
+    Estimate cached = estimates.get(fromWhere);
+    if (cached == null || now - cached.expiresAt() > 0) {
+      long rows = explainRows(conn, fromWhere);
+      if (rows < 0) {
+        return EXACT;
+      }
+      cached = new Estimate(rows, now + properties.estimateTtl().toNanos());
+      estimates.put(fromWhere, cached);
+    }
+
+    return cached.rows() < properties.exactCountThreshold() ? EXACT : cached.rows();
+  }
+
+  private long explainRows(Connection conn, String fromWhere) {
+    try (Statement st = conn.createStatement();
+         ResultSet rs = st.executeQuery("EXPLAIN SELECT 1 " + fromWhere)) {
+      if (rs.next()) {
+        Matcher matcher = PLAN_ROWS.matcher(rs.getString(1));
+        if (matcher.find()) {
+          return Long.parseLong(matcher.group(1));
+        }
+      }
+    } catch (SQLException e) {
+      log.warn("Could not estimate the row count of '{}', falling back to an exact count", fromWhere, e);
+    }
+    return EXACT;
+  }
+}
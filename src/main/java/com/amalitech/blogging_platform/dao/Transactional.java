@@ -0,0 +1,17 @@
+package com.amalitech.blogging_platform.dao;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated service method, or every public method of the annotated service, as a unit of work
+ * (see {@link Transactions}). Like any Spring proxy based advice, it does not apply to calls made within the same bean.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Transactional {
+}
@@ -0,0 +1,230 @@
+package com.amalitech.blogging_platform.dao;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} handing out the connection of the unit of work running on the current thread, if any.
+ * <p>
+ * Outside a unit of work every {@link #getConnection()} borrows a new connection, as before. Inside one
+ * (see {@link Transactions}), the first call borrows a connection and turns autocommit off, later calls get that same
+ * connection back: DAOs keep their try-with-resources blocks, closing the connection only ends their use of it.
+ * Calls to {@code setAutoCommit}, {@code commit} and {@code rollback} made by a DAO are ignored while the connection is
+ * bound, a {@code rollback} marks the unit of work as rollback-only.
+ * </p>
+ */
+public class TransactionalDataSource implements DataSource {
+
+  /**
+   * State of the unit of work of a thread, the connection is borrowed on first use.
+   */
+  static final class Scope {
+    private int depth = 1;
+    private Connection connection;
+    private Connection bound;
+    private boolean rollbackOnly;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    boolean isRollbackOnly() {
+      return rollbackOnly;
+    }
+
+    void markRollbackOnly() {
+      rollbackOnly = true;
+    }
+
+    void afterCommit(Runnable action) {
+      afterCommit.add(action);
+    }
+  }
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  private final DataSource delegate;
+
+  /**
+   * @param delegate data source the connections are borrowed from
+   */
+  public TransactionalDataSource(DataSource delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * @return the data source the connections are borrowed from
+   */
+  public DataSource getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    Scope scope = CURRENT.get();
+    if (scope == null) {
+      return delegate.getConnection();
+    }
+    if (scope.connection == null) {
+      Connection connection = delegate.getConnection();
+      try {
+        connection.setAutoCommit(false);
+      } catch (SQLException e) {
+        connection.close();
+        throw e;
+      }
+      scope.connection = connection;
+      scope.bound = bind(connection, scope);
+    }
+    return scope.bound;
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (CURRENT.get() != null) {
+      throw new SQLFeatureNotSupportedException("Explicit credentials are not supported inside a unit of work");
+    }
+    return delegate.getConnection(username, password);
+  }
+
+  /**
+   * @return the unit of work of the current thread, {@code null} if none is running
+   */
+  static Scope current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Starts a unit of work on the current thread, or joins the running one.
+   *
+   * @return the unit of work
+   */
+  static Scope begin() {
+    Scope scope = CURRENT.get();
+    if (scope != null) {
+      scope.depth++;
+      return scope;
+    }
+    scope = new Scope();
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /**
+   * Leaves a unit of work. The outermost level commits, or rolls back, and gives the connection back to the pool.
+   *
+   * @param scope   unit of work returned by {@link #begin()}
+   * @param success {@code false} if the work failed, the transaction is then rolled back
+   * @throws SQLException if the commit or the rollback fails
+   * @throws IllegalStateException if the work succeeded but the transaction was marked rollback-only
+   */
+  static void end(Scope scope, boolean success) throws SQLException {
+    if (!success) {
+      scope.rollbackOnly = true;
+    }
+    if (--scope.depth > 0) {
+      return;
+    }
+    CURRENT.remove();
+
+    Connection connection = scope.connection;
+    boolean committed = false;
+    if (connection != null) {
+      try {
+        if (scope.rollbackOnly) {
+          connection.rollback();
+        } else {
+          connection.commit();
+          committed = true;
+        }
+      } finally {
+        try {
+          connection.setAutoCommit(true);
+        } finally {
+          connection.close();
+        }
+      }
+    } else {
+      committed = !scope.rollbackOnly;
+    }
+
+    if (committed) {
+      scope.afterCommit.forEach(Runnable::run);
+    } else if (success) {
+      throw new IllegalStateException("Unit of work rolled back: a statement failed and its error was handled");
+    }
+  }
+
+  /**
+   * Wraps the bound connection so that the DAOs cannot close it nor end its transaction.
+   */
+  private static Connection bind(Connection connection, Scope scope) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "close", "setAutoCommit", "commit" -> {
+                  return null;
+                }
+                case "rollback" -> {
+                  if (method.getParameterCount() == 0) {
+                    scope.rollbackOnly = true;
+                    return null;
+                  }
+                }
+                case "getAutoCommit" -> {
+                  return false;
+                }
+                case "isClosed" -> {
+                  return connection.isClosed();
+                }
+                default -> {
+                }
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+}
@@ -0,0 +1,91 @@
+package com.amalitech.blogging_platform.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Runs service code as a unit of work: all the DAO calls made on the calling thread share one connection and one
+ * transaction, committed when the work returns and rolled back when it throws.
+ * <p>
+ * Units of work nest: an inner one joins the outer one, which alone commits. Services declare their boundaries with
+ * {@link Transactional} or call {@link #execute(Supplier)} directly. Work handed to other threads (fan-out, batch loaders)
+ * is not part of the unit of work and uses its own connections.
+ * </p>
+ */
+@Component
+public class Transactions {
+
+  private static final Logger log = LoggerFactory.getLogger(Transactions.class);
+
+  /**
+   * Runs work in a unit of work, joining the one already running on the thread if any.
+   *
+   * @param work service code calling the DAOs
+   * @return the result of the work
+   * @throws RuntimeException the failure of the work, after the rollback
+   */
+  public <T> T execute(Supplier<T> work) {
+    TransactionalDataSource.Scope scope = TransactionalDataSource.begin();
+    T result;
+    try {
+      result = work.get();
+    } catch (RuntimeException | Error e) {
+      end(scope, false);
+      throw e;
+    }
+    end(scope, true);
+    return result;
+  }
+
+  /**
+   * Runs work without result in a unit of work, see {@link #execute(Supplier)}.
+   *
+   * @param work service code calling the DAOs
+   */
+  public void run(Runnable work) {
+    execute(() -> {
+      work.run();
+      return null;
+    });
+  }
+
+  /**
+   * @return {@code true} if a unit of work is running on the current thread
+   */
+  public boolean isActive() {
+    return TransactionalDataSource.current() != null;
+  }
+
+  /**
+   * Defers an action, such as a cache eviction, until the running unit of work commits; it is dropped on rollback.
+   * Outside a unit of work the action runs immediately.
+   *
+   * @param action action to run once the changes are visible to other connections
+   */
+  public void afterCommit(Runnable action) {
+    TransactionalDataSource.Scope scope = TransactionalDataSource.current();
+    if (scope == null) {
+      action.run();
+    } else {
+      scope.afterCommit(action);
+    }
+  }
+
+  private static void end(TransactionalDataSource.Scope scope, boolean success) {
+    try {
+      TransactionalDataSource.end(scope, success);
+    } catch (SQLException e) {
+      if (!success) {
+        // The failure of the work matters more, it is rethrown by the caller
+        log.error("Error rolling back unit of work", e);
+        return;
+      }
+      log.error("Error committing unit of work", e);
+      throw new RuntimeException("Failed to commit transaction", e);
+    }
+  }
+}
@@ -1,12 +1,17 @@
 package com.amalitech.blogging_platform.dao;
 
 import com.amalitech.blogging_platform.dao.enums.UserColumn;
+import com.amalitech.blogging_platform.dao.OffsetPagination.PageQuery;
+import com.amalitech.blogging_platform.dto.Cursor;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
 
@@ -23,6 +28,26 @@ public class UserDAO implements DAO<User, Long> {
 
   private final Logger log = LoggerFactory.getLogger(UserDAO.class);
 
+  // One SQL text per variant, so that the driver statement cache (and server-side prepare) applies to each of them
+  private static final String SELECT_BY_ID = """
+                SELECT * FROM users
+                WHERE id = ? AND is_deleted = false
+            """;
+  private static final String SELECT_BY_ID_WITH_DELETED = """
+                SELECT * FROM users
+                WHERE id = ?
+            """;
+  private static final Map<UserColumn, String> SELECT_BY_COLUMN = selectByColumn(" AND is_deleted = false");
+  private static final Map<UserColumn, String> SELECT_BY_COLUMN_WITH_DELETED = selectByColumn("");
+  private final DataSource dataSource;
+  private final TotalCountEstimator totalCounts;
+
+  @Autowired
+  public UserDAO(DataSource dataSource, TotalCountEstimator totalCounts) {
+    this.dataSource = dataSource;
+    this.totalCounts = totalCounts;
+  }
+
   /**
    * Creates a new user in the database and sets the generated ID on the provided entity.
    *
@@ -37,7 +62,7 @@ public class UserDAO implements DAO<User, Long> {
                 VALUES (?, ?, ?, ?, ?)
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
       setUserParams(ps, entity);
@@ -80,16 +105,8 @@ public class UserDAO implements DAO<User, Long> {
    * @throws RuntimeException if a database error occurs
    */
   public User get(Long id, boolean includeDeleted) {
-    String sql = """
-                SELECT * FROM users
-                WHERE id = ?
-            """;
-    if (!includeDeleted) {
-      sql += " AND is_deleted = false";
-    }
-
-    try (Connection conn = DatabaseConnection.getConnection();
-         PreparedStatement ps = conn.prepareStatement(sql)) {
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(includeDeleted ? SELECT_BY_ID_WITH_DELETED : SELECT_BY_ID)) {
 
       ps.setLong(1, id);
 
@@ -117,18 +134,11 @@ public class UserDAO implements DAO<User, Long> {
    * @throws RuntimeException if a database error occurs
    */
   public List<User> findBy(String value, UserColumn column, boolean includeDeleted) {
-    String sql = """
-                SELECT * FROM users
-                WHERE %s = ?
-            """.formatted(column.name());
-
-    if (!includeDeleted) {
-      sql += " AND is_deleted = false";
-    }
+    String sql = (includeDeleted ? SELECT_BY_COLUMN_WITH_DELETED : SELECT_BY_COLUMN).get(column);
 
     List<User> users = new ArrayList<>();
 
-    try (Connection conn = DatabaseConnection.getConnection();
+    try (Connection conn = dataSource.getConnection();
          PreparedStatement ps = conn.prepareStatement(sql)) {
 
       ps.setString(1, value);
@@ -195,6 +205,98 @@ public class UserDAO implements DAO<User, Long> {
     return findOneBy(value, column, false);
   }
 
+  /**
+   * Retrieves the non-deleted users with the given ids.
+   * <p>
+   * Resolves a whole batch in one query ({@code id = ANY(?)}), used by the GraphQL batch resolvers.
+   * </p>
+   *
+   * @param ids ids of the users
+   * @return matching users, empty if {@code ids} is empty
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<User> findByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    final String SELECT_BY_IDS = """
+                SELECT *
+                FROM users
+                WHERE id = ANY(?) AND is_deleted = false
+                ORDER BY id
+            """;
+
+    List<User> users = new ArrayList<>();
+
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SELECT_BY_IDS)) {
+
+      ps.setArray(1, conn.createArrayOf("bigint", ids.toArray()));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          users.add(mapRowToUser(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error fetching users by ids {}", ids, e);
+      throw new RuntimeException("Failed to fetch users", e);
+    }
+
+    return users;
+  }
+
+  /**
+   * Finds the non-deleted users whose username, first name or last name is similar to,
+   * or contains, the given term, best match first (trigram similarity).
+   *
+   * @param term  text typed by the user
+   * @param limit maximum number of users returned, bounded to {@link FuzzyMatch#MAX_LIMIT}
+   * @return matching users, empty if the term is blank
+   * @throws RuntimeException if a database error occurs
+   */
+  public List<User> search(String term, int limit) {
+    if (term == null || term.isBlank()) {
+      return List.of();
+    }
+
+    final String SEARCH_BY_NAME = """
+                SELECT u.*
+                FROM users u, (SELECT ?::text AS term, ?::text AS pattern) s
+                WHERE u.is_deleted = false
+                  AND (u.username % s.term OR u.first_name % s.term OR u.last_name % s.term
+                       OR u.username ILIKE s.pattern OR u.first_name ILIKE s.pattern OR u.last_name ILIKE s.pattern)
+                ORDER BY GREATEST(similarity(u.username, s.term),
+                                  similarity(coalesce(u.first_name, ''), s.term),
+                                  similarity(coalesce(u.last_name, ''), s.term)) DESC,
+                         u.username
+                LIMIT ?
+            """;
+
+    List<User> users = new ArrayList<>();
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(SEARCH_BY_NAME)) {
+
+      ps.setString(1, term.trim());
+      ps.setString(2, FuzzyMatch.containsPattern(term.trim()));
+      ps.setInt(3, FuzzyMatch.boundedLimit(limit));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          users.add(mapRowToUser(rs));
+        }
+      }
+
+    } catch (SQLException e) {
+      log.error("Error searching users matching {}", term, e);
+      throw new RuntimeException("Failed to search users", e);
+    }
+
+    return users;
+  }
+
   /**
    * Retrieves a paginated list of users, excluding soft-deleted records by default.
    *
@@ -221,55 +323,57 @@ public class UserDAO implements DAO<User, Long> {
   public PaginatedData<User> getAll(int page, int pageSize, boolean includeDeleted) {
     int effectivePage = Math.max(page, 1);
     int effectivePageSize = Math.max(pageSize, 1);
-    int offset = (effectivePage - 1) * effectivePageSize;
 
-    String countSql = "SELECT COUNT(*) FROM users";
-    if (!includeDeleted) {
-      countSql += " WHERE is_deleted = false";
-    }
+    String fromWhere = includeDeleted ? "FROM users" : "FROM users WHERE is_deleted = false";
+    PageQuery query = new PageQuery("*", fromWhere, "created_at DESC, id DESC");
 
-    String dataSql = "SELECT * FROM users";
-    if (!includeDeleted) {
-      dataSql += " WHERE is_deleted = false";
+    try (Connection connection = dataSource.getConnection()) {
+      return OffsetPagination.fetch(connection, query, effectivePage, effectivePageSize, this::mapRowToUser, totalCounts);
+    } catch (SQLException e) {
+      log.error("Error fetching users (page={}, size={}, includeDeleted={})",
+              effectivePage, effectivePageSize, includeDeleted, e);
+      throw new RuntimeException("Failed to fetch users", e);
     }
-    dataSql += """
-                 ORDER BY created_at DESC
-                 LIMIT ? OFFSET ?
-            """;
+  }
 
-    List<User> users = new ArrayList<>();
-    int total = 0;
+  /**
+   * Retrieves a page of non-deleted users using keyset pagination on {@code (created_at, id)}, newest first.
+   * Unlike {@link #getAll(int, int)}, the cost does not grow with the page depth.
+   *
+   * @param after    cursor to read past (older users), may be {@code null}
+   * @param before   cursor to read up to (newer users), ignored if {@code after} is set
+   * @param pageSize number of records per page
+   * @return cursor paginated data of users
+   * @throws RuntimeException if a database error occurs
+   */
+  public CursorPaginatedData<User> getAll(Cursor after, Cursor before, int pageSize) {
+    int effectivePageSize = Math.max(pageSize, 1);
 
-    try (Connection conn = DatabaseConnection.getConnection()) {
+    String sql = """
+                SELECT *
+                FROM users
+                WHERE is_deleted = false
+            """ + KeysetPagination.clause(after, before);
 
-      // Fetch total count
-      try (PreparedStatement countPs = conn.prepareStatement(countSql);
-           ResultSet countRs = countPs.executeQuery()) {
-        if (countRs.next()) {
-          total = countRs.getInt(1);
-        }
-      }
+    List<User> users = new ArrayList<>();
 
-      // Fetch paginated data
-      try (PreparedStatement dataPs = conn.prepareStatement(dataSql)) {
-        dataPs.setInt(1, effectivePageSize);
-        dataPs.setInt(2, offset);
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(sql)) {
 
-        try (ResultSet rs = dataPs.executeQuery()) {
-          while (rs.next()) {
-            users.add(mapRowToUser(rs));
-          }
+      KeysetPagination.bind(ps, 1, after, before, effectivePageSize);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          users.add(mapRowToUser(rs));
         }
       }
 
     } catch (SQLException e) {
-      log.error("Error fetching users (page={}, size={}, includeDeleted={})",
-              effectivePage, effectivePageSize, includeDeleted, e);
+      log.error("Error fetching users by cursor (size={})", effectivePageSize, e);
       throw new RuntimeException("Failed to fetch users", e);
     }
 
-    int totalPages = (total + effectivePageSize - 1) / effectivePageSize;
-    return new PaginatedData<>(users, effectivePage, effectivePageSize, totalPages, total);
+    return KeysetPagination.page(users, effectivePageSize, after, before, user -> new Cursor(user.getCreatedAt(), user.getId()));
   }
 
   /**
@@ -299,7 +403,7 @@ public class UserDAO implements DAO<User, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(UPDATE)) {
 
       setUserParams(ps, entity);
@@ -338,7 +442,7 @@ public class UserDAO implements DAO<User, Long> {
                 WHERE id = ? AND is_deleted = false
             """;
 
-    try (Connection connection = DatabaseConnection.getConnection();
+    try (Connection connection = dataSource.getConnection();
          PreparedStatement ps = connection.prepareStatement(DELETE)) {
 
       ps.setLong(1, id);
@@ -359,78 +463,6 @@ public class UserDAO implements DAO<User, Long> {
     }
   }
 
-  /**
-   * Retrieves basic statistics for a given user (post count, comment count, review count).
-   * Uses efficient COUNT queries instead of loading full lists.
-   * Excludes soft-deleted records by default.
-   *
-   * @param userId the ID of the user to get stats for
-   * @return a Map containing:
-   *         - "postCount" → number of non-deleted posts
-   *         - "commentCount" → number of non-deleted comments
-   *         - "reviewCount" → number of non-deleted reviews
-   * @throws RuntimeException if a database error occurs
-   */
-  public Map<String, Integer> getUserStats(Long userId) {
-    Map<String, Integer> stats = new HashMap<>();
-
-    try (Connection conn = DatabaseConnection.getConnection()) {
-
-      // 1. Post count
-      String postSql = """
-                SELECT COUNT(*) 
-                FROM posts 
-                WHERE author_id = ? AND is_deleted = false
-            """;
-
-      try (PreparedStatement ps = conn.prepareStatement(postSql)) {
-        ps.setLong(1, userId);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (rs.next()) {
-            stats.put("postCount", rs.getInt(1));
-          }
-        }
-      }
-
-      // 2. Comment count
-      String commentSql = """
-                SELECT COUNT(*) 
-                FROM comments 
-                WHERE user_id = ? AND is_deleted = false
-            """;
-
-      try (PreparedStatement ps = conn.prepareStatement(commentSql)) {
-        ps.setLong(1, userId);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (rs.next()) {
-            stats.put("commentCount", rs.getInt(1));
-          }
-        }
-      }
-
-      // 3. Review count
-      String reviewSql = """
-                SELECT COUNT(*) 
-                FROM reviews 
-                WHERE user_id = ? AND is_deleted = false
-            """;
-
-      try (PreparedStatement ps = conn.prepareStatement(reviewSql)) {
-        ps.setLong(1, userId);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (rs.next()) {
-            stats.put("reviewCount", rs.getInt(1));
-          }
-        }
-      }
-
-    } catch (SQLException e) {
-      log.error("Error fetching user stats for userId {}", userId, e);
-      throw new RuntimeException("Failed to retrieve user statistics", e);
-    }
-
-    return stats;
-  }
   private User mapRowToUser(ResultSet rs) throws SQLException {
     User user = new User();
     user.setId(rs.getLong("id"));
@@ -452,4 +484,21 @@ public class UserDAO implements DAO<User, Long> {
     ps.setString(4, user.getEmail());
     ps.setString(5, user.getPassword());
   }
-}
\ No newline at end of file
+
+  /**
+   * Builds the lookup statement of every searchable column.
+   *
+   * @param deletedFilter condition appended to the {@code WHERE} clause
+   * @return SQL text by column
+   */
+  private static Map<UserColumn, String> selectByColumn(String deletedFilter) {
+    Map<UserColumn, String> statements = new EnumMap<>(UserColumn.class);
+    for (UserColumn column : UserColumn.values()) {
+      statements.put(column, """
+                SELECT * FROM users
+                WHERE %s = ?%s
+            """.formatted(column.name(), deletedFilter));
+    }
+    return statements;
+  }
+}
@@ -0,0 +1,178 @@
+package com.amalitech.blogging_platform.dao;
+
+import com.amalitech.blogging_platform.dto.UserStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) for the per-user activity counters ({@code user_stats}).
+ * <p>
+ * The counters are maintained incrementally by database triggers on posts, comments and reviews
+ * ({@code docs/migrations/005_user_stats.sql}), reads are primary-key lookups.
+ * {@link #computeByUserIds(Collection)} counts from the source tables instead, in a single statement, and
+ * {@link #rebuild(Collection)} writes those exact counts back while the source tables are locked against writes.
+ * </p>
+ */
+@Repository
+public class UserStatsDAO {
+
+  private final Logger log = LoggerFactory.getLogger(UserStatsDAO.class);
+  private final DataSource dataSource;
+
+  // Exact counters of the users matching %s, counted from the source tables in one pass per table
+  private static final String COUNT_FROM_SOURCES = """
+          SELECT u.id AS user_id,
+                 COALESCE(p.n, 0) AS post_count,
+                 COALESCE(c.n, 0) AS comment_count,
+                 COALESCE(r.n, 0) AS review_count
+          FROM users u
+          LEFT JOIN (SELECT author_id, COUNT(*) AS n FROM posts WHERE is_deleted = false GROUP BY author_id) p ON p.author_id = u.id
+          LEFT JOIN (SELECT user_id, COUNT(*) AS n FROM comments WHERE is_deleted = false GROUP BY user_id) c ON c.user_id = u.id
+          LEFT JOIN (SELECT user_id, COUNT(*) AS n FROM reviews WHERE is_deleted = false GROUP BY user_id) r ON r.user_id = u.id
+          WHERE %s
+          """;
+
+  // Blocks inserts, updates and deletes (and so the counter triggers) on the source tables until the rebuild commits
+  private static final String LOCK_SOURCES = "LOCK TABLE posts, comments, reviews IN SHARE MODE";
+
+  @Autowired
+  public UserStatsDAO(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Reads the maintained counters of several users in a single query.
+   *
+   * @param userIds ids of the users
+   * @return counters by user id; unknown or deleted users are absent, users without activity have zero counters
+   * @throws RuntimeException if a database error occurs
+   */
+  public Map<Long, UserStatsDTO> findByUserIds(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return Map.of();
+    }
+
+    String sql = """
+            SELECT u.id AS user_id,
+                   COALESCE(s.post_count, 0) AS post_count,
+                   COALESCE(s.comment_count, 0) AS comment_count,
+                   COALESCE(s.review_count, 0) AS review_count
+            FROM users u
+            LEFT JOIN user_stats s ON s.user_id = u.id
+            WHERE u.id = ANY(?) AND u.is_deleted = false
+            """;
+
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(sql)) {
+
+      ps.setArray(1, conn.createArrayOf("bigint", userIds.toArray()));
+      return mapRows(ps);
+
+    } catch (SQLException e) {
+      log.error("Error fetching user stats for users {}", userIds, e);
+      throw new RuntimeException("Failed to retrieve user statistics", e);
+    }
+  }
+
+  /**
+   * Counts the activity of several users from the posts, comments and reviews tables, in a single statement.
+   * Exact even if the counters drifted, but scans the source tables.
+   *
+   * @param userIds ids of the users
+   * @return counters by user id, unknown or deleted users are absent
+   * @throws RuntimeException if a database error occurs
+   */
+  public Map<Long, UserStatsDTO> computeByUserIds(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return Map.of();
+    }
+
+    try (Connection conn = dataSource.getConnection();
+         PreparedStatement ps = conn.prepareStatement(COUNT_FROM_SOURCES.formatted("u.id = ANY(?) AND u.is_deleted = false"))) {
+
+      ps.setArray(1, conn.createArrayOf("bigint", userIds.toArray()));
+      return mapRows(ps);
+
+    } catch (SQLException e) {
+      log.error("Error computing user stats for users {}", userIds, e);
+      throw new RuntimeException("Failed to compute user statistics", e);
+    }
+  }
+
+  /**
+   * Recomputes the counters from the source tables and overwrites the stored ones.
+   * <p>
+   * The counts and the overwrite run in one transaction holding {@code SHARE} locks on posts, comments and reviews:
+   * writes to them (and the trigger deltas they apply) wait until the rebuild commits. Without it, a delta committed
+   * after the counting snapshot would be overwritten by the stale count. Reads are not blocked.
+   * </p>
+   *
+   * @param userIds ids of the users to rebuild
+   * @return number of counter rows written
+   * @throws RuntimeException if a database error occurs
+   */
+  public int rebuild(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return 0;
+    }
+
+    String sql = """
+            INSERT INTO user_stats (user_id, post_count, comment_count, review_count, updated_at)
+            SELECT user_id, post_count, comment_count, review_count, now()
+            FROM (%s) counts
+            ON CONFLICT (user_id) DO UPDATE
+                SET post_count    = EXCLUDED.post_count,
+                    comment_count = EXCLUDED.comment_count,
+                    review_count  = EXCLUDED.review_count,
+                    updated_at    = now()
+            """.formatted(COUNT_FROM_SOURCES.formatted("u.id = ANY(?)"));
+
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (Statement lock = conn.createStatement()) {
+          lock.execute(LOCK_SOURCES);
+        }
+        int rows;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+          ps.setArray(1, conn.createArrayOf("bigint", userIds.toArray()));
+          rows = ps.executeUpdate();
+        }
+        conn.commit();
+        log.info("User stats rebuilt - {} row(s)", rows);
+        return rows;
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      log.error("Error rebuilding user stats", e);
+      throw new RuntimeException("Failed to rebuild user statistics", e);
+    }
+  }
+
+  private Map<Long, UserStatsDTO> mapRows(PreparedStatement ps) throws SQLException {
+    Map<Long, UserStatsDTO> stats = new HashMap<>();
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        UserStatsDTO dto = new UserStatsDTO();
+        dto.setUserId(rs.getLong("user_id"));
+        dto.setPostCount(rs.getInt("post_count"));
+        dto.setCommentCount(rs.getInt("comment_count"));
+        dto.setReviewCount(rs.getInt("review_count"));
+        stats.put(dto.getUserId(), dto);
+      }
+    }
+    return stats;
+  }
+}
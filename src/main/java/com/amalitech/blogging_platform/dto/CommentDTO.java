@@ -38,6 +38,8 @@ public class CommentDTO {
     private Long id;
     private Long postId;
     private Long userId;
+    @Schema(description = "Full name of the commenter, only filled when comments are loaded with their post", example = "Jane Doe")
+    private String authorName;
     private String body;
     private Long parentCommentId;
     private LocalDateTime createdAt;
@@ -84,12 +86,17 @@ public class CommentDTO {
       graphQL.setPageSize(comments.getPageSize());
       graphQL.setPage(comments.getPage());
       graphQL.setTotalPages(comments.getTotalPages());
+      graphQL.setTotalEstimated(comments.isTotalEstimated());
       graphQL.setTotal(comments.getTotal());
       graphQL.setItems(comments.getItems().stream().map(Converter::toGraphQL).toList());
 
       return graphQL;
     }
 
+    public static CursorPaginatedData<GraphQL> toGraphQL(CursorPaginatedData<CommentDTO.Out> comments){
+      return CursorPaginatedData.map(comments, Converter::toGraphQL);
+    }
+
 
   }
 
@@ -0,0 +1,53 @@
+package com.amalitech.blogging_platform.dto;
+
+import com.amalitech.blogging_platform.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a row in a listing ordered by {@code (created_at, id)}, used for keyset pagination.
+ * <p>
+ * Clients only see the opaque, URL-safe string produced by {@link #encode()}.
+ * </p>
+ *
+ * @param createdAt creation timestamp of the row
+ * @param id        id of the row, breaks ties between rows created at the same instant
+ */
+public record Cursor(LocalDateTime createdAt, long id) {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * @return opaque string representation of this cursor
+   */
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor previously produced by {@link #encode()}.
+   *
+   * @param value the opaque cursor, may be {@code null} or blank
+   * @return the decoded cursor or {@code null} if no cursor was given
+   * @throws InvalidRequestException if the value is not a valid cursor
+   */
+  public static Cursor decode(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new InvalidRequestException("Invalid cursor");
+      }
+      return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidRequestException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.amalitech.blogging_platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO representing cursor (keyset) pagination parameters for API requests.
+ * <p>
+ * Listings are ordered from newest to oldest. {@code after} returns the items following a cursor
+ * (older items), {@code before} the items preceding it (newer items). When both are given, {@code after} wins.
+ * Without cursor, the first page is returned.
+ * </p>
+ */
+@Getter
+@Setter
+@Schema(description = "Cursor pagination request parameters")
+public class CursorPageRequest {
+
+  @Schema(description = "Cursor returned as nextCursor by the previous call, fetches the following items")
+  private final String after;
+
+  @Schema(description = "Cursor returned as previousCursor by the previous call, fetches the preceding items")
+  private final String before;
+
+  @Schema(description = "Number of items per page", example = "10", defaultValue = "10")
+  @Positive(message = "Page size should be a positive number, greater than 0")
+  private final int size;
+
+  public CursorPageRequest() {
+    this(null, null, null);
+  }
+
+  public CursorPageRequest(String after, String before, Integer size) {
+    if (size == null || size <= 0) {
+      size = 10;
+    }
+
+    this.after = after;
+    this.before = before;
+    this.size = size;
+  }
+
+  /**
+   * @return decoded {@code after} cursor, {@code null} if absent
+   */
+  public Cursor afterCursor() {
+    return Cursor.decode(this.after);
+  }
+
+  /**
+   * @return decoded {@code before} cursor, {@code null} if absent or if {@code after} is present
+   */
+  public Cursor beforeCursor() {
+    return this.after != null && !this.after.isBlank() ? null : Cursor.decode(this.before);
+  }
+}
@@ -0,0 +1,56 @@
+package com.amalitech.blogging_platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.function.Function;
+
+/**
+ * Cursor (keyset) variant of {@link PaginatedData}.
+ * <p>
+ * Pages are addressed by opaque cursors instead of page numbers, so the cost of a page does not
+ * depend on how deep it is. Page numbers and totals are not computed in this mode.
+ * </p>
+ *
+ * @param <T> type of the items in the page
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties({"page", "totalPages", "total", "totalEstimated"})
+@Schema(name = "CursorPaginatedData", description = "Container for cursor paginated responses")
+public class CursorPaginatedData<T> extends PaginatedData<T> {
+
+  @Schema(description = "Cursor to pass as 'after' to fetch the following items, null on the last page")
+  private String nextCursor;
+
+  @Schema(description = "Cursor to pass as 'before' to fetch the preceding items, null on the first page")
+  private String previousCursor;
+
+  @Schema(description = "Whether items exist after this page")
+  private boolean hasNext;
+
+  @Schema(description = "Whether items exist before this page")
+  private boolean hasPrevious;
+
+  /**
+   * Copies the page metadata to a new container with mapped items.
+   *
+   * @param source page to convert
+   * @param mapper item conversion
+   * @return converted page
+   */
+  public static <T, R> CursorPaginatedData<R> map(CursorPaginatedData<T> source, Function<T, R> mapper) {
+    CursorPaginatedData<R> target = new CursorPaginatedData<>();
+    target.setItems(source.getItems().stream().map(mapper).toList());
+    target.setPageSize(source.getPageSize());
+    target.setNextCursor(source.getNextCursor());
+    target.setPreviousCursor(source.getPreviousCursor());
+    target.setHasNext(source.isHasNext());
+    target.setHasPrevious(source.isHasPrevious());
+    return target;
+  }
+}
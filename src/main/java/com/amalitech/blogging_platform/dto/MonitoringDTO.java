@@ -0,0 +1,221 @@
+package com.amalitech.blogging_platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTOs returned by the monitoring endpoints.
+ */
+public class MonitoringDTO {
+
+  private MonitoringDTO(){}
+
+  @Getter
+  @Setter
+  @Schema(name = "LatencySummary", description = "Summary of a latency histogram, values in milliseconds")
+  public static class Latency {
+    @Schema(description = "Number of recorded values", example = "1520")
+    private long count;
+    @Schema(description = "Mean latency", example = "1.734")
+    private double meanMs;
+    @Schema(description = "Median latency", example = "1.216")
+    private double p50Ms;
+    @Schema(description = "95th percentile latency", example = "4.352")
+    private double p95Ms;
+    @Schema(description = "99th percentile latency", example = "9.728")
+    private double p99Ms;
+    @Schema(description = "Highest recorded latency", example = "31.004")
+    private double maxMs;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "ConnectionPoolMetrics", description = "State and timings of a JDBC connection pool, the primary or a read replica")
+  public static class Pool {
+    private String poolName;
+    @Schema(description = "Connections currently handed out to callers")
+    private int active;
+    @Schema(description = "Connections sitting idle in the pool")
+    private int idle;
+    @Schema(description = "Total connections (active + idle)")
+    private int total;
+    @Schema(description = "Threads currently waiting for a connection")
+    private int pending;
+    private int maxPoolSize;
+    private int minIdle;
+    @Schema(description = "Number of acquisitions that failed with a timeout since startup")
+    private long timeouts;
+    @Schema(description = "Time spent waiting to acquire a connection")
+    private Latency acquisition;
+    @Schema(description = "Time spent opening new physical connections")
+    private Latency creation;
+    @Schema(description = "Time connections were held by callers")
+    private Latency usage;
+    @Schema(description = "Connection hold time grouped by the DAO method that borrowed it")
+    private Map<String, Latency> holdTimeByDaoMethod;
+    @Schema(description = "State of the bulkhead in front of the pool, absent if disabled")
+    private Bulkhead bulkhead;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "BulkheadMetrics", description = "Permits of the semaphore bulkhead limiting concurrent database access")
+  public static class Bulkhead {
+    @Schema(description = "Connections that may be held at the same time")
+    private int maxConcurrent;
+    @Schema(description = "Permits currently taken")
+    private int inUse;
+    @Schema(description = "Callers currently waiting for a permit")
+    private int waiting;
+    @Schema(description = "Callers that gave up after the acquire timeout since startup")
+    private long rejections;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "CacheMetrics", description = "Usage of an in-process entity cache since startup")
+  public static class Cache {
+    @Schema(example = "users")
+    private String name;
+    @Schema(description = "Entries currently cached")
+    private int size;
+    private int maxSize;
+    @Schema(description = "Lookups answered with a cached value")
+    private long hits;
+    @Schema(description = "Lookups answered with a cached \"not found\"")
+    private long negativeHits;
+    @Schema(description = "Lookups that went to the database")
+    private long misses;
+    @Schema(description = "Share of lookups answered from the cache", example = "0.942")
+    private double hitRate;
+    @Schema(description = "Entries dropped because the cache was full")
+    private long evictions;
+    @Schema(description = "Entries dropped because their time to live elapsed")
+    private long expirations;
+    @Schema(description = "Entries dropped because the underlying row was written")
+    private long invalidations;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "StatementCacheMetrics", description = "Reuse of prepared statements by the JDBC driver since startup")
+  public static class Statements {
+    @Schema(description = "Uses of a SQL text on a connection before it is prepared server-side")
+    private int prepareThreshold;
+    @Schema(description = "SQL texts cached per connection")
+    private int cacheQueries;
+    @Schema(description = "Statements prepared by the DAOs")
+    private long prepares;
+    @Schema(description = "Preparations served from the statement cache of the connection")
+    private long hits;
+    @Schema(description = "hits / prepares")
+    private double hitRate;
+    @Schema(description = "Preparations served by a server-side prepared statement (no parsing nor planning)")
+    private long serverPrepared;
+    @Schema(description = "Distinct SQL texts, should stay close to the number of DAO operations")
+    private int distinctStatements;
+    @Schema(description = "Physical connections with a statement cache")
+    private int connections;
+    @Schema(description = "Most prepared statements")
+    private List<Statement> top;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "StatementMetrics", description = "Reuse of one SQL text")
+  public static class Statement {
+    private String sql;
+    private long prepares;
+    private long hits;
+    private double hitRate;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "ReplicaRoutingMetrics", description = "Routing of the DAO reads to the read replicas since startup")
+  public static class Replicas {
+    @Schema(description = "Reads sent to the primary because no replica was available")
+    private long primaryFallbackReads;
+    @Schema(description = "Times no replica was available for a read")
+    private long fallbacks;
+    private List<Replica> replicas;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "ReplicaMetrics", description = "Health and usage of one read replica")
+  public static class Replica {
+    private String name;
+    @Schema(description = "Whether the replica currently serves reads")
+    private boolean available;
+    @Schema(description = "Replication lag at the last check, in seconds")
+    private double lagSeconds;
+    @Schema(description = "Connections handed out for reads")
+    private long reads;
+    @Schema(description = "Failed connections and health checks")
+    private long failures;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "MethodLatencyMetrics", description = "Latency of a service method since startup")
+  public static class MethodLatency {
+    private Latency latency;
+    @Schema(description = "Latency objective of the method, slower calls are logged", example = "1000.0")
+    private double sloMs;
+    @Schema(description = "Calls slower than the objective")
+    private long sloBreaches;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "SqlMetrics", description = "Execution of the SQL statements of the DAOs since startup")
+  public static class Sql {
+    @Schema(description = "Execution time from which a statement is logged as slow", example = "100.0")
+    private double slowQueryThresholdMs;
+    @Schema(description = "Slow queries recorded since startup, the log only keeps the most recent ones")
+    private long slowQueries;
+    @Schema(description = "Distinct SQL texts executed")
+    private int distinctStatements;
+    @Schema(description = "Statements taking the most time overall")
+    private List<SqlStatement> top;
+    @Schema(description = "Time spent obtaining a connection (bulkhead, pool, replica routing) grouped by DAO method")
+    private Map<String, Latency> connectionWaitByDaoMethod;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "SqlStatementMetrics", description = "Executions of one SQL text")
+  public static class SqlStatement {
+    private String sql;
+    private long executions;
+    @Schema(description = "Rows returned or affected")
+    private long rows;
+    @Schema(description = "Time spent executing the statement overall")
+    private double totalMs;
+    @Schema(description = "Execution time, until the first rows are available for queries")
+    private Latency latency;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "SlowQuery", description = "A statement slower than the slow query threshold")
+  public static class SlowQuery {
+    private LocalDateTime at;
+    @Schema(description = "DAO method that ran the statement", example = "PostDAO.getPostDTOs")
+    private String daoMethod;
+    private String sql;
+    @Schema(description = "Types of the bound parameters, values are never kept", example = "[\"String\", \"Integer\", \"Integer\"]")
+    private List<String> parameters;
+    private double durationMs;
+    @Schema(description = "Rows returned or affected, absent if unknown")
+    private Long rows;
+    @Schema(description = "Time spent obtaining the connection the statement ran on")
+    private double connectionWaitMs;
+  }
+}
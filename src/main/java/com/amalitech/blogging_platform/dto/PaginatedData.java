@@ -34,4 +34,11 @@ public class PaginatedData<T> {
 
   @Schema(description = "Total number of elements across all pages", example = "28")
   private int total;
+
+  @Schema(description = "Whether total and totalPages are planner estimates rather than exact counts", example = "false")
+  private boolean totalEstimated;
+
+  public PaginatedData(List<T> items, int page, int pageSize, int totalPages, int total) {
+    this(items, page, pageSize, totalPages, total, false);
+  }
 }
@@ -1,5 +1,6 @@
 package com.amalitech.blogging_platform.dto;
 
+import com.amalitech.blogging_platform.model.EReview;
 import com.amalitech.blogging_platform.model.Review;
 import com.amalitech.blogging_platform.model.Tag;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,6 +12,7 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -67,9 +69,60 @@ public class PostDTO {
     private boolean isDeleted;
     private Set<String> tags;
     private List<Review>  reviews;
+    private ReviewSummary reviewSummary;
     private List<CommentDTO.Out> comments;
   }
 
+  @Getter
+  @Setter
+  @Schema(name = "PostReviewSummary", description = "Aggregates of the reviews of a post")
+  public static class ReviewSummary {
+    @Schema(description = "Number of reviews", example = "12")
+    private long count;
+    @Schema(description = "Average rate, from 1 (ONE) to 5 (FIVE), null without reviews", example = "4.25")
+    private Double average;
+    @Schema(description = "Number of reviews per rate", example = "{\"ONE\": 0, \"TWO\": 1, \"THREE\": 1, \"FOUR\": 4, \"FIVE\": 6}")
+    private Map<EReview, Long> distribution;
+  }
+
+  /**
+   * Outcome of one post of a bulk ingestion.
+   */
+  public enum BulkStatus {
+    /** The post was created. */
+    CREATED,
+    /** The post was rejected before reaching the database (validation, unknown author). */
+    INVALID,
+    /** The database refused the post. */
+    FAILED
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "PostBulkItemResult", description = "Result of one post of a bulk ingestion")
+  public static class BulkItemResult {
+    @Schema(description = "Position of the post in the request", example = "0")
+    private int index;
+    private BulkStatus status;
+    @Schema(description = "Id of the created post", example = "42")
+    private Long id;
+    @Schema(description = "Why the post was not created", example = "title: size must be between 4 and 100")
+    private String error;
+  }
+
+  @Getter
+  @Setter
+  @Schema(name = "PostBulkResult", description = "DTO returned by the server after a bulk ingestion of posts")
+  public static class BulkResult {
+    @Schema(description = "Number of posts received", example = "1000")
+    private int received;
+    @Schema(description = "Number of posts created", example = "998")
+    private int created;
+    @Schema(description = "Number of posts not created", example = "2")
+    private int failed;
+    private List<BulkItemResult> items;
+  }
+
   @Getter
   @Setter
   public static class GraphQL{
@@ -123,17 +176,23 @@ public class PostDTO {
       graphQL.setPageSize(out.getPageSize());
       graphQL.setTotal(out.getTotal());
       graphQL.setTotalPages(out.getTotalPages());
+      graphQL.setTotalEstimated(out.isTotalEstimated());
       graphQL.setItems(out.getItems().stream().map(Converter::toGraphQL).toList());
 
       return graphQL;
     }
 
+    public static CursorPaginatedData<PostDTO.GraphQL>  toGraphQL(CursorPaginatedData<PostDTO.Out> out){
+      return CursorPaginatedData.map(out, Converter::toGraphQL);
+    }
+
     public static PaginatedData<PostDTO.GraphQL>  fromDetaildtoGraphQL(PaginatedData<PostDTO.Detailed> detailed){
       PaginatedData<PostDTO.GraphQL> graphQL = new PaginatedData<>();
       graphQL.setPage(detailed.getPage());
       graphQL.setPageSize(detailed.getPageSize());
       graphQL.setTotal(detailed.getTotal());
       graphQL.setTotalPages(detailed.getTotalPages());
+      graphQL.setTotalEstimated(detailed.isTotalEstimated());
       graphQL.setItems(detailed.getItems().stream().map(Converter::toGraphQL).toList());
 
       return graphQL;
@@ -66,6 +66,7 @@ public class ReviewDTO {
       graphQL.setPageSize(review.getPageSize());
       graphQL.setPage(review.getPage());
       graphQL.setTotalPages(review.getTotalPages());
+      graphQL.setTotalEstimated(review.isTotalEstimated());
       graphQL.setTotal(review.getTotal());
       graphQL.setItems(review.getItems().stream().map(Converter::toGraphQL).toList());
 
@@ -0,0 +1,35 @@
+package com.amalitech.blogging_platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Activity counters of a user (non-deleted posts, comments and reviews).
+ */
+@Getter
+@Setter
+@Schema(name = "UserStats", description = "Number of non-deleted posts, comments and reviews of a user")
+public class UserStatsDTO {
+  private Long userId;
+  @Schema(example = "12")
+  private int postCount;
+  @Schema(example = "48")
+  private int commentCount;
+  @Schema(example = "30")
+  private int reviewCount;
+
+  /**
+   * @return the counters keyed by name ({@code postCount}, {@code commentCount}, {@code reviewCount})
+   */
+  public Map<String, Integer> toMap() {
+    Map<String, Integer> stats = new LinkedHashMap<>();
+    stats.put("postCount", postCount);
+    stats.put("commentCount", commentCount);
+    stats.put("reviewCount", reviewCount);
+    return stats;
+  }
+}
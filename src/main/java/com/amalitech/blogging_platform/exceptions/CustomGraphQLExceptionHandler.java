@@ -41,6 +41,32 @@ public class CustomGraphQLExceptionHandler {
             .build();
   }
 
+  @GraphQlExceptionHandler(InvalidRequestException.class)
+  public GraphQLError handleInvalidRequestException(InvalidRequestException ex) {
+    log.warn("Invalid request", ex);
+
+    return GraphqlErrorBuilder.newError()
+            .message(ex.getMessage())
+            .errorType(ErrorType.ValidationError)
+            .extensions(Map.of(
+                    "code", "BAD_REQUEST"
+            ))
+            .build();
+  }
+
+  @GraphQlExceptionHandler(DeadlineExceededException.class)
+  public GraphQLError handleDeadlineExceededException(DeadlineExceededException ex) {
+    log.warn("Deadline exceeded", ex);
+
+    return GraphqlErrorBuilder.newError()
+            .message(ex.getMessage())
+            .errorType(ErrorType.DataFetchingException)
+            .extensions(Map.of(
+                    "code", "DEADLINE_EXCEEDED"
+            ))
+            .build();
+  }
+
   @GraphQlExceptionHandler(MethodArgumentNotValidException.class)
   public GraphQLError handleValidationException(MethodArgumentNotValidException ex) {
     log.warn("Validation error", ex);
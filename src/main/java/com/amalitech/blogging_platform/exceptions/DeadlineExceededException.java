@@ -0,0 +1,11 @@
+package com.amalitech.blogging_platform.exceptions;
+
+/**
+ * Exception thrown when a request could not be answered within its deadline.
+ * Example: the concurrent sub-queries of a detailed post did not all complete in time.
+ */
+public class DeadlineExceededException extends RuntimeException {
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+}
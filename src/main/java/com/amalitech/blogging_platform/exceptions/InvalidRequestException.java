@@ -0,0 +1,11 @@
+package com.amalitech.blogging_platform.exceptions;
+
+/**
+ * Exception thrown when a request parameter is syntactically valid but cannot be interpreted.
+ * Example: a pagination cursor that was not issued by the server.
+ */
+public class InvalidRequestException extends RuntimeException {
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,210 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Collects instrumentation of the JDBC connection pools.
+ * <p>
+ * Registered on each pool (the primary and the read replicas) as its {@link MetricsTrackerFactory}, it records per pool
+ * acquisition, creation and usage latencies, acquisition timeouts, and reads the live pool state
+ * (active, idle, pending). Connection hold time is additionally grouped by the DAO method
+ * that borrowed the connection, as published by {@link #enterDaoMethod(String)}.
+ * </p>
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+  private static final ThreadLocal<String> CURRENT_DAO_METHOD = new ThreadLocal<>();
+
+  private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    Pool pool = pools.computeIfAbsent(poolName, Pool::new);
+    pool.stats = poolStats;
+    return new Tracker(pool);
+  }
+
+  /**
+   * Reports the state of the bulkhead in front of a pool with the metrics of the pool.
+   *
+   * @param poolName name of the pool
+   * @param bulkhead snapshot of the bulkhead state
+   */
+  public void registerBulkhead(String poolName, Supplier<MonitoringDTO.Bulkhead> bulkhead) {
+    pools.computeIfAbsent(poolName, Pool::new).bulkhead = bulkhead;
+  }
+
+  /**
+   * Marks the current thread as running the given DAO method, so connections
+   * released on this thread are attributed to it.
+   *
+   * @param method DAO method name (e.g. {@code PostDAO.getAll})
+   * @return the previously active method, to be restored with {@link #exitDaoMethod(String)}
+   */
+  public String enterDaoMethod(String method) {
+    String previous = CURRENT_DAO_METHOD.get();
+    CURRENT_DAO_METHOD.set(method);
+    return previous;
+  }
+
+  /**
+   * @return the DAO method running on the current thread, {@code null} outside the DAOs
+   */
+  public String currentDaoMethod() {
+    return CURRENT_DAO_METHOD.get();
+  }
+
+  /**
+   * Restores the DAO method that was active before {@link #enterDaoMethod(String)}.
+   *
+   * @param previous value returned by {@link #enterDaoMethod(String)}
+   */
+  public void exitDaoMethod(String previous) {
+    if (previous == null) {
+      CURRENT_DAO_METHOD.remove();
+    } else {
+      CURRENT_DAO_METHOD.set(previous);
+    }
+  }
+
+  /**
+   * @return number of threads currently waiting for a connection of any pool, {@code 0} before the pools started
+   */
+  public int getPendingThreads() {
+    return sum(PoolStats::getPendingThreads);
+  }
+
+  /**
+   * @return number of connections of all pools currently in use, {@code 0} before the pools started
+   */
+  public int getActiveConnections() {
+    return sum(PoolStats::getActiveConnections);
+  }
+
+  /**
+   * @return number of idle connections of all pools, {@code 0} before the pools started
+   */
+  public int getIdleConnections() {
+    return sum(PoolStats::getIdleConnections);
+  }
+
+  /**
+   * Builds a point-in-time view of the state and the latency histograms of each pool.
+   *
+   * @return metrics snapshot of each pool, sorted by pool name
+   */
+  public List<MonitoringDTO.Pool> snapshot() {
+    return pools.values().stream()
+            .sorted(Comparator.comparing(pool -> pool.name))
+            .map(Pool::snapshot)
+            .toList();
+  }
+
+  private int sum(ToIntFunction<PoolStats> value) {
+    int sum = 0;
+    for (Pool pool : pools.values()) {
+      PoolStats stats = pool.stats;
+      if (stats != null) {
+        sum += value.applyAsInt(stats);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Metrics of one pool.
+   */
+  private static final class Pool {
+    private final String name;
+    private final LatencyHistogram acquisition = new LatencyHistogram();
+    private final LatencyHistogram creation = new LatencyHistogram();
+    private final LatencyHistogram usage = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> holdTimeByDaoMethod = new ConcurrentHashMap<>();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats stats;
+    private volatile Supplier<MonitoringDTO.Bulkhead> bulkhead;
+
+    private Pool(String name) {
+      this.name = name;
+    }
+
+    private MonitoringDTO.Pool snapshot() {
+      MonitoringDTO.Pool pool = new MonitoringDTO.Pool();
+      PoolStats stats = this.stats;
+      pool.setPoolName(name);
+      if (stats != null) {
+        pool.setActive(stats.getActiveConnections());
+        pool.setIdle(stats.getIdleConnections());
+        pool.setTotal(stats.getTotalConnections());
+        pool.setPending(stats.getPendingThreads());
+        pool.setMaxPoolSize(stats.getMaxConnections());
+        pool.setMinIdle(stats.getMinConnections());
+      }
+      pool.setTimeouts(timeouts.sum());
+      pool.setAcquisition(acquisition.snapshot());
+      pool.setCreation(creation.snapshot());
+      pool.setUsage(usage.snapshot());
+
+      Map<String, MonitoringDTO.Latency> holdTimes = new TreeMap<>();
+      holdTimeByDaoMethod.forEach((method, histogram) -> holdTimes.put(method, histogram.snapshot()));
+      pool.setHoldTimeByDaoMethod(holdTimes);
+      Supplier<MonitoringDTO.Bulkhead> bulkhead = this.bulkhead;
+      if (bulkhead != null) {
+        pool.setBulkhead(bulkhead.get());
+      }
+      return pool;
+    }
+  }
+
+  /**
+   * Tracker instance handed to a pool, Hikari calls it on the borrowing/releasing thread.
+   */
+  private static final class Tracker implements IMetricsTracker {
+
+    private final Pool pool;
+
+    private Tracker(Pool pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+      pool.creation.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+      pool.acquisition.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+      long nanos = TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis);
+      pool.usage.record(nanos);
+      String method = CURRENT_DAO_METHOD.get();
+      if (method != null) {
+        pool.holdTimeByDaoMethod.computeIfAbsent(method, m -> new LatencyHistogram()).record(nanos);
+      }
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+      pool.timeouts.increment();
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-size latency histogram with nanosecond resolution.
+ * <p>
+ * Values are stored in log-linear buckets: every power of two is split into 16 sub-buckets,
+ * which bounds the relative error of reported percentiles to 6.25% while keeping the
+ * histogram at a constant ~8 KB regardless of the number of recorded values.
+ * Recording is a couple of atomic increments, so it is safe to call on hot paths.
+ * </p>
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a single latency value.
+   *
+   * @param nanos the measured duration in nanoseconds, negative values are ignored
+   */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      return;
+    }
+    buckets.incrementAndGet(indexOf(nanos));
+    count.increment();
+    sum.add(nanos);
+    max.accumulateAndGet(nanos, Math::max);
+  }
+
+  /**
+   * Adds the values recorded by another histogram to this one.
+   *
+   * @param other histogram to add, may keep recording concurrently
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      long bucket = other.buckets.get(i);
+      if (bucket != 0) {
+        buckets.addAndGet(i, bucket);
+      }
+    }
+    count.add(other.count.sum());
+    sum.add(other.sum.sum());
+    max.accumulateAndGet(other.max.get(), Math::max);
+  }
+
+  /**
+   * @return number of recorded values
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @return sum of the recorded values in nanoseconds
+   */
+  public long getTotal() {
+    return sum.sum();
+  }
+
+  /**
+   * @return largest recorded value in nanoseconds
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value below which the given fraction of recorded values fall.
+   *
+   * @param quantile fraction between 0 and 1 (e.g. 0.99 for p99)
+   * @return the upper bound of the matching bucket in nanoseconds, {@code 0} if nothing was recorded
+   */
+  public long valueAtQuantile(double quantile) {
+    long total = count.sum();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Takes a point-in-time summary of the histogram, expressed in milliseconds.
+   *
+   * @return count, mean, p50, p95, p99 and max of the recorded values
+   */
+  public MonitoringDTO.Latency snapshot() {
+    MonitoringDTO.Latency latency = new MonitoringDTO.Latency();
+    long total = count.sum();
+    latency.setCount(total);
+    latency.setMeanMs(total == 0 ? 0 : toMillis(sum.sum() / total));
+    latency.setP50Ms(toMillis(valueAtQuantile(0.50)));
+    latency.setP95Ms(toMillis(valueAtQuantile(0.95)));
+    latency.setP99Ms(toMillis(valueAtQuantile(0.99)));
+    latency.setMaxMs(toMillis(max.get()));
+    return latency;
+  }
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int msb = 63 - Long.numberOfLeadingZeros(value);
+    int shift = msb - SUB_BUCKET_BITS;
+    int sub = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    return (shift + 1) * SUB_BUCKETS + sub;
+  }
+
+  private static long upperBoundOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    int sub = index % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+
+  private static double toMillis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+}
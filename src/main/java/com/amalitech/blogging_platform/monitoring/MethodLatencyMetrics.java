@@ -0,0 +1,111 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.config.PerformanceProperties;
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of the service methods, with their objective (SLO) and number of breaches.
+ * <p>
+ * Each method gets its entry on first call, later calls only record into its {@link LatencyHistogram},
+ * so measuring a call costs a map lookup and a few atomic increments, without allocation.
+ * </p>
+ */
+@Component
+public class MethodLatencyMetrics {
+
+  /**
+   * Histogram and objective of one method.
+   */
+  public static final class Timer {
+    private final String name;
+    private final long sloNanos;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder breaches = new LongAdder();
+
+    private Timer(String name, long sloNanos) {
+      this.name = name;
+      this.sloNanos = sloNanos;
+    }
+
+    /**
+     * @return {@code Class.method} name of the timed method
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return the objective of the method in nanoseconds
+     */
+    public long getSloNanos() {
+      return sloNanos;
+    }
+
+    /**
+     * Records the duration of a call.
+     *
+     * @param nanos duration of the call in nanoseconds
+     * @return {@code true} if the call exceeded the objective
+     */
+    public boolean record(long nanos) {
+      histogram.record(nanos);
+      if (nanos > sloNanos) {
+        breaches.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private final PerformanceProperties properties;
+  private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+  public MethodLatencyMetrics(PerformanceProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Returns the timer of a method, created on first use.
+   *
+   * @param method the timed method
+   * @return its timer
+   */
+  public Timer timer(Method method) {
+    Timer timer = timers.get(method);
+    if (timer != null) {
+      return timer;
+    }
+    return timers.computeIfAbsent(method, m -> {
+      String className = m.getDeclaringClass().getSimpleName();
+      return new Timer(className + "." + m.getName(), properties.sloOf(className, m.getName()).toNanos());
+    });
+  }
+
+  /**
+   * Builds a point-in-time view of the method latencies, overloads of a method are merged under its name.
+   *
+   * @return latency summary, objective and breaches by {@code Class.method}
+   */
+  public Map<String, MonitoringDTO.MethodLatency> snapshot() {
+    Map<String, MonitoringDTO.MethodLatency> methods = new TreeMap<>();
+    Map<String, LatencyHistogram> merged = new TreeMap<>();
+    timers.values().forEach(timer -> {
+      MonitoringDTO.MethodLatency method = methods.computeIfAbsent(timer.name, name -> {
+        MonitoringDTO.MethodLatency created = new MonitoringDTO.MethodLatency();
+        created.setSloMs(timer.sloNanos / 1_000_000.0);
+        return created;
+      });
+      method.setSloBreaches(method.getSloBreaches() + timer.breaches.sum());
+      merged.computeIfAbsent(timer.name, name -> new LatencyHistogram()).merge(timer.histogram);
+    });
+    merged.forEach((name, histogram) -> methods.get(name).setLatency(histogram.snapshot()));
+    return methods;
+  }
+}
@@ -0,0 +1,160 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.config.SqlMetricsProperties;
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution time and rows of each SQL statement run by the DAOs, connection wait per DAO method, and a log of the
+ * recent slow queries.
+ * <p>
+ * Statements are timed by {@code StatementMetricsDataSource}. The slow query log is a fixed-size ring buffer: recording
+ * is a slot claim and a write, the oldest entries are overwritten once it is full.
+ * </p>
+ */
+@Component
+public class SqlMetrics {
+
+  /** Upper bound of the distinct SQL texts tracked, beyond it new texts are only kept in the slow query log. */
+  private static final int MAX_TRACKED_STATEMENTS = 1000;
+  private static final int TOP_STATEMENTS = 20;
+
+  private static final class Usage {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+  }
+
+  private final boolean enabled;
+  private final long slowQueryThresholdNanos;
+  private final ConnectionPoolMetrics poolMetrics;
+
+  private final Map<String, Usage> statements = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> connectionWaitByDaoMethod = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<MonitoringDTO.SlowQuery> slowQueries;
+  private final AtomicLong slowQueryCount = new AtomicLong();
+
+  public SqlMetrics(SqlMetricsProperties properties, ConnectionPoolMetrics poolMetrics) {
+    this.enabled = properties.enabled();
+    this.slowQueryThresholdNanos = properties.slowQueryThreshold().toNanos();
+    this.slowQueries = new AtomicReferenceArray<>(Math.max(properties.slowQueryCapacity(), 1));
+    this.poolMetrics = poolMetrics;
+  }
+
+  /**
+   * @return {@code true} if the statements should be timed
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return the DAO method running on the current thread, {@code null} outside the DAOs
+   */
+  public String currentDaoMethod() {
+    return poolMetrics.currentDaoMethod();
+  }
+
+  /**
+   * Records the time spent obtaining a connection (bulkhead, pool and replica routing included).
+   *
+   * @param nanos wait in nanoseconds
+   */
+  public void recordConnectionWait(long nanos) {
+    String method = poolMetrics.currentDaoMethod();
+    connectionWaitByDaoMethod.computeIfAbsent(method == null ? "other" : method, m -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * Records the execution of a statement.
+   *
+   * @param sql                SQL text of the statement
+   * @param parameters         types of the bound parameters, in placeholder order
+   * @param nanos              execution time, until the first rows are available for queries
+   * @param rows               rows returned or affected, {@code -1} if unknown
+   * @param connectionWaitNanos time spent obtaining the connection the statement ran on
+   */
+  public void recordExecution(String sql, List<String> parameters, long nanos, long rows, long connectionWaitNanos) {
+    Usage usage = statements.size() < MAX_TRACKED_STATEMENTS
+            ? statements.computeIfAbsent(sql, key -> new Usage())
+            : statements.get(sql);
+    if (usage != null) {
+      usage.latency.record(nanos);
+      if (rows > 0) {
+        usage.rows.add(rows);
+      }
+    }
+
+    if (nanos >= slowQueryThresholdNanos) {
+      MonitoringDTO.SlowQuery slow = new MonitoringDTO.SlowQuery();
+      slow.setAt(LocalDateTime.now());
+      slow.setDaoMethod(currentDaoMethod());
+      slow.setSql(StatementCacheMetrics.preview(sql));
+      slow.setParameters(parameters);
+      slow.setDurationMs(toMillis(nanos));
+      slow.setRows(rows < 0 ? null : rows);
+      slow.setConnectionWaitMs(toMillis(connectionWaitNanos));
+      long slot = slowQueryCount.getAndIncrement();
+      slowQueries.set((int) (slot % slowQueries.length()), slow);
+    }
+  }
+
+  /**
+   * Builds a point-in-time view of the statements taking the most time overall and of the connection waits.
+   *
+   * @return SQL metrics snapshot
+   */
+  public MonitoringDTO.Sql snapshot() {
+    MonitoringDTO.Sql sql = new MonitoringDTO.Sql();
+    sql.setSlowQueryThresholdMs(toMillis(slowQueryThresholdNanos));
+    sql.setSlowQueries(slowQueryCount.get());
+    sql.setDistinctStatements(statements.size());
+    sql.setTop(statements.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Usage> e) -> e.getValue().latency.getTotal()).reversed())
+            .limit(TOP_STATEMENTS)
+            .map(e -> {
+              MonitoringDTO.SqlStatement statement = new MonitoringDTO.SqlStatement();
+              statement.setSql(StatementCacheMetrics.preview(e.getKey()));
+              statement.setExecutions(e.getValue().latency.getCount());
+              statement.setRows(e.getValue().rows.sum());
+              statement.setTotalMs(toMillis(e.getValue().latency.getTotal()));
+              statement.setLatency(e.getValue().latency.snapshot());
+              return statement;
+            })
+            .toList());
+
+    Map<String, MonitoringDTO.Latency> waits = new TreeMap<>();
+    connectionWaitByDaoMethod.forEach((method, histogram) -> waits.put(method, histogram.snapshot()));
+    sql.setConnectionWaitByDaoMethod(waits);
+    return sql;
+  }
+
+  /**
+   * @return the slow queries still in the log, slowest first
+   */
+  public List<MonitoringDTO.SlowQuery> slowQueries() {
+    List<MonitoringDTO.SlowQuery> queries = new ArrayList<>(slowQueries.length());
+    for (int i = 0; i < slowQueries.length(); i++) {
+      MonitoringDTO.SlowQuery query = slowQueries.get(i);
+      if (query != null) {
+        queries.add(query);
+      }
+    }
+    queries.sort(Comparator.comparingDouble(MonitoringDTO.SlowQuery::getDurationMs).reversed());
+    return queries;
+  }
+
+  private static double toMillis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+}
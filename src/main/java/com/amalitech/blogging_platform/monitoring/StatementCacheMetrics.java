@@ -0,0 +1,193 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.config.StatementCacheProperties;
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registry of the SQL texts prepared by the DAOs, with the hit rate of the driver statement cache.
+ * <p>
+ * The driver does not expose its cache, so it is mirrored here: per physical connection, an LRU of the last
+ * {@code cacheQueries} SQL texts with their number of uses. Preparing a text still in the LRU is a hit (the parsed query
+ * is reused), and from the {@code prepareThreshold}-th use on the statement is served by a server-side prepared
+ * statement. A growing number of distinct texts points to SQL built from values instead of placeholders.
+ * Each connection's LRU has its own lock, so prepares on different connections never wait for each other; the LRUs
+ * are held through weak keys and dropped once their connection is garbage collected.
+ * </p>
+ */
+@Component
+public class StatementCacheMetrics {
+
+  /** Upper bound of the distinct SQL texts tracked, beyond it new texts are only counted as misses. */
+  private static final int MAX_TRACKED_STATEMENTS = 1000;
+  private static final int SQL_PREVIEW_LENGTH = 160;
+  private static final int TOP_STATEMENTS = 20;
+
+  private static final class Usage {
+    private final LongAdder prepares = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+  }
+
+  /**
+   * Mirror of the statement cache of one connection: SQL texts in access order with their number of uses.
+   */
+  private static final class Lru {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Integer> uses;
+
+    private Lru(int capacity) {
+      this.uses = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+          return size() > capacity;
+        }
+      };
+    }
+
+    private int use(String sql) {
+      lock.lock();
+      try {
+        return uses.merge(sql, 1, Integer::sum);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Weak, identity-based key of a physical connection.
+   */
+  private static final class ConnectionKey extends WeakReference<Object> {
+    private final int hash;
+
+    private ConnectionKey(Object connection, ReferenceQueue<Object> queue) {
+      super(connection, queue);
+      this.hash = System.identityHashCode(connection);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      Object connection = get();
+      return connection != null && other instanceof ConnectionKey key && key.get() == connection;
+    }
+  }
+
+  private final int prepareThreshold;
+  private final int cacheQueries;
+
+  private final Map<String, Usage> statements = new ConcurrentHashMap<>();
+  private final Map<ConnectionKey, Lru> connections = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+  private final LongAdder prepares = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder serverPrepared = new LongAdder();
+
+  public StatementCacheMetrics(StatementCacheProperties properties) {
+    this.prepareThreshold = properties.prepareThreshold();
+    this.cacheQueries = Math.max(properties.cacheQueries(), 0);
+  }
+
+  /**
+   * Records the preparation of a statement.
+   *
+   * @param physicalConnection driver connection the statement is prepared on, identifies its statement cache
+   * @param sql                SQL text of the statement
+   */
+  public void recordPrepare(Object physicalConnection, String sql) {
+    prepares.increment();
+    Usage usage = statements.size() < MAX_TRACKED_STATEMENTS
+            ? statements.computeIfAbsent(sql, key -> new Usage())
+            : statements.get(sql);
+
+    int uses = lruOf(physicalConnection).use(sql);
+
+    if (usage != null) {
+      usage.prepares.increment();
+    }
+    if (uses > 1) {
+      hits.increment();
+      if (usage != null) {
+        usage.hits.increment();
+      }
+    }
+    if (prepareThreshold > 0 && uses >= prepareThreshold) {
+      serverPrepared.increment();
+    }
+  }
+
+  /**
+   * Takes a point-in-time summary of the statement cache usage.
+   *
+   * @return counters, hit rate and most prepared statements
+   */
+  public MonitoringDTO.Statements snapshot() {
+    MonitoringDTO.Statements snapshot = new MonitoringDTO.Statements();
+    snapshot.setPrepareThreshold(prepareThreshold);
+    snapshot.setCacheQueries(cacheQueries);
+    snapshot.setPrepares(prepares.sum());
+    snapshot.setHits(hits.sum());
+    snapshot.setHitRate(ratio(snapshot.getHits(), snapshot.getPrepares()));
+    snapshot.setServerPrepared(serverPrepared.sum());
+    snapshot.setDistinctStatements(statements.size());
+    expungeCollected();
+    snapshot.setConnections(connections.size());
+    snapshot.setTop(statements.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Usage> e) -> e.getValue().prepares.sum()).reversed())
+            .limit(TOP_STATEMENTS)
+            .map(e -> {
+              MonitoringDTO.Statement statement = new MonitoringDTO.Statement();
+              statement.setSql(preview(e.getKey()));
+              statement.setPrepares(e.getValue().prepares.sum());
+              statement.setHits(e.getValue().hits.sum());
+              statement.setHitRate(ratio(statement.getHits(), statement.getPrepares()));
+              return statement;
+            })
+            .toList());
+    return snapshot;
+  }
+
+  private Lru lruOf(Object physicalConnection) {
+    Lru lru = connections.get(new ConnectionKey(physicalConnection, null));
+    if (lru != null) {
+      return lru;
+    }
+    expungeCollected();
+    return connections.computeIfAbsent(new ConnectionKey(physicalConnection, collected), key -> new Lru(cacheQueries));
+  }
+
+  /**
+   * Drops the LRUs of the connections that were garbage collected.
+   */
+  private void expungeCollected() {
+    for (Reference<?> key; (key = collected.poll()) != null; ) {
+      connections.remove(key);
+    }
+  }
+
+  private static double ratio(long part, long total) {
+    return total == 0 ? 0 : Math.round(part * 1000.0 / total) / 1000.0;
+  }
+
+  static String preview(String sql) {
+    String compact = sql.strip().replaceAll("\\s+", " ");
+    return compact.length() <= SQL_PREVIEW_LENGTH ? compact : compact.substring(0, SQL_PREVIEW_LENGTH) + "...";
+  }
+}
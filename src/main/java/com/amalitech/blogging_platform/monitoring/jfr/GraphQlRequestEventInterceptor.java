@@ -0,0 +1,27 @@
+package com.amalitech.blogging_platform.monitoring.jfr;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Names the {@link RequestEvent} of a GraphQL request after its operation, all of them sharing the {@code /graphql} path.
+ */
+@Component
+public class GraphQlRequestEventInterceptor implements WebGraphQlInterceptor {
+
+  @Override
+  public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null
+            && attributes.getAttribute(RequestEventFilter.EVENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestEvent event) {
+      event.method = "GRAPHQL";
+      event.operation = request.getOperationName() != null ? request.getOperationName() : "anonymous";
+    }
+    return chain.next(request);
+  }
+}
@@ -0,0 +1,74 @@
+package com.amalitech.blogging_platform.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one HTTP request, REST or GraphQL operation.
+ * <p>
+ * The statements run on the request thread are counted into the event, the ones run by fan-out subtasks are
+ * only visible as their own {@link SqlStatementEvent}s.
+ * </p>
+ */
+@Name("com.amalitech.blogging.Request")
+@Label("Request")
+@Category({"Blogging Platform", "Requests"})
+@Description("HTTP request or GraphQL operation served by the application")
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+  private static final ThreadLocal<RequestEvent> CURRENT = new ThreadLocal<>();
+
+  @Label("Method")
+  String method;
+
+  @Label("Operation")
+  @Description("Request path, or name of the GraphQL operation")
+  String operation;
+
+  @Label("Entity")
+  @Description("Entity type targeted by the request, from the REST path")
+  String entity;
+
+  @Label("Entity Id")
+  String entityId;
+
+  @Label("Status")
+  int status;
+
+  @Label("Statements")
+  @Description("SQL statements executed on the request thread")
+  int statements;
+
+  @Label("Rows")
+  @Description("Rows returned or affected by the statements of the request thread")
+  long rows;
+
+  /**
+   * Counts an executed statement into the request being recorded on the current thread, if any.
+   *
+   * @param rows rows returned or affected, {@code -1} if unknown
+   */
+  public static void countStatement(long rows) {
+    RequestEvent event = CURRENT.get();
+    if (event != null) {
+      event.statements++;
+      event.rows += Math.max(rows, 0);
+    }
+  }
+
+  static RequestEvent current() {
+    return CURRENT.get();
+  }
+
+  static void bind(RequestEvent event) {
+    if (event == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(event);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.amalitech.blogging_platform.monitoring.jfr;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link RequestEvent} for each request while a Flight Recorder recording enables it.
+ * <p>
+ * Asynchronous requests (GraphQL over HTTP) are committed when the response completes.
+ * Without a recording, the cost of a request is one enabled check.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestEventFilter extends OncePerRequestFilter {
+
+  static final String EVENT_ATTRIBUTE = RequestEventFilter.class.getName() + ".EVENT";
+
+  private static final String API_PREFIX = "/api/v1/";
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+          throws ServletException, IOException {
+    RequestEvent event = new RequestEvent();
+    if (!event.isEnabled()) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    event.method = request.getMethod();
+    event.operation = request.getRequestURI();
+    describeTarget(event, event.operation);
+    request.setAttribute(EVENT_ATTRIBUTE, event);
+
+    RequestEvent previous = RequestEvent.current();
+    RequestEvent.bind(event);
+    event.begin();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      RequestEvent.bind(previous);
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new CommitOnComplete(event, response));
+      } else {
+        commit(event, response);
+      }
+    }
+  }
+
+  private static void commit(RequestEvent event, HttpServletResponse response) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.status = response.getStatus();
+      event.commit();
+    }
+  }
+
+  /**
+   * Takes the entity type and id from a REST path, {@code /api/v1/post/12/comments} gives {@code post} and {@code 12}.
+   */
+  private static void describeTarget(RequestEvent event, String path) {
+    if (!path.startsWith(API_PREFIX)) {
+      return;
+    }
+    String[] segments = path.substring(API_PREFIX.length()).split("/");
+    event.entity = segments[0];
+    for (int i = 1; i < segments.length; i++) {
+      if (!segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+        event.entityId = segments[i];
+        return;
+      }
+    }
+  }
+
+  private record CommitOnComplete(RequestEvent event, HttpServletResponse response) implements AsyncListener {
+
+    @Override
+    public void onComplete(AsyncEvent asyncEvent) {
+      commit(event, response);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent asyncEvent) {
+    }
+
+    @Override
+    public void onError(AsyncEvent asyncEvent) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent asyncEvent) {
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.amalitech.blogging_platform.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one call of a service method, emitted by the {@code PerformanceAspect}.
+ */
+@Name("com.amalitech.blogging.ServiceCall")
+@Label("Service Call")
+@Category({"Blogging Platform", "Services"})
+@Description("Call of a service layer method")
+@StackTrace(false)
+public class ServiceCallEvent extends jdk.jfr.Event {
+
+  @Label("Method")
+  public String method;
+
+  @Label("Entity")
+  @Description("Entity type handled by the service")
+  public String entity;
+
+  @Label("Entity Ids")
+  @Description("Identifiers passed to the method, truncated")
+  public String entityIds;
+
+  @Label("Rows")
+  @Description("Items returned, -1 for a single value or none")
+  public long rows;
+
+  @Label("Exception")
+  public String exception;
+}
@@ -0,0 +1,43 @@
+package com.amalitech.blogging_platform.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning the execution of one prepared statement, emitted by the
+ * {@code StatementMetricsDataSource}. The duration stops once the driver returns, which for queries is once the
+ * first rows are fetched; the rows are those read from the result set.
+ */
+@Name("com.amalitech.blogging.SqlStatement")
+@Label("SQL Statement")
+@Category({"Blogging Platform", "Database"})
+@Description("Execution of a prepared statement by a DAO")
+@StackTrace(false)
+public class SqlStatementEvent extends jdk.jfr.Event {
+
+  @Label("DAO Method")
+  public String daoMethod;
+
+  @Label("Entity")
+  @Description("Entity type of the DAO")
+  public String entity;
+
+  @Label("SQL")
+  public String sql;
+
+  @Label("Parameters")
+  @Description("Types of the bound parameters, values are not recorded")
+  public String parameters;
+
+  @Label("Rows")
+  @Description("Rows returned or affected, -1 if unknown")
+  public long rows;
+
+  @Label("Connection Wait")
+  @Timespan(Timespan.NANOSECONDS)
+  public long connectionWait;
+}
@@ -2,9 +2,14 @@ package com.amalitech.blogging_platform.service;
 
 
 
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
 import com.amalitech.blogging_platform.dao.CommentDAO;
+import com.amalitech.blogging_platform.dao.ReplicaRoutingDataSource;
 import com.amalitech.blogging_platform.dao.enums.CommentColumn;
 import com.amalitech.blogging_platform.dto.CommentDTO;
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.exceptions.RessourceNotFoundException;
@@ -12,7 +17,13 @@ import com.amalitech.blogging_platform.model.Comment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for managing comments.
@@ -23,10 +34,12 @@ import java.util.List;
 @Service
 public class CommentService {
   private final CommentDAO commentDAO;
+  private final EntityCache<Long, ?> detailedPostCache;
 
   @Autowired
-  public CommentService(CommentDAO commentDAO){
+  public CommentService(CommentDAO commentDAO, EntityCaches caches){
     this.commentDAO = commentDAO;
+    this.detailedPostCache = caches.get(EntityCaches.POSTS_DETAILED);
   }
 
   /**
@@ -42,11 +55,23 @@ public class CommentService {
     dto.setPageSize(res.getPageSize());
     dto.setTotal(res.getTotal());
     dto.setTotalPages(res.getTotalPages());
+    dto.setTotalEstimated(res.isTotalEstimated());
     dto.setItems(res.getItems().stream().map(this::mapToDTO).toList());
 
     return dto;
   }
 
+  /**
+   * Retrieves comments using cursor (keyset) pagination, newest first.
+   *
+   * @param pageRequest object containing the cursor and page size
+   * @return cursor paginated list of CommentDTO.Out
+   */
+  public CursorPaginatedData<CommentDTO.Out> get(CursorPageRequest pageRequest){
+    var res = this.commentDAO.getAll(pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+    return CursorPaginatedData.map(res, this::mapToDTO);
+  }
+
   /**
    * Retrieves a single comment by ID.
    *
@@ -74,6 +99,30 @@ public class CommentService {
             .stream().map(this::mapToDTO).toList();
   }
 
+  /**
+   * Retrieves the comments of several posts in one query.
+   *
+   * @param postIds IDs of the posts
+   * @return comments by post ID, posts without comments are absent
+   */
+  public Map<Long, List<CommentDTO.Out>> getByPostIds(Collection<Long> postIds){
+    return this.commentDAO.findByPostIds(postIds).stream()
+            .map(this::mapToDTO)
+            .collect(Collectors.groupingBy(CommentDTO.Out::getPostId));
+  }
+
+  /**
+   * Retrieves several comments by ID in one query.
+   *
+   * @param ids comment IDs
+   * @return comments by ID, missing or deleted comments are absent
+   */
+  public Map<Long, CommentDTO.Out> getByIds(Collection<Long> ids){
+    return this.commentDAO.findByIds(ids).stream()
+            .map(this::mapToDTO)
+            .collect(Collectors.toMap(CommentDTO.Out::getId, Function.identity()));
+  }
+
   /**
    * Retrieves all comments made by a user.
    *
@@ -92,7 +141,9 @@ public class CommentService {
    * @return CommentDTO.Out representing the created comment
    */
   public CommentDTO.Out create(CommentDTO.In in){
-    return  this.mapToDTO(this.commentDAO.create(this.mapToEntity(in)));
+    Comment created = this.commentDAO.create(this.mapToEntity(in));
+    this.detailedPostCache.invalidate(created.getPostId());
+    return  this.mapToDTO(created);
   }
 
   /**
@@ -108,7 +159,9 @@ public class CommentService {
     if (exist == null)
       throw  new RessourceNotFoundException("Comment not found");
     exist.setBody(body);
-    return this.mapToDTO(this.commentDAO.update(id, exist));
+    Comment updated = this.commentDAO.update(id, exist);
+    this.detailedPostCache.invalidate(exist.getPostId());
+    return this.mapToDTO(updated);
   }
 
   /**
@@ -118,7 +171,24 @@ public class CommentService {
    * @return true if deletion was successful
    */
   public boolean delete (Long id){
-    return this.commentDAO.delete(id);
+    Comment exist = this.commentDAO.get(id);
+    boolean deleted = this.commentDAO.delete(id);
+    if (exist != null)
+      this.detailedPostCache.invalidate(exist.getPostId());
+    return deleted;
+  }
+
+  /**
+   * Streams comments for an export, see {@link CommentDAO#streamAll(LocalDateTime, Consumer, Consumer)}.
+   * The export always reads the primary, a lagging replica would miss the latest changes for good.
+   *
+   * @param since   lower bound of the last change, {@code null} for a full export
+   * @param onStart receives the start time of the read transaction, before the first comment
+   * @param sink    receives each comment
+   * @return number of comments streamed
+   */
+  public long export(LocalDateTime since, Consumer<LocalDateTime> onStart, Consumer<CommentDTO.Out> sink){
+    return ReplicaRoutingDataSource.onPrimary(() -> this.commentDAO.streamAll(since, onStart, comment -> sink.accept(this.mapToDTO(comment))));
   }
 
   /**
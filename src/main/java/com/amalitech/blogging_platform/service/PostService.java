@@ -1,18 +1,40 @@
 package com.amalitech.blogging_platform.service;
 
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
+import com.amalitech.blogging_platform.config.IngestionProperties;
 import com.amalitech.blogging_platform.dao.PostDAO;
+import com.amalitech.blogging_platform.dao.ReplicaRoutingDataSource;
+import com.amalitech.blogging_platform.dao.Transactional;
+import com.amalitech.blogging_platform.dao.Transactions;
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.dto.PostDTO;
-import com.amalitech.blogging_platform.exceptions.DataConflictException;
+import com.amalitech.blogging_platform.exceptions.InvalidRequestException;
 import com.amalitech.blogging_platform.exceptions.RessourceNotFoundException;
 import com.amalitech.blogging_platform.model.Post;
 import com.amalitech.blogging_platform.model.Tag;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Service layer for managing posts.
  * <p>
@@ -25,41 +47,122 @@ public class PostService {
   private final PostDAO postDAO;
   private final TagService tagService;
   private final PostTagsService postTagsService;
+  private final EntityCache<Long, PostDTO.Out> cache;
+  private final EntityCache<Long, PostDTO.Detailed> detailedCache;
+  private final EntityCache<String, Tag> tagByNameCache;
+  private final UserService userService;
+  private final Validator validator;
+  private final IngestionProperties ingestion;
+  private final Transactions transactions;
   private final Logger log = LoggerFactory.getLogger(PostService.class);
 
   @Autowired
-  public PostService(PostDAO postDAO, TagService tagService, PostTagsService postTagsService) {
+  public PostService(PostDAO postDAO, TagService tagService, PostTagsService postTagsService, EntityCaches caches,
+                     UserService userService, Validator validator, IngestionProperties ingestion, Transactions transactions) {
     this.postDAO = postDAO;
     this.tagService = tagService;
     this.postTagsService = postTagsService;
-
+    this.cache = caches.get(EntityCaches.POSTS);
+    this.detailedCache = caches.get(EntityCaches.POSTS_DETAILED);
+    this.tagByNameCache = caches.get(EntityCaches.TAGS_BY_NAME);
+    this.userService = userService;
+    this.validator = validator;
+    this.ingestion = ingestion;
+    this.transactions = transactions;
   }
 
+  @Transactional
   public PostDTO.Out create(PostDTO.In post){
 
     Post newPost =  this.postDAO.create(this.mapToEntity(post));
 
-    post.getTags().forEach(name -> {
-      log.debug("Tag name: {}", name);
-
-      try{
-      Tag t = this.tagService.create(name);
+    if (post.getTags() != null)
+      post.getTags().forEach(name -> {
+        log.debug("Tag name: {}", name);
+        Tag t = this.tagService.getOrCreate(name);
         this.postTagsService.create(newPost.getId(), t.getId());
+      });
+    this.invalidate(newPost.getId());
+    return  this.mapToDTO(newPost);
+  }
 
-      }catch(DataConflictException e){ // if Data conflict is thrown, ignore it and save the post tags
-        Tag t = this.tagService.get(name);
-        this.postTagsService.create(newPost.getId(), t.getId());
-      }
+  /**
+   * Creates many posts, with their tags, for migrations and content imports.
+   * <p>
+   * Each post is validated on its own and the authors are checked with one query, invalid posts are reported
+   * without stopping the others. Valid posts are inserted by chunks of {@code blogging.ingestion.chunk-size}, one
+   * transaction each; if a chunk is refused, its posts are retried one by one to tell the faulty ones apart.
+   * </p>
+   *
+   * @param posts posts to create, at most {@code blogging.ingestion.max-items}
+   * @return the outcome of every post, in the order of the request
+   * @throws InvalidRequestException if there is no post or too many of them
+   */
+  public PostDTO.BulkResult createAll(List<PostDTO.In> posts){
+    if (posts == null || posts.isEmpty())
+      throw new InvalidRequestException("At least one post is required");
+    if (posts.size() > this.ingestion.maxItems())
+      throw new InvalidRequestException("At most " + this.ingestion.maxItems() + " posts can be created at once");
+
+    List<PostDTO.BulkItemResult> results = new ArrayList<>(posts.size());
+    List<Integer> valid = new ArrayList<>();
+    for (int i = 0; i < posts.size(); i++) {
+      PostDTO.In post = posts.get(i);
+      String error = post == null ? "Post is required" : this.validate(post);
+      results.add(bulkItem(i, error == null ? null : PostDTO.BulkStatus.INVALID, error));
+      if (error == null)
+        valid.add(i);
+    }
+
+    Set<Long> authorIds = this.userService.getByIds(valid.stream().map(i -> posts.get(i).getAuthorId()).collect(Collectors.toSet())).keySet();
+    valid.removeIf(i -> {
+      if (authorIds.contains(posts.get(i).getAuthorId()))
+        return false;
+      results.get(i).setStatus(PostDTO.BulkStatus.INVALID);
+      results.get(i).setError("Author not found");
+      return true;
     });
-    return  this.mapToDTO(newPost);
+
+    int chunkSize = Math.max(1, this.ingestion.chunkSize());
+    for (int from = 0; from < valid.size(); from += chunkSize) {
+      List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+      try {
+        this.insertChunk(posts, chunk, results);
+      } catch (RuntimeException e) {
+        log.warn("Bulk chunk of {} posts refused, retrying them one by one", chunk.size());
+        for (Integer index : chunk) {
+          try {
+            this.insertChunk(posts, List.of(index), results);
+          } catch (RuntimeException itemError) {
+            results.get(index).setStatus(PostDTO.BulkStatus.FAILED);
+            results.get(index).setError(itemError.getCause() != null ? itemError.getCause().getMessage() : itemError.getMessage());
+          }
+        }
+      }
+    }
+
+    posts.stream().filter(Objects::nonNull).map(PostDTO.In::getTags).filter(Objects::nonNull).flatMap(Set::stream)
+            .map(name -> name.toLowerCase(Locale.ROOT)).distinct()
+            .forEach(this.tagByNameCache::invalidate);
+
+    PostDTO.BulkResult result = new PostDTO.BulkResult();
+    result.setReceived(posts.size());
+    result.setCreated((int) results.stream().filter(item -> item.getStatus() == PostDTO.BulkStatus.CREATED).count());
+    result.setFailed(posts.size() - result.getCreated());
+    result.setItems(results);
+    log.info("Bulk ingestion: {} posts received, {} created", result.getReceived(), result.getCreated());
+    return result;
   }
 
   public PostDTO.Out update(Long id, PostDTO.In post){
-    return this.mapToDTO(this.postDAO.update(id, this.mapToEntity(post)));
+    Post updated = this.postDAO.update(id, this.mapToEntity(post));
+    this.invalidate(id);
+    return this.mapToDTO(updated);
   }
 
   public void delete(Long id){
     this.postDAO.delete(id);
+    this.invalidate(id);
   }
 
   public PaginatedData<PostDTO.Detailed> search(PageRequest pageRequest, String search, Long tagId, Long authorId){
@@ -72,16 +175,30 @@ public class PostService {
     return this.mapToDTO(res);
   }
 
+  public CursorPaginatedData<PostDTO.Out> get(CursorPageRequest pageRequest){
+    var res = this.postDAO.getAll(pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+    return CursorPaginatedData.map(res, this::mapToDTO);
+  }
+
   public PostDTO.Out get(Long id){
-    var post = this.postDAO.get(id);
+    PostDTO.Out post = this.cache.get(id, key -> {
+      Post entity = this.postDAO.get(key);
+      return entity == null ? null : this.mapToDTO(entity);
+    });
     if(post == null){
       throw new RessourceNotFoundException("Post not found");
     }
-    return this.mapToDTO(post);
+    return post;
+  }
+
+  public Map<Long, PostDTO.Out> getByIds(Collection<Long> ids){
+    return this.postDAO.findByIds(ids).stream()
+            .map(this::mapToDTO)
+            .collect(Collectors.toMap(PostDTO.Out::getId, Function.identity()));
   }
 
   public PostDTO.Detailed getDetailed(Long id){
-    PostDTO.Detailed post = this.postDAO.getPostDTO(id, false);
+    PostDTO.Detailed post = this.detailedCache.get(id, key -> this.postDAO.getPostDTO(key, false));
     if(post == null){
       throw new RessourceNotFoundException("Post not found");
     }
@@ -97,7 +214,66 @@ public class PostService {
 
   }
 
-  private PostDTO.Out mapToDTO(Post post){
+  public CursorPaginatedData<PostDTO.Out> getByAuthorId(Long id, CursorPageRequest pageRequest){
+    var res = this.postDAO.getByAuthorId(id, pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+    return CursorPaginatedData.map(res, this::mapToDTO);
+  }
+
+  /**
+   * Streams posts for an export, see {@link PostDAO#streamAll(LocalDateTime, Consumer, Consumer)}.
+   * The export always reads the primary, a lagging replica would miss the latest changes for good.
+   *
+   * @param since   lower bound of the last change, {@code null} for a full export
+   * @param onStart receives the start time of the read transaction, before the first post
+   * @param sink    receives each post
+   * @return number of posts streamed
+   */
+  public long export(LocalDateTime since, Consumer<LocalDateTime> onStart, Consumer<PostDTO.Out> sink){
+    return ReplicaRoutingDataSource.onPrimary(() -> this.postDAO.streamAll(since, onStart, post -> sink.accept(this.mapToDTO(post))));
+  }
+
+  private void insertChunk(List<PostDTO.In> posts, List<Integer> chunk, List<PostDTO.BulkItemResult> results){
+    List<Post> entities = chunk.stream().map(i -> this.mapToEntity(posts.get(i))).toList();
+    List<Set<String>> tags = chunk.stream().map(i -> posts.get(i).getTags() == null ? Set.<String>of() : posts.get(i).getTags()).toList();
+    this.postDAO.createAll(entities, tags);
+    for (int i = 0; i < chunk.size(); i++) {
+      PostDTO.BulkItemResult item = results.get(chunk.get(i));
+      item.setStatus(PostDTO.BulkStatus.CREATED);
+      item.setId(entities.get(i).getId());
+      this.invalidate(item.getId());
+    }
+  }
+
+  private String validate(PostDTO.In post){
+    if (post.getAuthorId() == null)
+      return "authorId: must not be null";
+    if (post.getTags() != null && post.getTags().stream().anyMatch(name -> name == null || name.isBlank()))
+      return "tags: must not contain blank names";
+    Set<ConstraintViolation<PostDTO.In>> violations = this.validator.validate(post);
+    if (violations.isEmpty())
+      return null;
+    return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+  }
+
+  private static PostDTO.BulkItemResult bulkItem(int index, PostDTO.BulkStatus status, String error){
+    PostDTO.BulkItemResult item = new PostDTO.BulkItemResult();
+    item.setIndex(index);
+    item.setStatus(status);
+    item.setError(error);
+    return item;
+  }
+
+  private void invalidate(Long id){
+    this.transactions.afterCommit(() -> {
+      this.cache.invalidate(id);
+      this.detailedCache.invalidate(id);
+    });
+  }
+
+  PostDTO.Out mapToDTO(Post post){
     PostDTO.Out dto = new PostDTO.Out();
     dto.setId(post.getId());
     dto.setTitle(post.getTitle());
@@ -120,12 +296,13 @@ public class PostService {
     return post;
   }
 
-  private PaginatedData<PostDTO.Out> mapToDTO(PaginatedData<Post> posts){
+  PaginatedData<PostDTO.Out> mapToDTO(PaginatedData<Post> posts){
     PaginatedData<PostDTO.Out> dto = new PaginatedData<>();
     dto.setPage(posts.getPage());
     dto.setPageSize(posts.getPageSize());
     dto.setTotal(posts.getTotal());
     dto.setTotalPages(posts.getTotalPages());
+    dto.setTotalEstimated(posts.isTotalEstimated());
     dto.setItems(posts.getItems().stream().map(this::mapToDTO).toList());
 
     return dto;
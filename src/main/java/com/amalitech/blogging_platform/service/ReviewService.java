@@ -1,6 +1,10 @@
 package com.amalitech.blogging_platform.service;
 
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
 import com.amalitech.blogging_platform.dao.ReviewDAO;
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.dto.ReviewDTO;
@@ -10,21 +14,30 @@ import com.amalitech.blogging_platform.model.Review;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ReviewService {
 
   private final ReviewDAO reviewDAO;
+  private final EntityCache<Long, ?> detailedPostCache;
   @Autowired
-  public ReviewService(ReviewDAO reviewDAO) {
+  public ReviewService(ReviewDAO reviewDAO, EntityCaches caches) {
     this.reviewDAO = reviewDAO;
+    this.detailedPostCache = caches.get(EntityCaches.POSTS_DETAILED);
   }
 
   public PaginatedData<Review> get(PageRequest pageRequest) {
     return this.reviewDAO.getAll(pageRequest.getPage(), pageRequest.getSize());
   }
 
+  public CursorPaginatedData<Review> get(CursorPageRequest pageRequest) {
+    return this.reviewDAO.getAll(pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+  }
+
   public Review get(Long id) {
     var review = this.reviewDAO.get(id);
     if(review == null)
@@ -38,12 +51,18 @@ public class ReviewService {
     return this.reviewDAO.getByPostId(postId);
   }
 
+  public Map<Long, List<Review>> getByPostIds(Collection<Long> postIds){
+    return this.reviewDAO.findByPostIds(postIds).stream().collect(Collectors.groupingBy(Review::getPostId));
+  }
+
   public List<Review> getByUserId(Long userId){
     return this.reviewDAO.getByUserId(userId);
   }
 
   public Review create(ReviewDTO.In review){
-    return this.reviewDAO.create(this.mapToReview((review)));
+    Review created = this.reviewDAO.create(this.mapToReview((review)));
+    this.detailedPostCache.invalidate(review.getPostId());
+    return created;
   }
 
   public Review update(Long id, EReview eReview){
@@ -52,11 +71,17 @@ public class ReviewService {
       throw new RessourceNotFoundException("Review not found");
     }
     review.setRate(eReview.name());
-    return this.reviewDAO.update(id, review);
+    Review updated = this.reviewDAO.update(id, review);
+    this.detailedPostCache.invalidate(review.getPostId());
+    return updated;
   }
 
   public boolean delete(Long id){
-    return this.reviewDAO.delete(id);
+    Review review = this.reviewDAO.get(id);
+    boolean deleted = this.reviewDAO.delete(id);
+    if (review != null)
+      this.detailedPostCache.invalidate(review.getPostId());
+    return deleted;
   }
 
   private Review mapToReview(ReviewDTO.In dto){
@@ -1,6 +1,12 @@
 package com.amalitech.blogging_platform.service;
 
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
 import com.amalitech.blogging_platform.dao.TagDAO;
+import com.amalitech.blogging_platform.dao.Transactional;
+import com.amalitech.blogging_platform.dao.Transactions;
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.exceptions.DataConflictException;
@@ -10,39 +16,68 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class TagService {
   private final TagDAO tagDAO;
   private final PostTagsService postTagsService;
+  private final EntityCache<Long, Tag> cache;
+  private final EntityCache<String, Tag> cacheByName;
+  private final EntityCache<Long, ?> detailedPostCache;
+  private final Transactions transactions;
 
   @Autowired
-  public TagService(TagDAO tagDAO, PostTagsService postTagsService) {
+  public TagService(TagDAO tagDAO, PostTagsService postTagsService, EntityCaches caches, Transactions transactions) {
     this.tagDAO = tagDAO;
     this.postTagsService = postTagsService;
+    this.transactions = transactions;
+    this.cache = caches.get(EntityCaches.TAGS);
+    this.cacheByName = caches.get(EntityCaches.TAGS_BY_NAME);
+    this.detailedPostCache = caches.get(EntityCaches.POSTS_DETAILED);
   }
   public PaginatedData<Tag> get(PageRequest pageRequest){
     return this.tagDAO.getAll(pageRequest.getPage(), pageRequest.getSize());
   }
 
+  public CursorPaginatedData<Tag> get(CursorPageRequest pageRequest){
+    return this.tagDAO.getAll(pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+  }
+
+
+  public List<Tag> autocomplete(String keyword, Integer limit){
+    return this.tagDAO.search(keyword, limit == null ? 10 : limit);
+  }
 
   public Tag get(Long id){
-    return this.tagDAO.get(id);
+    return this.cache.get(id, this.tagDAO::get);
+  }
+
+  public Map<Long, List<Tag>> getByPostIds(Collection<Long> postIds){
+    return this.tagDAO.findByPostIds(postIds);
   }
 
   public Tag get(String name){
-    return this.tagDAO.get(name);
+    if (name == null)
+      return null;
+    return this.cacheByName.get(nameKey(name), this.tagDAO::get);
   }
 
   public Tag create(String name){
     Tag exist = this.tagDAO.get(name);
     Tag t = new Tag();
     t.setName(name);
+    // Drops a cached "not found", or a stale entry if the tag was created by another node
+    this.cacheByName.invalidate(nameKey(name));
     if (exist != null){
       throw new DataConflictException("Tag name already exists");
     }
-   return this.tagDAO.create(t);
+    Tag created = this.tagDAO.create(t);
+    this.cache.invalidate(created.getId());
+    return created;
   }
 
   public Tag update(Long id, String name){
@@ -54,20 +89,50 @@ public class TagService {
     if (existing != null){
       throw new DataConflictException("Tag name already exists");
     }
+    String oldName = exist.getName();
     exist.setName(name);
-    return this.tagDAO.update(id, exist);
+    Tag updated = this.tagDAO.update(id, exist);
+    this.cache.invalidate(id);
+    this.cacheByName.invalidate(nameKey(oldName));
+    this.cacheByName.invalidate(nameKey(name));
+    // Detailed posts embed tag names and are not indexed by tag
+    this.detailedPostCache.invalidateAll();
+    return updated;
   }
 
   public void delete(Long id){
+    Tag exist = this.tagDAO.get(id);
     this.tagDAO.delete(id);
+    this.cache.invalidate(id);
+    if (exist != null)
+      this.cacheByName.invalidate(nameKey(exist.getName()));
+    this.detailedPostCache.invalidateAll();
   }
 
+  /**
+   * Returns the tag with this name, creating it if it does not exist yet.
+   * Safe against concurrent calls for the same name, see {@link TagDAO#createIfAbsent(String)}.
+   *
+   * @param name tag name, matched case-insensitively
+   * @return the existing or created tag
+   */
+  public Tag getOrCreate(String name){
+    Tag exist = this.tagDAO.get(name);
+    if (exist != null)
+      return exist;
+    Tag created = this.tagDAO.createIfAbsent(name);
+    this.transactions.afterCommit(() -> {
+      this.cacheByName.invalidate(nameKey(name));
+      this.cache.invalidate(created.getId());
+    });
+    return created;
+  }
+
+  @Transactional
   public void updatePostTags(Long postId, List<String> tags){
     this.postTagsService.deletePostTags(postId);
-    tags.forEach(tagName -> {
-      Tag tag = this.create(tagName);
-      this.postTagsService.create(postId, tag.getId());
-    });
+    tags.forEach(tagName -> this.postTagsService.create(postId, this.getOrCreate(tagName).getId()));
+    this.transactions.afterCommit(() -> this.detailedPostCache.invalidate(postId));
   }
 
   public List<Tag> getTop(int limit){
@@ -76,4 +141,7 @@ public class TagService {
     return tags;
   }
 
+  private static String nameKey(String name){
+    return name.toLowerCase(Locale.ROOT);
+  }
 }
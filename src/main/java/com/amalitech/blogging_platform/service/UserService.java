@@ -1,48 +1,70 @@
 package com.amalitech.blogging_platform.service;
 
 
-import com.amalitech.blogging_platform.dao.CommentDAO;
-import com.amalitech.blogging_platform.dao.PostDAO;
+import com.amalitech.blogging_platform.cache.EntityCache;
+import com.amalitech.blogging_platform.cache.EntityCaches;
 import com.amalitech.blogging_platform.dao.UserDAO;
-import com.amalitech.blogging_platform.dao.enums.CommentColumn;
+import com.amalitech.blogging_platform.dao.UserStatsDAO;
 import com.amalitech.blogging_platform.dao.enums.UserColumn;
+import com.amalitech.blogging_platform.dto.CursorPageRequest;
+import com.amalitech.blogging_platform.dto.CursorPaginatedData;
 import com.amalitech.blogging_platform.dto.PageRequest;
 import com.amalitech.blogging_platform.dto.PaginatedData;
 import com.amalitech.blogging_platform.dto.UserDTO;
+import com.amalitech.blogging_platform.dto.UserStatsDTO;
+import com.amalitech.blogging_platform.exceptions.InvalidRequestException;
 import com.amalitech.blogging_platform.exceptions.RessourceNotFoundException;
 import com.amalitech.blogging_platform.model.User;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
+  /** Maximum number of users whose stats can be requested at once. */
+  public static final int MAX_STATS_BATCH = 100;
+
   private final PasswordHashService passwordHashService;
   private final UserDAO userDAO;
-  private final PostDAO postDAO;
-  private final CommentDAO commentDAO;
-  private final ReviewService reviewService;
+  private final UserStatsDAO userStatsDAO;
+  private final EntityCache<Long, UserDTO.Out> cache;
+  private final EntityCache<Long, ?> detailedPostCache;
 
-  public UserService(PasswordHashService passwordHashService, UserDAO userDAO, PostDAO postDAO, CommentDAO commentDAO, ReviewService reviewService) {
+  public UserService(PasswordHashService passwordHashService, UserDAO userDAO, UserStatsDAO userStatsDAO, EntityCaches caches) {
     this.passwordHashService = passwordHashService;
     this.userDAO = userDAO;
-    this.postDAO = postDAO;
-    this.commentDAO = commentDAO;
-    this.reviewService = reviewService;
+    this.userStatsDAO = userStatsDAO;
+    this.cache = caches.get(EntityCaches.USERS);
+    this.detailedPostCache = caches.get(EntityCaches.POSTS_DETAILED);
   }
 
 
   public UserDTO.Out create(UserDTO.In user){
     User createdUser = this.userDAO.create(this.mapToUser(user));
+    this.cache.invalidate(createdUser.getId());
     return this.mapToUserDTO(createdUser);
   }
 
   public UserDTO.Out get(Long id){
-    User response = this.userDAO.get(id);
+    UserDTO.Out response = this.cache.get(id, key -> {
+      User user = this.userDAO.get(key);
+      return user == null ? null : this.mapToUserDTO(user);
+    });
     if(response == null)
       throw new RessourceNotFoundException("User not found");
-    return this.mapToUserDTO(response);
+    return response;
+  }
+
+  public Map<Long, UserDTO.Out> getByIds(Collection<Long> ids){
+    return this.userDAO.findByIds(ids).stream()
+            .map(this::mapToUserDTO)
+            .collect(Collectors.toMap(UserDTO.Out::getId, Function.identity()));
   }
 
   public UserDTO.Out getByUsername(String username){
@@ -52,6 +74,10 @@ public class UserService {
       throw new RessourceNotFoundException("User not found");
     return this.mapToUserDTO(response);  }
 
+  public List<UserDTO.Out> autocomplete(String keyword, Integer limit){
+    return this.userDAO.search(keyword, limit == null ? 10 : limit).stream().map(this::mapToUserDTO).toList();
+  }
+
   public PaginatedData<UserDTO.Out> get(PageRequest pageRequest){
     PaginatedData<User> response = this.userDAO.getAll(pageRequest.getPage(), pageRequest.getSize());
     PaginatedData<UserDTO.Out> paginatedData = new PaginatedData<>();
@@ -60,40 +86,85 @@ public class UserService {
     paginatedData.setPageSize(response.getPageSize());
     paginatedData.setTotal(response.getTotal());
     paginatedData.setTotalPages(response.getTotalPages());
+    paginatedData.setTotalEstimated(response.isTotalEstimated());
     return paginatedData;
   }
 
+  public CursorPaginatedData<UserDTO.Out> get(CursorPageRequest pageRequest){
+    CursorPaginatedData<User> response = this.userDAO.getAll(pageRequest.afterCursor(), pageRequest.beforeCursor(), pageRequest.getSize());
+    return CursorPaginatedData.map(response, this::mapToUserDTO);
+  }
+
 
   public UserDTO.Out update(Long id, UserDTO.In user){
     User oldUser = this.userDAO.get(id);
     user.setPassword(oldUser.getPassword());
-    return this.mapToUserDTO(this.userDAO.update(id, this.mapToUser(user)));
+    User updatedUser = this.userDAO.update(id, this.mapToUser(user));
+    this.cache.invalidate(id);
+    // Detailed posts embed the author name and are not indexed by author
+    this.detailedPostCache.invalidateAll();
+    return this.mapToUserDTO(updatedUser);
   }
 
 
   public boolean delete (Long id){
-    return this.userDAO.delete(id);
+    boolean deleted = this.userDAO.delete(id);
+    this.cache.invalidate(id);
+    return deleted;
   }
 
+  /**
+   * Reads the activity counters of a user, maintained by the database on every post, comment and review write.
+   *
+   * @param userId id of the user
+   * @return {@code postCount}, {@code commentCount} and {@code reviewCount}
+   * @throws RessourceNotFoundException if the user does not exist
+   */
   public Map<String, Integer> getUserStats(Long userId){
-    Map<String, Integer> response = new HashMap<>();
-    int postsCount = postDAO.getByAuthorId(userId, 1, Integer.MAX_VALUE).getItems().size();
-    response.put("postCount", postsCount);
-
-    int commentsCount = this.commentDAO.findBy(String.valueOf(userId), CommentColumn.USER_ID, false).size();
-    response.put("commentsCount", commentsCount);
-
-    int reviewsCount = this.reviewService.getByUserId(userId).size();
-    response.put("reviewsCount", reviewsCount);
-
-    return response;
+    return this.getUserStats(userId, true);
   }
 
+  /**
+   * @param userId          id of the user
+   * @param withPerformance {@code true} reads the maintained counters, {@code false} counts from the source tables
+   * @return {@code postCount}, {@code commentCount} and {@code reviewCount}
+   * @throws RessourceNotFoundException if the user does not exist
+   */
   public Map<String, Integer> getUserStats(Long userId, boolean withPerformance){
-    if (!withPerformance)
-      return this.getUserStats(userId);
+    List<Long> ids = List.of(userId);
+    UserStatsDTO stats = (withPerformance ? this.userStatsDAO.findByUserIds(ids) : this.userStatsDAO.computeByUserIds(ids)).get(userId);
+    if (stats == null)
+      throw new RessourceNotFoundException("User not found");
+    return stats.toMap();
+  }
+
+  /**
+   * Reads the activity counters of several users in one query (leaderboards).
+   *
+   * @param userIds ids of the users, at most {@link #MAX_STATS_BATCH}
+   * @return counters in the order of the ids, unknown users are skipped
+   * @throws InvalidRequestException if too many ids are given
+   */
+  public List<UserStatsDTO> getUserStats(List<Long> userIds){
+    Collection<Long> ids = new LinkedHashSet<>(userIds);
+    if (ids.size() > MAX_STATS_BATCH)
+      throw new InvalidRequestException("At most " + MAX_STATS_BATCH + " users per request");
+    Map<Long, UserStatsDTO> stats = this.userStatsDAO.findByUserIds(ids);
+    return ids.stream().map(stats::get).filter(Objects::nonNull).toList();
+  }
 
-    return this.userDAO.getUserStats(userId);
+  /**
+   * Recomputes the stored counters of some users from the source tables, writes to these tables wait meanwhile.
+   *
+   * @param userIds users to rebuild, at least one and at most {@link #MAX_STATS_BATCH}
+   * @return number of counter rows written
+   * @throws InvalidRequestException if no id or too many ids are given
+   */
+  public int rebuildUserStats(List<Long> userIds){
+    Collection<Long> ids = userIds == null ? List.of() : new LinkedHashSet<>(userIds);
+    if (ids.isEmpty() || ids.size() > MAX_STATS_BATCH)
+      throw new InvalidRequestException("Between 1 and " + MAX_STATS_BATCH + " users per rebuild");
+    return this.userStatsDAO.rebuild(ids);
   }
 
   private User mapToUser(UserDTO.In in){
@@ -0,0 +1,130 @@
+package com.amalitech.blogging_platform.cache;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading, invalidation and bounds of {@link EntityCache}, with loaders counting the database reads they stand for.
+ */
+class EntityCacheTest {
+
+  private static final long TTL = TimeUnit.MINUTES.toNanos(5);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void concurrentMissesOfAKeyShareOneLoad() throws InterruptedException {
+    EntityCache<Long, String> cache = new EntityCache<>("posts", 10, TTL, TTL);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ConcurrentLinkedQueue<String> results = new ConcurrentLinkedQueue<>();
+
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      readers.add(Thread.ofPlatform().start(() -> results.add(cache.get(1L, id -> {
+        loads.incrementAndGet();
+        loading.countDown();
+        await(release);
+        return "post 1";
+      }))));
+    }
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    // Every reader is parked: the loading one on the release, the others on the load in flight
+    while (readers.stream().filter(reader -> reader.getState() == Thread.State.WAITING).count() < readers.size()) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertThat(loads).hasValue(1);
+    assertThat(results).hasSize(8).containsOnly("post 1");
+    assertThat(cache.snapshot().getMisses()).isEqualTo(8);
+  }
+
+  @Test
+  void invalidationDuringALoadPreventsTheStaleValueFromBeingStored() {
+    EntityCache<Long, String> cache = new EntityCache<>("users", 10, TTL, TTL);
+
+    String loaded = cache.get(1L, id -> {
+      loads.incrementAndGet();
+      // A write committed by another thread after the row was read
+      cache.invalidate(id);
+      return "old name";
+    });
+
+    assertThat(loaded).isEqualTo("old name");
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get(1L, id -> {
+      loads.incrementAndGet();
+      return "new name";
+    })).isEqualTo("new name");
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void notFoundIsRememberedUntilTheNegativeTtlElapses() throws InterruptedException {
+    EntityCache<Long, String> cache = new EntityCache<>("users", 10, TTL, TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertThat(cache.get(404L, this::missing)).isNull();
+    assertThat(cache.get(404L, this::missing)).isNull();
+    assertThat(loads).hasValue(1);
+
+    Thread.sleep(100);
+    assertThat(cache.get(404L, this::missing)).isNull();
+
+    MonitoringDTO.Cache snapshot = cache.snapshot();
+    assertThat(loads).hasValue(2);
+    assertThat(snapshot.getNegativeHits()).isEqualTo(1);
+    assertThat(snapshot.getExpirations()).isEqualTo(1);
+  }
+
+  @Test
+  void fullCacheEvictsTheLeastRecentlyUsedEntry() {
+    EntityCache<Long, String> cache = new EntityCache<>("tags", 2, TTL, TTL);
+
+    cache.get(1L, this::load);
+    cache.get(2L, this::load);
+    cache.get(1L, this::load);
+    cache.get(3L, this::load);
+
+    MonitoringDTO.Cache snapshot = cache.snapshot();
+    assertThat(snapshot.getEvictions()).isEqualTo(1);
+    assertThat(snapshot.getSize()).isEqualTo(2);
+    assertThat(loads).hasValue(3);
+
+    cache.get(1L, this::load);
+    assertThat(loads).hasValue(3);
+    cache.get(2L, this::load);
+    assertThat(loads).hasValue(4);
+  }
+
+  private String load(Long id) {
+    loads.incrementAndGet();
+    return "tag " + id;
+  }
+
+  private String missing(Long id) {
+    loads.incrementAndGet();
+    return null;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
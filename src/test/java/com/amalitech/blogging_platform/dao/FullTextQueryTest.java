@@ -0,0 +1,41 @@
+package com.amalitech.blogging_platform.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullTextQueryTest {
+
+  @Test
+  void wordsAreAllRequiredAndTheLastOneIsAPrefixWhileTyping() {
+    assertThat(FullTextQuery.toTsQuery("java spring")).isEqualTo("java & spring:*");
+    assertThat(FullTextQuery.toTsQuery("java spring ")).isEqualTo("java & spring");
+  }
+
+  @Test
+  void quotedWordsArePhrases() {
+    assertThat(FullTextQuery.toTsQuery("\"Spring Boot\" tips")).isEqualTo("(spring <-> boot) & tips:*");
+    assertThat(FullTextQuery.toTsQuery("\"spring boot")).isEqualTo("(spring <-> boot)");
+  }
+
+  @Test
+  void supportsPrefixesExclusionsAndOr() {
+    assertThat(FullTextQuery.toTsQuery("post* -draft ")).isEqualTo("post:* & !draft");
+    assertThat(FullTextQuery.toTsQuery("-\"old news\" java")).isEqualTo("!(old <-> news) & java:*");
+    assertThat(FullTextQuery.toTsQuery("java or kotlin ")).isEqualTo("java | kotlin");
+    assertThat(FullTextQuery.toTsQuery("or java ")).isEqualTo("java");
+  }
+
+  @Test
+  void operatorsOfTheUserNeverReachTheExpression() {
+    assertThat(FullTextQuery.toTsQuery("c++ & (rust|go) ")).isEqualTo("c & (rust <-> go)");
+    assertThat(FullTextQuery.toTsQuery("café!")).isEqualTo("café:*");
+    assertThat(FullTextQuery.toTsQuery("!!! & | :*")).isNull();
+  }
+
+  @Test
+  void blankInputHasNoQuery() {
+    assertThat(FullTextQuery.toTsQuery(null)).isNull();
+    assertThat(FullTextQuery.toTsQuery("   ")).isNull();
+  }
+}
@@ -0,0 +1,29 @@
+package com.amalitech.blogging_platform.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyMatchTest {
+
+  @Test
+  void containsPatternWrapsTheTerm() {
+    assertThat(FuzzyMatch.containsPattern("java")).isEqualTo("%java%");
+  }
+
+  @Test
+  void containsPatternEscapesLikeWildcards() {
+    assertThat(FuzzyMatch.containsPattern("100%")).isEqualTo("%100\\%%");
+    assertThat(FuzzyMatch.containsPattern("snake_case")).isEqualTo("%snake\\_case%");
+    assertThat(FuzzyMatch.containsPattern("a\\b")).isEqualTo("%a\\\\b%");
+    assertThat(FuzzyMatch.containsPattern("\\%_")).isEqualTo("%\\\\\\%\\_%");
+  }
+
+  @Test
+  void boundedLimitStaysWithinOneAndTheMaximum() {
+    assertThat(FuzzyMatch.boundedLimit(-5)).isEqualTo(1);
+    assertThat(FuzzyMatch.boundedLimit(0)).isEqualTo(1);
+    assertThat(FuzzyMatch.boundedLimit(7)).isEqualTo(7);
+    assertThat(FuzzyMatch.boundedLimit(1000)).isEqualTo(FuzzyMatch.MAX_LIMIT);
+  }
+}
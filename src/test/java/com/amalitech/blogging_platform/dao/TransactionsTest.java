@@ -0,0 +1,150 @@
+package com.amalitech.blogging_platform.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit of work of {@link Transactions} over a {@link TransactionalDataSource}, with a fake connection recording
+ * the calls that reach it.
+ */
+class TransactionsTest {
+
+  private final List<String> calls = new ArrayList<>();
+  private int borrowed;
+  private TransactionalDataSource dataSource;
+  private Transactions transactions;
+
+  @BeforeEach
+  void setUp() {
+    DataSource delegate = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getConnection")) {
+                borrowed++;
+                return connection();
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+    dataSource = new TransactionalDataSource(delegate);
+    transactions = new Transactions();
+  }
+
+  @Test
+  void nestedUnitsShareOneConnectionAndOnlyTheOutermostCommits() {
+    transactions.run(() -> {
+      Connection outer = connection(dataSource);
+      transactions.run(() -> {
+        assertThat(connection(dataSource)).isSameAs(outer);
+        close(outer);
+      });
+      assertThat(calls).doesNotContain("commit", "close");
+      assertThat(transactions.isActive()).isTrue();
+    });
+
+    assertThat(borrowed).isEqualTo(1);
+    assertThat(calls).containsExactly("setAutoCommit(false)", "commit", "setAutoCommit(true)", "close");
+    assertThat(transactions.isActive()).isFalse();
+  }
+
+  @Test
+  void failureOfAnInnerUnitRollsBackTheOuterOne() {
+    assertThatThrownBy(() -> transactions.run(() -> {
+      connection(dataSource);
+      transactions.run(() -> {
+        throw new IllegalArgumentException("inner");
+      });
+    })).isInstanceOf(IllegalArgumentException.class).hasMessage("inner");
+
+    assertThat(calls).contains("rollback").doesNotContain("commit");
+  }
+
+  @Test
+  void rollbackByADaoMarksTheUnitRollbackOnly() {
+    assertThatThrownBy(() -> transactions.run(() -> {
+      Connection connection = connection(dataSource);
+      try {
+        connection.rollback();
+        connection.commit();
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    })).isInstanceOf(IllegalStateException.class).hasMessageContaining("rolled back");
+
+    assertThat(calls).containsExactly("setAutoCommit(false)", "rollback", "setAutoCommit(true)", "close");
+  }
+
+  @Test
+  void afterCommitActionsRunOnCommitOnly() {
+    List<String> actions = new ArrayList<>();
+
+    transactions.run(() -> {
+      connection(dataSource);
+      transactions.afterCommit(() -> actions.add("committed"));
+      assertThat(actions).isEmpty();
+    });
+    assertThatThrownBy(() -> transactions.run(() -> {
+      connection(dataSource);
+      transactions.afterCommit(() -> actions.add("rolled back"));
+      throw new IllegalArgumentException("failed");
+    })).isInstanceOf(IllegalArgumentException.class);
+
+    assertThat(actions).containsExactly("committed");
+  }
+
+  @Test
+  void afterCommitRunsImmediatelyOutsideAUnitOfWork() {
+    List<String> actions = new ArrayList<>();
+
+    transactions.afterCommit(() -> actions.add("now"));
+
+    assertThat(actions).containsExactly("now");
+  }
+
+  @Test
+  void unitWithoutStatementsBorrowsNoConnection() {
+    assertThat(transactions.execute(() -> 42)).isEqualTo(42);
+
+    assertThat(borrowed).isZero();
+  }
+
+  private Connection connection() {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+              case "setAutoCommit" -> {
+                calls.add("setAutoCommit(" + args[0] + ")");
+                yield null;
+              }
+              case "commit", "rollback", "close" -> {
+                calls.add(method.getName());
+                yield null;
+              }
+              case "isClosed" -> false;
+              default -> throw new UnsupportedOperationException(method.getName());
+            });
+  }
+
+  private static Connection connection(DataSource dataSource) {
+    try {
+      return dataSource.getConnection();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.amalitech.blogging_platform.dto;
+
+import com.amalitech.blogging_platform.exceptions.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+  @Test
+  void decodeReversesEncode() {
+    Cursor cursor = new Cursor(LocalDateTime.of(2025, 1, 31, 10, 15, 30, 123_456_000), 42);
+
+    assertThat(Cursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void encodedCursorIsUrlSafe() {
+    String encoded = new Cursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_999_000), Long.MAX_VALUE).encode();
+
+    assertThat(encoded).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  void missingCursorDecodesToNull() {
+    assertThat(Cursor.decode(null)).isNull();
+    assertThat(Cursor.decode(" ")).isNull();
+  }
+
+  @Test
+  void malformedCursorIsAnInvalidRequest() {
+    assertThatThrownBy(() -> Cursor.decode("not a cursor!")).isInstanceOf(InvalidRequestException.class);
+    assertThatThrownBy(() -> Cursor.decode(encode("2025-01-31T10:15:30"))).isInstanceOf(InvalidRequestException.class);
+    assertThatThrownBy(() -> Cursor.decode(encode("yesterday|42"))).isInstanceOf(InvalidRequestException.class);
+    assertThatThrownBy(() -> Cursor.decode(encode("2025-01-31T10:15:30|x"))).isInstanceOf(InvalidRequestException.class);
+  }
+
+  private static String encode(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,86 @@
+package com.amalitech.blogging_platform.monitoring;
+
+import com.amalitech.blogging_platform.dto.MonitoringDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+  @Test
+  void emptyHistogramReportsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.valueAtQuantile(0.99)).isZero();
+    assertThat(histogram.snapshot().getMeanMs()).isZero();
+  }
+
+  @Test
+  void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 0; value < 16; value++) {
+      histogram.record(value);
+    }
+
+    assertThat(histogram.valueAtQuantile(0.5)).isEqualTo(7);
+    assertThat(histogram.valueAtQuantile(1.0)).isEqualTo(15);
+  }
+
+  @Test
+  void percentilesAreWithinTheBucketError() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value * 1_000);
+    }
+
+    for (double quantile : new double[]{0.5, 0.9, 0.95, 0.99}) {
+      long exact = (long) Math.ceil(quantile * 10_000) * 1_000;
+      assertThat(histogram.valueAtQuantile(quantile))
+              .isGreaterThanOrEqualTo(exact)
+              .isLessThanOrEqualTo((long) (exact * 1.0625));
+    }
+    assertThat(histogram.valueAtQuantile(1.0)).isEqualTo(10_000_000);
+    assertThat(histogram.getMax()).isEqualTo(10_000_000);
+    assertThat(histogram.getTotal()).isEqualTo(50_005_000_000L);
+  }
+
+  @Test
+  void negativeValuesAreIgnored() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(-1);
+
+    assertThat(histogram.getCount()).isZero();
+  }
+
+  @Test
+  void mergeAddsTheValuesOfAnotherHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(1_000_000);
+    other.record(3_000_000);
+    other.record(5_000_000);
+
+    histogram.merge(other);
+
+    assertThat(histogram.getCount()).isEqualTo(3);
+    assertThat(histogram.getMax()).isEqualTo(5_000_000);
+    assertThat(histogram.getTotal()).isEqualTo(9_000_000);
+  }
+
+  @Test
+  void snapshotIsInMilliseconds() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(2_000_000);
+    histogram.record(4_000_000);
+
+    MonitoringDTO.Latency latency = histogram.snapshot();
+
+    assertThat(latency.getCount()).isEqualTo(2);
+    assertThat(latency.getMeanMs()).isEqualTo(3.0);
+    assertThat(latency.getMaxMs()).isEqualTo(4.0);
+    assertThat(latency.getP50Ms()).isCloseTo(2.0, within(2.0 * 0.0625));
+  }
+}